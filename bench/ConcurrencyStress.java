@@ -0,0 +1,151 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import instruction.InstructionTable;
+import source.SourceFile;
+
+/**
+ * 여러 어셈블을 동시에 수행하여 결과가 순차 수행과 같은지 확인하는 도구. 기계어 목록 테이블 하나를 모든 작업이 공유하며,
+ * 일반 모드, <code>--parallel</code>, <code>--one-pass</code>를 섞어 동시에 시작한다. 작업마다 심볼 테이블,
+ * 리터럴 테이블, 오브젝트 코드 출력을 순차 수행 결과와 바이트 단위로 비교하고, 하나라도 다르면 0이 아닌 종료 코드로 끝난다.
+ *
+ * <pre>
+ * java -cp out ConcurrencyStress -t inst_table.txt [옵션] [입력파일...]
+ *
+ * -n 횟수        동시에 수행할 어셈블 수 (기본 400)
+ * -j 스레드수    스레드 수 (기본 CPU 수의 2배)
+ * </pre>
+ *
+ * <p>
+ * 입력 파일 대신 <code>gen:라인수</code>를 주면 <code>WorkloadGenerator</code>로 소스 코드를 생성한다. 입력이
+ * 없으면 seed가 다른 생성 입력 4개를 사용한다.
+ */
+public class ConcurrencyStress {
+	public static void main(String[] args) {
+		int mismatches;
+		try {
+			String instFile = "inst_table.txt";
+			int tasks = 400;
+			int threads = Runtime.getRuntime().availableProcessors() * 2;
+			ArrayList<String> inputs = new ArrayList<String>();
+			for (int i = 0; i < args.length; i++) {
+				if ("-t".equals(args[i]))
+					instFile = args[++i];
+				else if ("-n".equals(args[i]))
+					tasks = Integer.parseInt(args[++i]);
+				else if ("-j".equals(args[i]))
+					threads = Integer.parseInt(args[++i]);
+				else
+					inputs.add(args[i]);
+			}
+
+			ArrayList<byte[]> sources = new ArrayList<byte[]>();
+			if (inputs.isEmpty()) {
+				for (int seed = 1; seed <= DEFAULT_INPUTS; seed++)
+					sources.add(generate(DEFAULT_LINES, seed));
+			} else {
+				for (String input : inputs)
+					sources.add(readInput(input));
+			}
+
+			mismatches = run(new Assembler(new InstructionTable(instFile)), sources, tasks, threads);
+		} catch (Exception e) {
+			System.out.println("Error : " + e.getMessage());
+			mismatches = -1;
+		}
+		System.exit(mismatches == 0 ? 0 : 1);
+	}
+
+	/**
+	 * 순차 수행 결과를 만든 뒤, 같은 입력을 여러 스레드에서 동시에 어셈블하여 비교한다.
+	 *
+	 * @return 결과가 다른 작업 수
+	 */
+	private static int run(Assembler assembler, ArrayList<byte[]> sources, int tasks, int threads)
+			throws Exception {
+		String[] expected = new String[sources.size()];
+		for (int i = 0; i < expected.length; i++)
+			expected[i] = assemble(assembler, sources.get(i), MODE_SEQUENTIAL);
+
+		// 모든 작업이 준비된 뒤 한꺼번에 시작하여 겹치는 구간을 늘린다
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		ArrayList<Future<String>> results = new ArrayList<Future<String>>();
+		try {
+			for (int task = 0; task < tasks; task++) {
+				byte[] source = sources.get(task % sources.size());
+				int mode = task % MODE_NAMES.length;
+				results.add(executor.submit(() -> {
+					start.await();
+					return assemble(assembler, source, mode);
+				}));
+			}
+			start.countDown();
+
+			int mismatches = 0;
+			for (int task = 0; task < tasks; task++) {
+				if (!results.get(task).get().equals(expected[task % sources.size()])) {
+					mismatches++;
+					System.out.println("mismatch: task " + task + " (input " + task % sources.size() + ", "
+							+ MODE_NAMES[task % MODE_NAMES.length] + ")");
+				}
+			}
+			System.out.printf("%d assemblies on %d threads, %d inputs: %d mismatches%n", tasks, threads,
+					sources.size(), mismatches);
+			return mismatches;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 소스 코드 하나를 어셈블하여 출력 파일 세 개의 내용을 이어 붙여 반환한다. 오류가 나면 오류 메시지를 반환하므로, 오류도
+	 * 순차 수행과 같은지 비교한다.
+	 */
+	private static String assemble(Assembler assembler, byte[] source, int mode) {
+		StringBuilder out = new StringBuilder();
+		try {
+			AssemblyContext context = assembler.createContext(SourceFile.of(source), mode == MODE_PARALLEL,
+					mode == MODE_ONE_PASS);
+			context.runPass1();
+			context.writeSymbols(out);
+			out.append(SEPARATOR);
+			context.writeLiterals(out);
+			out.append(SEPARATOR);
+			context.runPass2();
+			context.writeObjectCodes(out);
+		} catch (Exception e) {
+			out.append(SEPARATOR).append("Error : ").append(e.getMessage());
+		}
+		return out.toString();
+	}
+
+	private static byte[] readInput(String input) throws Exception {
+		if (!input.startsWith(GENERATED_INPUT))
+			return Files.readAllBytes(Path.of(input));
+		return generate(Long.parseLong(input.substring(GENERATED_INPUT.length())), 1);
+	}
+
+	private static byte[] generate(long lines, long seed) {
+		WorkloadGenerator generator = new WorkloadGenerator();
+		generator.seed = seed;
+		generator.lines = lines;
+		return generator.generate();
+	}
+
+	private static final int MODE_SEQUENTIAL = 0;
+	private static final int MODE_PARALLEL = 1;
+	private static final int MODE_ONE_PASS = 2;
+	private static final String[] MODE_NAMES = { "sequential", "--parallel", "--one-pass" };
+
+	private static final String SEPARATOR = "\n----\n";
+	private static final String GENERATED_INPUT = "gen:";
+	/** 입력이 없을 때 생성하는 입력 수와 라인 수 */
+	private static final int DEFAULT_INPUTS = 4;
+	private static final long DEFAULT_LINES = 5000;
+}
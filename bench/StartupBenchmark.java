@@ -0,0 +1,90 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import instruction.InstructionSnapshot;
+import instruction.InstructionTable;
+
+/**
+ * 기계어 목록 테이블 초기화 시간 측정 도구. 시작 시간은 JIT이 동작하기 전의 비용이 대부분이므로, 매번 새로운 JVM을 띄워
+ * 테이블 생성 한 번에 걸리는 시간을 측정한다.
+ *
+ * <ul>
+ * <li>text: 기계어 목록 파일을 파싱하고 예약어 테이블의 곱셈 상수를 새로 찾는다.
+ * <li>snapshot: 미리 만들어 둔 스냅샷을 읽는다. 원본 파일 내용의 체크섬으로 스냅샷이 최신인지 확인한다.
+ * </ul>
+ *
+ * <pre>
+ * java -cp out StartupBenchmark [-n 횟수] [inst_table.txt]
+ * </pre>
+ */
+public class StartupBenchmark {
+	public static void main(String[] args) {
+		try {
+			if (args.length == 3 && CHILD.equals(args[0])) {
+				runChild(args[1], args[2]);
+				return;
+			}
+
+			String instFile = "inst_table.txt";
+			int runs = 20;
+			for (int i = 0; i < args.length; i++) {
+				if ("-n".equals(args[i]))
+					runs = Integer.parseInt(args[++i]);
+				else
+					instFile = args[i];
+			}
+
+			// 스냅샷이 최신 상태가 되도록 한 번 만들어 둔다
+			InstructionSnapshot.create(instFile);
+
+			System.out.printf("%-12s%12s%12s%12s%n", "mode", "min(us)", "median(us)", "max(us)");
+			for (String mode : new String[] { "text", "snapshot" }) {
+				ArrayList<Long> micros = new ArrayList<Long>();
+				for (int i = 0; i < runs; i++)
+					micros.add(runFresh(mode, instFile));
+				Collections.sort(micros);
+				System.out.printf("%-12s%12d%12d%12d%n", mode, micros.get(0), micros.get(micros.size() / 2),
+						micros.get(micros.size() - 1));
+			}
+		} catch (Exception e) {
+			System.out.println("Error : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * 같은 classpath로 새로운 JVM을 띄워 측정값 하나를 받아 온다.
+	 */
+	private static long runFresh(String mode, String instFile) throws IOException, InterruptedException {
+		String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+		Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				StartupBenchmark.class.getName(), CHILD, mode, instFile).redirectErrorStream(true).start();
+
+		String output;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			output = reader.readLine();
+		}
+		if (process.waitFor() != 0 || output == null || !output.matches("\\d+"))
+			throw new RuntimeException("measurement failed (" + output + ")");
+		return Long.parseLong(output);
+	}
+
+	private static void runChild(String mode, String instFile) throws IOException {
+		if (!Files.isRegularFile(Path.of(instFile)))
+			throw new RuntimeException("missing instruction table file (" + instFile + ")");
+
+		long start = System.nanoTime();
+		InstructionTable table = new InstructionTable(instFile, "snapshot".equals(mode));
+		long end = System.nanoTime();
+
+		if (table.search("LDA").isEmpty())
+			throw new RuntimeException("broken instruction table");
+		System.out.println((end - start) / 1000);
+	}
+
+	private static final String CHILD = "--child";
+}
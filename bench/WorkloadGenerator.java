@@ -0,0 +1,349 @@
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * 규모 시험용 SIC/XE 소스 코드 생성기. 같은 seed와 옵션이면 항상 같은 소스 코드를 만든다.
+ *
+ * <p>
+ * 생성된 코드는 현재 어셈블러가 받아들이는 형태만 사용한다.
+ * <ul>
+ * <li>모든 라인은 label, operator, operand, comment 네 필드를 탭으로 구분한다.
+ * <li>지역 심볼은 같은 section에서 반드시 label로 정의되며, 외부 심볼(EXTREF)은 4형식 명령어와 WORD 수식에서만
+ * 사용한다.
+ * <li>BYTE는 X'..' 형태만, 즉시 주소 지정은 10진수 상수만 사용하며, WORD 수식은 외부 심볼 사이의 차이만 사용한다.
+ * <li>LTORG 하나에 모이는 리터럴 크기의 합은 T 레코드 하나(30바이트)를 넘지 않는다.
+ * <li>사용하는 명령어: LDA, STA, LDX, STX, LDT, LDCH, STCH, COMP, ADD, SUB, STL, TD, RD, WD, J, JEQ,
+ * JLT, JSUB, RSUB, CLEAR, TIXR, COMPR. 기계어 목록 파일에 이 명령어들이 있어야 한다.
+ * </ul>
+ *
+ * <pre>
+ * java -cp out WorkloadGenerator -o 출력파일 [옵션]
+ *
+ * -seed n       난수 seed (기본 1)
+ * -lines n      전체 라인 수 (기본 1000)
+ * -sections n   control section 수 (기본 3)
+ * -extdef n     section별 EXTDEF 심볼 수 (기본 4)
+ * -extref n     section별 EXTREF 심볼 수 (기본 4)
+ * -literal p    메모리 operand 중 리터럴 비율 (기본 0.1)
+ * -ltorg n      LTORG 간격 (라인 수, 0이면 사용하지 않음, 기본 200)
+ * -format2 p    2형식 명령어 비율 (기본 0.15)
+ * -format4 p    4형식 명령어 비율 (기본 0.1)
+ * -equ p        EQU 비율 (기본 0.02)
+ * -data p       RESW/RESB/BYTE/WORD 비율 (기본 0.04)
+ * </pre>
+ */
+public class WorkloadGenerator {
+	public static void main(String[] args) {
+		try {
+			WorkloadGenerator generator = new WorkloadGenerator();
+			String output = null;
+
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				if ("-o".equals(arg))
+					output = args[++i];
+				else if ("-seed".equals(arg))
+					generator.seed = Long.parseLong(args[++i]);
+				else if ("-lines".equals(arg))
+					generator.lines = Long.parseLong(args[++i]);
+				else if ("-sections".equals(arg))
+					generator.sections = Integer.parseInt(args[++i]);
+				else if ("-extdef".equals(arg))
+					generator.extdefs = Integer.parseInt(args[++i]);
+				else if ("-extref".equals(arg))
+					generator.extrefs = Integer.parseInt(args[++i]);
+				else if ("-literal".equals(arg))
+					generator.literalRatio = Double.parseDouble(args[++i]);
+				else if ("-ltorg".equals(arg))
+					generator.ltorgInterval = Integer.parseInt(args[++i]);
+				else if ("-format2".equals(arg))
+					generator.format2Ratio = Double.parseDouble(args[++i]);
+				else if ("-format4".equals(arg))
+					generator.format4Ratio = Double.parseDouble(args[++i]);
+				else if ("-equ".equals(arg))
+					generator.equRatio = Double.parseDouble(args[++i]);
+				else if ("-data".equals(arg))
+					generator.dataRatio = Double.parseDouble(args[++i]);
+				else
+					throw new RuntimeException("illegal argument (" + arg + ")");
+			}
+
+			if (output == null)
+				throw new RuntimeException("missing output file (-o)");
+
+			try (Writer writer = new BufferedWriter(new FileWriter(output), 64 * 1024)) {
+				generator.generate(writer);
+			}
+		} catch (Exception e) {
+			System.out.println("Error : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * 소스 코드를 생성하여 바이트 배열로 반환한다. benchmark에서 입력을 메모리에서 바로 만들 때 사용한다.
+	 *
+	 * @return ASCII 소스 코드
+	 */
+	public byte[] generate() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(bytes, StandardCharsets.ISO_8859_1))) {
+			generate(writer);
+		} catch (IOException e) {
+			throw new RuntimeException(e.getMessage());
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * 소스 코드를 생성하여 출력 대상에 쓴다. 라인 단위로 바로 쓰므로 라인 수와 무관하게 메모리를 거의 사용하지 않는다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException 출력 실패.
+	 */
+	public void generate(Writer out) throws IOException {
+		if (sections < 1 || sections > 99999)
+			throw new RuntimeException("illegal number of sections (" + sections + ")");
+
+		_out = out;
+		_random = new Random(seed);
+
+		// section마다 헤더와 EXTDEF/EXTREF를 제외한 본문 라인 수. 마지막 END 한 줄은 따로 센다
+		long perSection = Math.max(extdefs + 1, (lines - 1) / sections - 3);
+		for (int section = 0; section < sections; section++)
+			generateSection(section, perSection);
+
+		line("", "END", sectionName(0), "end of program");
+	}
+
+	private void generateSection(int section, long bodyLines) throws IOException {
+		_labelCount = 0;
+
+		if (section == 0)
+			line(sectionName(section), "START", "0", "generated program");
+		else
+			line(sectionName(section), "CSECT", "", "generated section");
+
+		if (extdefs > 0) {
+			StringBuilder defs = new StringBuilder();
+			for (int i = 0; i < extdefs; i++)
+				defs.append(i == 0 ? "" : ",").append(defineName(section, i));
+			line("", "EXTDEF", defs.toString(), "exported symbols");
+		}
+
+		// 다른 section의 대표 심볼이나 EXTDEF 심볼 중에서 중복 없이 고른다
+		long candidates = (long) (sections - 1) * (extdefs + 1);
+		_externals = new String[(int) Math.min(extrefs, candidates)];
+		if (_externals.length > 0) {
+			HashSet<String> picked = new HashSet<String>();
+			StringBuilder refs = new StringBuilder();
+			for (int i = 0; i < _externals.length; i++) {
+				String name;
+				do {
+					int other = (section + 1 + _random.nextInt(sections - 1)) % sections;
+					int index = _random.nextInt(extdefs + 1);
+					name = index == extdefs ? sectionName(other) : defineName(other, index);
+				} while (!picked.add(name));
+				_externals[i] = name;
+				refs.append(i == 0 ? "" : ",").append(name);
+			}
+			line("", "EXTREF", refs.toString(), "imported symbols");
+		}
+
+		for (long i = 0; i < bodyLines; i++) {
+			// EXTDEF 심볼은 본문 앞쪽 명령어들의 label로 정의한다
+			String label = "";
+			if (i < extdefs)
+				label = defineName(section, (int) i);
+			else if (i == bodyLines - 1) {
+				// 마지막 라인은 operand 없이 label만 정의하여, 앞에서 참조한 다음 label이 반드시 정의되도록 한다
+				line(nextLabel(), "RSUB", "", "return");
+				break;
+			} else if (_random.nextInt(5) == 0)
+				label = nextLabel();
+
+			if (ltorgInterval > 0 && i % ltorgInterval == ltorgInterval - 1 && label.isEmpty()) {
+				line("", "LTORG", "", "literal pool");
+				continue;
+			}
+
+			double r = _random.nextDouble();
+			if (i >= extdefs && r < dataRatio && !label.isEmpty())
+				generateData(label);
+			else if (i >= extdefs && (r -= dataRatio) < equRatio && !label.isEmpty())
+				generateEqu(label);
+			else if ((r -= equRatio) < format2Ratio)
+				generateFormat2(label);
+			else if ((r -= format2Ratio) < format4Ratio)
+				generateFormat4(label);
+			else
+				generateFormat3(label);
+		}
+	}
+
+	private void generateFormat2(String label) throws IOException {
+		int kind = _random.nextInt(3);
+		if (kind == 0)
+			line(label, "CLEAR", register(), "clear register");
+		else if (kind == 1)
+			line(label, "TIXR", register(), "increment and compare");
+		else
+			line(label, "COMPR", register() + "," + register(), "compare registers");
+	}
+
+	private void generateFormat4(String label) throws IOException {
+		String target = _externals.length > 0 ? _externals[_random.nextInt(_externals.length)] : anyLabel();
+		int kind = _random.nextInt(3);
+		if (kind == 0)
+			line(label, "+JSUB", target, "call");
+		else if (kind == 1)
+			line(label, "+LDA", target, "load far");
+		else
+			line(label, "+STCH", target + ",X", "store far");
+	}
+
+	private void generateFormat3(String label) throws IOException {
+		String op = FORMAT3[_random.nextInt(FORMAT3.length)];
+		if ("RSUB".equals(op)) {
+			line(label, op, "", "return");
+			return;
+		}
+
+		double r = _random.nextDouble();
+		String operand;
+		if (r < literalRatio)
+			operand = literal();
+		else if ((r -= literalRatio) < 0.15)
+			operand = "#" + _random.nextInt(4096);
+		else if ((r -= 0.15) < 0.05)
+			operand = "@" + anyLabel();
+		else if ((r -= 0.05) < 0.1)
+			operand = anyLabel() + ",X";
+		else
+			operand = anyLabel();
+		line(label, op, operand, "operation");
+	}
+
+	private void generateData(String label) throws IOException {
+		int kind = _random.nextInt(4);
+		if (kind == 0)
+			line(label, "RESW", String.valueOf(1 + _random.nextInt(16)), "reserve words");
+		else if (kind == 1)
+			line(label, "RESB", String.valueOf(1 + _random.nextInt(4096)), "reserve bytes");
+		else if (kind == 2)
+			line(label, "BYTE", "X'" + HEX[_random.nextInt(16)] + HEX[_random.nextInt(16)] + "'", "byte constant");
+		else if (_externals.length > 1 && _random.nextBoolean())
+			line(label, "WORD", _externals[0] + "-" + _externals[1 + _random.nextInt(_externals.length - 1)],
+					"external distance");
+		else
+			line(label, "WORD", String.valueOf(_random.nextInt(4096)), "word constant");
+	}
+
+	private void generateEqu(String label) throws IOException {
+		int kind = _random.nextInt(3);
+		if (kind == 0 || _labelCount < 3)
+			line(label, "EQU", "*", "current location");
+		else if (kind == 1)
+			line(label, "EQU", definedLabel() + "-" + definedLabel(), "distance");
+		else
+			line(label, "EQU", String.valueOf(_random.nextInt(4096)), "constant");
+	}
+
+	private String literal() {
+		// 같은 리터럴이 반복해서 나오도록 작은 집합에서 고른다. LTORG 하나가 만드는 텍스트는 30바이트를 넘으면 T 레코드로
+		// 나눌 수 없으므로, 2바이트 C 리터럴은 8종류(16바이트)로 제한한다
+		if (_random.nextBoolean()) {
+			int id = _random.nextInt(32);
+			return "=X'" + HEX[id >> 4] + HEX[id & 0xF] + "'";
+		}
+		int id = _random.nextInt(8);
+		return "=C'" + (char) ('A' + id) + (char) ('Z' - id * 3) + "'";
+	}
+
+	private String register() {
+		return REGISTERS[_random.nextInt(REGISTERS.length)];
+	}
+
+	/**
+	 * 새로운 지역 label 이름을 만든다. 이름에 16진수 숫자만 쓰므로 "CSECT"를 포함할 수 없다.
+	 */
+	private String nextLabel() {
+		return localName(_labelCount++);
+	}
+
+	/**
+	 * 이미 정의되었거나 바로 다음에 정의될 label을 고른다. 다음 label은 늦어도 section의 마지막 라인에서 정의된다.
+	 */
+	private String anyLabel() {
+		if (_labelCount == 0 || _random.nextInt(8) == 0)
+			return localName(_labelCount);
+		return definedLabel();
+	}
+
+	private String definedLabel() {
+		if (_labelCount == 0)
+			return localName(0);
+		return localName(_random.nextInt(_labelCount));
+	}
+
+	private static String localName(int index) {
+		// 첫 글자로 구분하여 한 section에서 16 * 2^20개의 label을 쓸 수 있다
+		return LABEL_PREFIX[(index >>> 20) % LABEL_PREFIX.length] + hex5(index & 0xFFFFF);
+	}
+
+	private static String sectionName(int section) {
+		return String.format("S%05d", section);
+	}
+
+	private static String defineName(int section, int index) {
+		return "D" + hex5(section * 64 + index);
+	}
+
+	private static String hex5(int value) {
+		StringBuilder builder = new StringBuilder(5);
+		for (int shift = 16; shift >= 0; shift -= 4)
+			builder.append(HEX[(value >>> shift) & 0xF]);
+		return builder.toString();
+	}
+
+	private void line(String label, String operator, String operand, String comment) throws IOException {
+		_out.write(label);
+		_out.write('\t');
+		_out.write(operator);
+		_out.write('\t');
+		_out.write(operand);
+		_out.write('\t');
+		_out.write(comment);
+		_out.write('\n');
+	}
+
+	private static final String[] FORMAT3 = { "LDA", "STA", "LDX", "STX", "LDT", "LDCH", "STCH", "COMP", "ADD",
+			"SUB", "STL", "TD", "RD", "WD", "J", "JEQ", "JLT", "JSUB", "RSUB" };
+	private static final String[] REGISTERS = { "A", "X", "L", "B", "S", "T", "F" };
+	private static final String[] LABEL_PREFIX = { "L", "M", "N", "P", "Q", "R", "U", "V", "W", "Y", "Z", "G", "H",
+			"I", "J", "K" };
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	long seed = 1;
+	long lines = 1000;
+	int sections = 3;
+	int extdefs = 4;
+	int extrefs = 4;
+	double literalRatio = 0.1;
+	int ltorgInterval = 200;
+	double format2Ratio = 0.15;
+	double format4Ratio = 0.1;
+	double equRatio = 0.02;
+	double dataRatio = 0.04;
+
+	private Writer _out;
+	private Random _random;
+	private String[] _externals;
+	private int _labelCount;
+}
@@ -0,0 +1,68 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import benchmark.NullAppendable;
+import benchmark.Stages;
+import instruction.InstructionTable;
+import source.SourceFile;
+import source.SourceSection;
+
+/**
+ * benchmark 패키지에서 어셈블러 단계를 호출할 수 있도록 기본 패키지의 클래스를 감싼다.
+ *
+ * @see Stages
+ */
+public class SectionStages implements Stages {
+	public SectionStages(InstructionTable instTable) {
+		_instTable = instTable;
+		_assembler = new Assembler(instTable);
+	}
+
+	@Override
+	public byte[] generate(long lines) {
+		WorkloadGenerator generator = new WorkloadGenerator();
+		generator.lines = lines;
+		// section 하나가 너무 커지지 않도록 만 라인마다 section을 하나씩 늘린다
+		generator.sections = (int) Math.max(3, Math.min(99999, lines / 10000));
+		return generator.generate();
+	}
+
+	@Override
+	public List<Object> pass1(List<SourceSection> sections, boolean parallel) {
+		ArrayList<Object> controlSections = new ArrayList<Object>(sections.size());
+		for (SourceSection section : sections)
+			controlSections.add(new ControlSection(_instTable, section, parallel));
+		return controlSections;
+	}
+
+	@Override
+	public List<Object> pass2(List<Object> controlSections) {
+		ArrayList<Object> objectCodes = new ArrayList<Object>(controlSections.size());
+		for (Object controlSection : controlSections)
+			objectCodes.add(((ControlSection) controlSection).buildObjectCode());
+		return objectCodes;
+	}
+
+	@Override
+	public NullAppendable writeObjectCodes(List<Object> objectCodes) throws IOException {
+		NullAppendable out = new NullAppendable();
+		ObjectCodeWriter writer = new ObjectCodeWriter(out);
+		for (Object objectCode : objectCodes)
+			writer.write((ObjectCode) objectCode);
+		return out;
+	}
+
+	@Override
+	public NullAppendable assemble(byte[] content) throws IOException {
+		AssemblyContext context = _assembler.assemble(SourceFile.of(content), false);
+		NullAppendable out = new NullAppendable();
+		context.writeSymbols(out);
+		context.writeLiterals(out);
+		context.writeObjectCodes(out);
+		return out;
+	}
+
+	private final InstructionTable _instTable;
+	private final Assembler _assembler;
+}
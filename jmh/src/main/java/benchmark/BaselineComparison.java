@@ -0,0 +1,155 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMH 결과(<code>-rf csv</code>)를 이전 결과와 비교한다. benchmark마다 처리량과 GC profiler의
+ * <code>gc.alloc.rate.norm</code>을 라인 단위로 바꾸어 출력한다. <code>lines</code> 파라미터가 있으면 한 번의 수행이
+ * 그만큼의 라인을 처리한 것으로 보고, 없으면 한 번의 수행(<code>@OperationsPerInvocation</code>이 있으면 그
+ * 단위)을 한 라인으로 본다.
+ *
+ * <pre>
+ * java -cp ... benchmark.BaselineComparison 결과.csv [이전결과.csv]
+ * </pre>
+ */
+public final class BaselineComparison {
+	public static void main(String[] args) {
+		try {
+			if (args.length < 1 || args.length > 2)
+				throw new RuntimeException("usage: BaselineComparison result.csv [baseline.csv]");
+
+			Map<String, Result> results = load(Path.of(args[0]));
+			Map<String, Result> baseline = args.length == 2 ? load(Path.of(args[1])) : Map.of();
+			print(results, baseline);
+		} catch (Exception e) {
+			System.out.println("Error : " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	private BaselineComparison() {
+	}
+
+	/**
+	 * benchmark 하나의 결과.
+	 */
+	static class Result {
+		Result(String name, long lines) {
+			this.name = name;
+			this.lines = lines;
+		}
+
+		final String name;
+		/** 한 번의 수행에서 처리하는 라인 수 */
+		final long lines;
+		double opsPerSecond = Double.NaN;
+		double bytesPerOp = Double.NaN;
+
+		double linesPerSecond() {
+			return opsPerSecond * lines;
+		}
+
+		double bytesPerLine() {
+			return bytesPerOp / lines;
+		}
+	}
+
+	/**
+	 * JMH CSV 결과를 읽는다. GC profiler의 결과는 <code>benchmark:gc.alloc.rate.norm</code> 같은 이름의 별도 줄로
+	 * 기록되므로, 같은 benchmark와 파라미터의 결과에 합친다.
+	 */
+	static Map<String, Result> load(Path file) throws IOException, RuntimeException {
+		List<String> rows = Files.readAllLines(file);
+		if (rows.isEmpty())
+			throw new RuntimeException("empty result file (" + file + ")");
+
+		List<String> header = split(rows.get(0));
+		int nameColumn = header.indexOf("Benchmark");
+		int scoreColumn = header.indexOf("Score");
+		int linesColumn = header.indexOf("Param: " + LINES_PARAM);
+		if (nameColumn < 0 || scoreColumn < 0)
+			throw new RuntimeException("not a JMH csv result (" + file + ")");
+
+		LinkedHashMap<String, Result> results = new LinkedHashMap<String, Result>();
+		for (int i = 1; i < rows.size(); i++) {
+			List<String> row = split(rows.get(i));
+			if (row.size() != header.size())
+				continue;
+
+			String name = row.get(nameColumn);
+			String metric = "";
+			int colon = name.indexOf(':');
+			if (colon >= 0) {
+				// JMH 버전에 따라 보조 결과 이름 앞에 '·'가 붙는다
+				metric = name.substring(colon + 1).replace("·", "");
+				name = name.substring(0, colon);
+			}
+			if (name.startsWith(PACKAGE_PREFIX))
+				name = name.substring(PACKAGE_PREFIX.length());
+
+			String lines = linesColumn >= 0 ? row.get(linesColumn) : "";
+			String key = lines.isEmpty() ? name : name + "." + lines;
+			Result result = results.get(key);
+			if (result == null) {
+				result = new Result(key, lines.isEmpty() ? 1 : Long.parseLong(lines));
+				results.put(key, result);
+			}
+
+			double score = Double.parseDouble(row.get(scoreColumn));
+			if (metric.isEmpty())
+				result.opsPerSecond = score;
+			else if (ALLOC_METRIC.equals(metric))
+				result.bytesPerOp = score;
+		}
+		return results;
+	}
+
+	private static void print(Map<String, Result> results, Map<String, Result> baseline) {
+		System.out.printf("%-40s%16s%16s%14s%12s%12s%n", "benchmark", "ops/s", "lines/s", "B/line", "d(lines/s)",
+				"d(B/line)");
+		for (Result result : results.values()) {
+			Result base = baseline.get(result.name);
+			String throughputDelta = base == null ? "" : percent(result.linesPerSecond(), base.linesPerSecond());
+			String allocDelta = base == null ? "" : percent(result.bytesPerLine(), base.bytesPerLine());
+			System.out.printf("%-40s%16.1f%16.1f%14.1f%12s%12s%n", result.name, result.opsPerSecond,
+					result.linesPerSecond(), result.bytesPerLine(), throughputDelta, allocDelta);
+		}
+	}
+
+	private static String percent(double value, double base) {
+		if (base == 0 || Double.isNaN(base) || Double.isNaN(value))
+			return "n/a";
+		return String.format("%+.1f%%", (value - base) * 100 / base);
+	}
+
+	/**
+	 * CSV 한 줄을 나눈다. 따옴표 안의 쉼표는 나누지 않으며, 따옴표는 떼어 낸다.
+	 */
+	private static List<String> split(String row) {
+		ArrayList<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < row.length(); i++) {
+			char c = row.charAt(i);
+			if (c == '"')
+				quoted = !quoted;
+			else if (c == ',' && !quoted) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else
+				field.append(c);
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static final String PACKAGE_PREFIX = "benchmark.";
+	private static final String LINES_PARAM = "lines";
+	private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+}
@@ -0,0 +1,98 @@
+package benchmark;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import instruction.EncodingTemplates;
+import instruction.Instruction;
+import instruction.InstructionTable;
+import token.TokenStore;
+
+/**
+ * 명령어 하나의 object code 계산. 형식과 주소 지정 방식에 따라 분기하는 방식과 틀 테이블을 읽는 방식을 비교한다. 명령어와
+ * nixbpe 조합을 섞어 두어 분기 예측이 맞지 않는 경우를 측정하며, 명령어 하나를 한 라인으로 센다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodeBenchmark {
+	@Setup
+	public void setUp() throws FileNotFoundException, IOException {
+		InstructionTable instTable = new InstructionTable(SourceInput.instTableFile());
+		_templates = instTable.getEncodingTemplates();
+
+		Random random = new Random(1);
+		for (int i = 0; i < COUNT; i++) {
+			_ids[i] = random.nextInt(_templates.size());
+			_instructions[i] = _templates.getInstruction(_ids[i]);
+			_nixbpes[i] = NIXBPES[random.nextInt(NIXBPES.length)];
+			_targets[i] = random.nextInt(0x8000);
+			_addresses[i] = random.nextInt(0x8000);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public int[] branch() {
+		for (int i = 0; i < COUNT; i++)
+			_encoded[i] = encodeBranchy(_instructions[i], _nixbpes[i], _targets[i], _addresses[i]);
+		return _encoded;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public int[] template() {
+		for (int i = 0; i < COUNT; i++)
+			_encoded[i] = _templates.encode(_ids[i], _nixbpes[i], _targets[i], _addresses[i]);
+		return _encoded;
+	}
+
+	/**
+	 * <code>EncodingTemplates</code> 이전의 방식대로 형식과 주소 지정 방식에 따라 분기하여 object code를 계산한다.
+	 */
+	private static int encodeBranchy(Instruction inst, int nixbpe, int target, int address) {
+		int opcode = inst.getOpcode();
+		if (inst.getFormat() == Instruction.Format.THREE_OR_FOUR) {
+			if ((nixbpe & TokenStore.E) != 0)
+				return nixbpe << 20 | opcode << 24;
+			if ((nixbpe & (TokenStore.N | TokenStore.I)) == TokenStore.I)
+				return nixbpe << 12 | target | opcode << 16;
+			int displacement = target >= address ? target - address : 0x1000 - (address - target);
+			return nixbpe << 12 | displacement | opcode << 16;
+		}
+		Instruction.OperandType type = inst.getOperandType();
+		if (type == Instruction.OperandType.REG || type == Instruction.OperandType.REG1_REG2)
+			return opcode << 8 | target;
+		return 0;
+	}
+
+	/** 측정에 사용하는 명령어 수 */
+	private static final int COUNT = 100000;
+	/** 측정에 사용하는 nixbpe 조합. simple, indexed, immediate, indirect, format 4 */
+	private static final int[] NIXBPES = { 0b110010, 0b111010, 0b010000, 0b100010, 0b110001 };
+
+	private EncodingTemplates _templates;
+	private final int[] _ids = new int[COUNT];
+	private final Instruction[] _instructions = new Instruction[COUNT];
+	private final int[] _nixbpes = new int[COUNT];
+	private final int[] _targets = new int[COUNT];
+	private final int[] _addresses = new int[COUNT];
+	private final int[] _encoded = new int[COUNT];
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import instruction.InstructionSnapshot;
+import instruction.InstructionTable;
+
+/**
+ * 기계어 목록 테이블 초기화. JIT이 동작한 뒤의 비용이므로, 시작 시간은 <code>StartupBenchmark</code>로 따로 측정한다.
+ *
+ * <ul>
+ * <li>text: 기계어 목록 파일을 파싱하고 예약어 테이블의 곱셈 상수를 새로 찾는다.
+ * <li>snapshot: 측정 전에 만들어 둔 스냅샷을 읽는다.
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstructionTableBenchmark {
+	@Setup
+	public void setUp() throws FileNotFoundException, IOException {
+		_instFile = SourceInput.instTableFile();
+		InstructionSnapshot.create(_instFile);
+	}
+
+	@Benchmark
+	public InstructionTable text() throws FileNotFoundException, IOException {
+		return new InstructionTable(_instFile, false);
+	}
+
+	@Benchmark
+	public InstructionTable snapshot() throws FileNotFoundException, IOException {
+		return new InstructionTable(_instFile, true);
+	}
+
+	private String _instFile;
+}
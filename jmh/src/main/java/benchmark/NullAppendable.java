@@ -0,0 +1,35 @@
+package benchmark;
+
+/**
+ * 출력 내용을 버리는 출력 대상. 출력 비용만 측정할 때 사용한다.
+ */
+public class NullAppendable implements Appendable {
+	@Override
+	public Appendable append(CharSequence csq) {
+		_count += csq.length();
+		return this;
+	}
+
+	@Override
+	public Appendable append(CharSequence csq, int start, int end) {
+		_count += end - start;
+		return this;
+	}
+
+	@Override
+	public Appendable append(char c) {
+		_count++;
+		return this;
+	}
+
+	/**
+	 * 지금까지 버린 문자 수를 반환한다.
+	 *
+	 * @return 문자 수
+	 */
+	public long getCount() {
+		return _count;
+	}
+
+	private long _count;
+}
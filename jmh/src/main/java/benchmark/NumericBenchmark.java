@@ -0,0 +1,57 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import numeric.Numeric;
+import symbol.SymbolTable;
+
+/**
+ * Numeric 상수 계산과 수식 계산. 입력 크기와 무관하며, 값 하나를 한 라인으로 센다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumericBenchmark {
+	@Setup
+	public void setUp() {
+		_symbolTable = new SymbolTable();
+		_symbolTable.put("BUFFER", 0x33);
+		_symbolTable.put("BUFEND", 0x1033);
+	}
+
+	@Benchmark
+	public Numeric constantDecimal() {
+		return new Numeric("4096");
+	}
+
+	@Benchmark
+	public Numeric constantChar() {
+		return new Numeric("=C'EOF'");
+	}
+
+	@Benchmark
+	public Numeric constantHex() {
+		return new Numeric("=X'F1'");
+	}
+
+	@Benchmark
+	public Numeric formula() {
+		return new Numeric("BUFEND-BUFFER", _symbolTable, 0);
+	}
+
+	private SymbolTable _symbolTable;
+}
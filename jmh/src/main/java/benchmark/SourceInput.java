@@ -0,0 +1,52 @@
+package benchmark;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import instruction.InstructionTable;
+import source.SourceFile;
+import source.SourceSection;
+
+/**
+ * 생성한 소스 코드 입력. 입력 크기는 <code>lines</code> 파라미터로 정하며, 기본값은 small, medium, very large에
+ * 해당하는 천, 십만, 백만 라인이다. <code>BaselineComparison</code>은 이 값을 한 번의 수행에서 처리하는 라인 수로 본다.
+ */
+@State(Scope.Benchmark)
+public class SourceInput {
+	/** 소스 코드 라인 수 */
+	@Param({ "1000", "100000", "1000000" })
+	public long lines;
+
+	InstructionTable instTable;
+	Stages stages;
+	byte[] content;
+	SourceFile source;
+	ArrayList<SourceSection> sections;
+
+	@Setup
+	public void setUp() throws FileNotFoundException, IOException {
+		instTable = new InstructionTable(instTableFile());
+		stages = Stages.load(instTable);
+		content = stages.generate(lines);
+		source = SourceFile.of(content);
+		sections = source.divideSections();
+	}
+
+	/**
+	 * 기계어 목록 파일을 반환한다. <code>benchmark.instTable</code> 시스템 속성으로 정하며, 없으면 작업 디렉터리의
+	 * <code>inst_table.txt</code>를 사용한다.
+	 *
+	 * @return 기계어 목록 파일
+	 */
+	static String instTableFile() {
+		return System.getProperty(INST_TABLE_PROPERTY, "inst_table.txt");
+	}
+
+	private static final String INST_TABLE_PROPERTY = "benchmark.instTable";
+}
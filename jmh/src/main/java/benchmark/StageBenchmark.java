@@ -0,0 +1,95 @@
+package benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import token.StringToken;
+
+/**
+ * 어셈블러 단계별 측정. 한 번의 수행에서 입력 소스 코드 전체를 처리하며, 단계마다 앞 단계의 결과는 측정 전에 만들어 둔다.
+ *
+ * <ul>
+ * <li>lexer: 모든 라인을 토큰 슬롯 하나에 차례로 토큰화한다.
+ * <li>pass1, pass1Parallel: section마다 <code>ControlSection</code>을 만든다.
+ * <li>pass2: section마다 <code>buildObjectCode()</code>를 호출한다.
+ * <li>objectCode: 오브젝트 코드를 출력 내용을 버리는 출력 대상에 쓴다.
+ * <li>end2end: 어셈블하고 세 출력 파일의 내용을 모두 쓴다.
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class StageBenchmark {
+	/**
+	 * pass1까지 수행해 둔 입력.
+	 */
+	@State(Scope.Benchmark)
+	public static class Pass1Output extends SourceInput {
+		List<Object> controlSections;
+
+		@Setup
+		public void runPass1() {
+			controlSections = stages.pass1(sections, false);
+		}
+	}
+
+	/**
+	 * pass2까지 수행해 둔 입력.
+	 */
+	@State(Scope.Benchmark)
+	public static class Pass2Output extends Pass1Output {
+		List<Object> objectCodes;
+
+		@Setup
+		public void runPass2() {
+			objectCodes = stages.pass2(controlSections);
+		}
+	}
+
+	@Benchmark
+	public StringToken lexer(SourceInput input) {
+		StringToken slot = new StringToken();
+		for (int i = 0; i < input.source.lineCount(); i++)
+			slot.scan(input.source, i);
+		return slot;
+	}
+
+	@Benchmark
+	public List<Object> pass1(SourceInput input) {
+		return input.stages.pass1(input.sections, false);
+	}
+
+	@Benchmark
+	public List<Object> pass1Parallel(SourceInput input) {
+		return input.stages.pass1(input.sections, true);
+	}
+
+	@Benchmark
+	public List<Object> pass2(Pass1Output input) {
+		return input.stages.pass2(input.controlSections);
+	}
+
+	@Benchmark
+	public NullAppendable objectCode(Pass2Output input) throws IOException {
+		return input.stages.writeObjectCodes(input.objectCodes);
+	}
+
+	@Benchmark
+	public NullAppendable end2end(SourceInput input) throws IOException {
+		return input.stages.assemble(input.content);
+	}
+}
@@ -0,0 +1,81 @@
+package benchmark;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import instruction.InstructionTable;
+import source.SourceSection;
+
+/**
+ * 기본 패키지에 있는 어셈블러 단계를 benchmark에서 호출하기 위한 인터페이스. JMH는 기본 패키지의 benchmark를 만들지
+ * 않고, 이름 있는 패키지에서는 기본 패키지의 클래스를 import할 수 없으므로 기본 패키지의 <code>SectionStages</code>가
+ * 이 인터페이스를 구현한다. 구현 객체는 측정 전에 한 번만 reflection으로 만들며, 측정 중에는 인터페이스 호출만 한다.
+ *
+ * <p>
+ * 단계의 결과(<code>ControlSection</code>, <code>ObjectCode</code>)는 <code>Object</code>로 받아 다음 단계에 그대로
+ * 넘긴다.
+ */
+public interface Stages {
+	/**
+	 * 기본 패키지의 구현 객체를 만든다.
+	 *
+	 * @param instTable 기계어 목록 테이블
+	 * @return 단계 구현 객체
+	 * @throws RuntimeException 구현 클래스가 없거나 만들 수 없음.
+	 */
+	static Stages load(InstructionTable instTable) throws RuntimeException {
+		try {
+			return (Stages) Class.forName(IMPLEMENTATION).getConstructor(InstructionTable.class).newInstance(instTable);
+		} catch (ClassNotFoundException | NoSuchMethodException | InstantiationException | IllegalAccessException
+				| InvocationTargetException e) {
+			throw new RuntimeException("cannot load assembler stages (" + e + ")");
+		}
+	}
+
+	/**
+	 * <code>WorkloadGenerator</code>로 소스 코드를 생성한다. seed는 항상 같으므로 같은 라인 수면 같은 입력을 만든다.
+	 *
+	 * @param lines 라인 수
+	 * @return 소스 코드
+	 */
+	byte[] generate(long lines);
+
+	/**
+	 * section마다 pass1을 수행한다.
+	 *
+	 * @param sections section 목록
+	 * @param parallel 라인별 작업을 병렬로 수행할지 여부
+	 * @return section별 <code>ControlSection</code>
+	 */
+	List<Object> pass1(List<SourceSection> sections, boolean parallel);
+
+	/**
+	 * section마다 pass2를 수행한다.
+	 *
+	 * @param controlSections <code>pass1()</code>의 결과
+	 * @return section별 <code>ObjectCode</code>
+	 */
+	List<Object> pass2(List<Object> controlSections);
+
+	/**
+	 * 오브젝트 코드를 출력 내용을 버리는 출력 대상에 쓴다.
+	 *
+	 * @param objectCodes <code>pass2()</code>의 결과
+	 * @return 출력 대상
+	 * @throws IOException 출력 실패.
+	 */
+	NullAppendable writeObjectCodes(List<Object> objectCodes) throws IOException;
+
+	/**
+	 * 소스 코드 하나를 어셈블하고 심볼 테이블, 리터럴 테이블, 오브젝트 코드를 출력 내용을 버리는 출력 대상에 쓴다.
+	 *
+	 * @param content 소스 코드
+	 * @return 출력 대상
+	 * @throws IOException 출력 실패.
+	 */
+	NullAppendable assemble(byte[] content) throws IOException;
+
+	/** 기본 패키지의 구현 클래스 */
+	String IMPLEMENTATION = "SectionStages";
+}
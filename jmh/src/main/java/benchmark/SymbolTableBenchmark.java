@@ -0,0 +1,58 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import symbol.SymbolTable;
+
+/**
+ * 큰 심볼 테이블 검색. 심볼 하나를 찾는 것을 한 라인으로 센다. operand에서 파싱한 명칭처럼 추가할 때와 다른 문자열
+ * 객체로, 추가한 순서와 무관하게 찾는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SymbolTableBenchmark {
+	@Setup
+	public void setUp() {
+		_symbolTable = new SymbolTable();
+		for (int i = 0; i < COUNT; i++) {
+			String name = "S" + Integer.toString(i, Character.MAX_RADIX).toUpperCase();
+			_symbolTable.put(name, i * 3);
+			_names[i] = new String(name.toCharArray());
+		}
+		Collections.shuffle(Arrays.asList(_names), new Random(1));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public int search() {
+		int found = 0;
+		for (String name : _names)
+			found += _symbolTable.search(name).isPresent() ? 1 : 0;
+		return found;
+	}
+
+	/** 측정에 사용하는 심볼 수 */
+	private static final int COUNT = 100000;
+
+	private SymbolTable _symbolTable;
+	private final String[] _names = new String[COUNT];
+}
@@ -0,0 +1,17 @@
+/**
+ * 어셈블러 단계별 JMH benchmark. lexer(StringToken), Numeric 상수/수식 계산, 심볼 테이블 검색, 기계어 목록 테이블
+ * 초기화, object code 계산, pass1(ControlSection 생성), pass2(buildObjectCode), 오브젝트 코드 출력, 전체 흐름을
+ * 측정한다. GC profiler로 수행 한 번의 할당 바이트를 함께 기록하며, <code>BaselineComparison</code>이 이를 라인당
+ * 처리량과 할당 바이트로 바꾸어 이전 결과와 비교한다.
+ *
+ * <pre>
+ * gradle :jmh:jmh -PinstTable=inst_table.txt
+ * gradle :jmh:jmh -PinstTable=inst_table.txt -PjmhArgs="StageBenchmark.pass2 -p lines=100000"
+ * gradle :jmh:jmhCompare -Pbaseline=baseline.csv
+ * </pre>
+ *
+ * <p>
+ * 결과는 <code>jmh/build/results/jmh/results.csv</code>에 저장된다. 이전 결과와 비교하려면 이 파일을 복사해 두었다가
+ * <code>-Pbaseline</code>으로 넘긴다.
+ */
+package benchmark;
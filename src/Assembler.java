@@ -1,119 +1,149 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.stream.Collectors;
-
-import instruction.InstructionTable;
-
-public class Assembler {
-	public static void main(String[] args) {
-		try {
-			// 명령어 테이블 초기화
-			Assembler assembler = new Assembler("inst_table.txt");
-			// 어셈블리어 코드 읽기
-			ArrayList<String> input = assembler.readInputFromFile("input.txt");
-			// section별로 나누어진 이중 array을 반환한다
-			ArrayList<ArrayList<String>> dividedInput = assembler.divideInput(input);
-
-			// dividedInput 각각 pass1을 진행한다
-			ArrayList<ControlSection> controlSections = (ArrayList<ControlSection>) dividedInput.stream()
-					.map(x -> assembler.pass1(x))
-					.collect(Collectors.toList());
-
-			// 심볼테이블, 리터럴테이블 출력을 위한 변수저장
-			String symbolsString = controlSections.stream()
-					.map(x -> x.getSymbolString())
-					.collect(Collectors.joining("\n\n"));
-			String literalsString = controlSections.stream()
-					.map(x -> x.getLiteralString())
-					.collect(Collectors.joining("\n\n"));
-
-			assembler.writeStringToFile("output_symtab.txt", symbolsString);
-			assembler.writeStringToFile("output_littab.txt", literalsString);
-
-			// controlSection별로 pass2를 진행한다
-			ArrayList<ObjectCode> objectCodes = (ArrayList<ObjectCode>) controlSections.stream()
-					.map(x -> assembler.pass2(x))
-					.collect(Collectors.toList());
-
-			String objectCodesString = objectCodes.stream()
-					.map(x -> x.toString())
-					.collect(Collectors.joining("\n\n"));
-
-			assembler.writeStringToFile("output_objectcode.txt", objectCodesString);
-		} catch (Exception e) {
-			System.out.println("Error : " + e.getMessage());
-		}
-
-	}
-
-	public Assembler(String instFile) throws FileNotFoundException, IOException {
-		_instTable = new InstructionTable(instFile);
-	}
-
-	private ArrayList<ArrayList<String>> divideInput(ArrayList<String> input) {
-		ArrayList<ArrayList<String>> divided = new ArrayList<ArrayList<String>>();
-		String lastStr = input.get(input.size() - 1);
-
-		ArrayList<String> tmpInput = new ArrayList<String>();
-		for (String str : input) {
-			// CSECT 를 포함할시 만약 tmpInput 이 비어있으면 그대로 넣어주고, 아니면 새로운 arrayList 에 저장한다
-			if (str.contains("CSECT")) {
-				if (!tmpInput.isEmpty()) {
-					tmpInput.add(lastStr);
-					divided.add(tmpInput);
-					tmpInput = new ArrayList<String>();
-					tmpInput.add(str);
-				}
-			} else {
-				tmpInput.add(str);
-			}
-		}
-		// 마지막 section 을 더해준다
-		if (!tmpInput.isEmpty()) {
-			divided.add(tmpInput);
-		}
-		// 결과적으로 section 별로 나누어진 문자열 array 들을 반환한다
-		return divided;
-	}
-
-	private ArrayList<String> readInputFromFile(String inputFileName) throws FileNotFoundException, IOException {
-		ArrayList<String> input = new ArrayList<String>();
-
-		File file = new File(inputFileName);
-		BufferedReader bufReader = new BufferedReader(new FileReader(file));
-
-		String line = "";
-		while ((line = bufReader.readLine()) != null){
-			input.add(line);
-		}
-
-		bufReader.close();
-
-		return input;
-	}
-
-	private void writeStringToFile(String fileName, String content) throws IOException {
-		File file = new File(fileName);
-
-		BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-		writer.write(content);
-		writer.close();
-	}
-
-	private ControlSection pass1(ArrayList<String> input) throws RuntimeException {
-		return new ControlSection(_instTable, input);
-	}
-
-	private ObjectCode pass2(ControlSection controlSection) throws RuntimeException {
-		return controlSection.buildObjectCode();
-	}
-
-
-	private static InstructionTable _instTable;
-}
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import instruction.InstructionTable;
+import source.SourceFile;
+
+public class Assembler {
+	public static void main(String[] args) {
+		// --batch 옵션이 주어지면 여러 파일을 한 번에 어셈블한다
+		if (args.length > 0 && "--batch".equals(args[0])) {
+			BatchAssembler.main(args);
+			return;
+		}
+		// --daemon 옵션이 주어지면 상주하면서 클라이언트의 요청을 처리한다
+		if (args.length > 0 && "--daemon".equals(args[0])) {
+			AssemblerDaemon.main(args);
+			return;
+		}
+
+		try {
+			// 명령어 테이블 초기화
+			Assembler assembler = new Assembler("inst_table.txt");
+			assembler.run(Path.of(""), args, System.out);
+		} catch (Exception e) {
+			System.out.println("Error : " + e.getMessage());
+		}
+
+	}
+
+	/**
+	 * 작업 디렉토리의 input.txt를 어셈블하여, 같은 디렉토리에 output_symtab.txt, output_littab.txt,
+	 * output_objectcode.txt를 저장한다.
+	 *
+	 * @param dir  작업 디렉토리
+	 * @param args 명령행 인자
+	 * @param out  오류 메시지를 출력할 스트림
+	 * @return 성공 여부
+	 */
+	public boolean run(Path dir, String[] args, PrintStream out) {
+		try {
+			// --parallel 옵션이 주어지면 section들을 병렬로 처리한다
+			boolean parallel = Arrays.asList(args).contains("--parallel");
+			// --one-pass 옵션이 주어지면 section마다 소스 코드를 한 번만 훑어서 어셈블한다
+			boolean onePass = Arrays.asList(args).contains("--one-pass");
+			// 어셈블리어 코드를 메모리에 매핑한다
+			SourceFile input = SourceFile.map(dir.resolve("input.txt").toString());
+
+			AssemblyContext context = createContext(input, parallel, onePass);
+
+			context.runPass1();
+			writeToFile(dir.resolve("output_symtab.txt").toString(), context::writeSymbols);
+			writeToFile(dir.resolve("output_littab.txt").toString(), context::writeLiterals);
+
+			context.runPass2();
+			writeToFile(dir.resolve("output_objectcode.txt").toString(), context::writeObjectCodes);
+			return true;
+		} catch (Exception e) {
+			out.println("Error : " + e.getMessage());
+			return false;
+		}
+	}
+
+	public Assembler(String instFile) throws FileNotFoundException, IOException {
+		this(new InstructionTable(instFile));
+	}
+
+	/**
+	 * 이미 읽어 둔 기계어 목록 테이블로 어셈블러를 초기화한다. 기계어 목록 테이블은 변경되지 않으므로 여러 어셈블러가 공유할 수
+	 * 있다.
+	 *
+	 * @param instTable 기계어 목록 테이블
+	 */
+	public Assembler(InstructionTable instTable) {
+		_instTable = instTable;
+	}
+
+	/**
+	 * 소스 코드 하나를 어셈블하기 위한 작업 상태 객체를 생성한다.
+	 *
+	 * @param input    어셈블할 소스 코드
+	 * @param parallel section들을 병렬로 처리할지 여부
+	 * @return 작업 상태 객체
+	 */
+	public AssemblyContext createContext(SourceFile input, boolean parallel) {
+		return createContext(input, parallel, false);
+	}
+
+	/**
+	 * 소스 코드 하나를 어셈블하기 위한 작업 상태 객체를 생성한다.
+	 *
+	 * @param input    어셈블할 소스 코드
+	 * @param parallel section들을 병렬로 처리할지 여부
+	 * @param onePass  section마다 pass1과 pass2를 한 번의 순회로 수행할지 여부. 토큰 테이블을 만들지 않으며,
+	 *                 <code>runPass1()</code>에서 오브젝트 코드까지 만든다.
+	 * @return 작업 상태 객체
+	 */
+	public AssemblyContext createContext(SourceFile input, boolean parallel, boolean onePass) {
+		return new AssemblyContext(_instTable, input, parallel, onePass);
+	}
+
+	/**
+	 * 소스 코드 하나에 대해 pass1과 pass2를 모두 진행한다. 작업 상태는 호출마다 따로 만들어지므로, 여러 스레드에서 동시에
+	 * 호출하여도 된다.
+	 *
+	 * @param input    어셈블할 소스 코드
+	 * @param parallel section들을 병렬로 처리할지 여부
+	 * @return 출력 내용을 담은 작업 상태 객체
+	 * @throws RuntimeException 소스 코드 컴파일 오류.
+	 */
+	public AssemblyContext assemble(SourceFile input, boolean parallel) throws RuntimeException {
+		AssemblyContext context = createContext(input, parallel);
+		context.runPass1();
+		context.runPass2();
+		return context;
+	}
+
+	/**
+	 * 파일을 열고, 출력 내용을 버퍼를 거쳐 바로 쓴다. 전체 내용을 하나의 문자열로 만들지 않는다.
+	 *
+	 * @param fileName 파일 명
+	 * @param content  출력 내용을 쓰는 작업
+	 * @throws IOException 파일 쓰기 실패.
+	 */
+	static void writeToFile(String fileName, Content content) throws IOException {
+		File file = new File(fileName);
+
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), OUTPUT_BUFFER_SIZE)) {
+			content.writeTo(writer);
+		}
+	}
+
+	/**
+	 * 출력 파일의 내용을 쓰는 작업.
+	 */
+	interface Content {
+		void writeTo(Appendable out) throws IOException;
+	}
+
+	/** 출력 파일 버퍼 크기 */
+	private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+	private final InstructionTable _instTable;
+}
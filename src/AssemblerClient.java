@@ -0,0 +1,58 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+public class AssemblerClient {
+	/**
+	 * 실행 중인 어셈블러 데몬에 현재 작업 디렉토리와 명령행 인자를 전달하고, 데몬의 출력과 종료 코드를 그대로 돌려준다. 어셈블러
+	 * 클래스들은 불러오지 않으므로 JVM 시작 이후의 비용이 거의 없다.
+	 *
+	 * <pre>
+	 * AssemblerClient [-s 소켓경로] [어셈블러 인자...]
+	 * </pre>
+	 *
+	 * @param args 명령행 인자
+	 */
+	public static void main(String[] args) {
+		Path socketPath = defaultSocketPath();
+		int first = 0;
+		if (args.length >= 2 && "-s".equals(args[0])) {
+			socketPath = Path.of(args[1]);
+			first = 2;
+		}
+
+		int exitCode;
+		try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+			out.writeUTF(System.getProperty("user.dir"));
+			out.writeInt(args.length - first);
+			for (int i = first; i < args.length; i++)
+				out.writeUTF(args[i]);
+			out.flush();
+
+			DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+			exitCode = in.readInt();
+			byte[] output = in.readNBytes(in.readInt());
+			System.out.write(output);
+			System.out.flush();
+		} catch (IOException e) {
+			System.out.println("Error : " + e.getMessage());
+			exitCode = 1;
+		}
+		System.exit(exitCode);
+	}
+
+	/**
+	 * 소켓 경로가 주어지지 않았을 때 데몬과 클라이언트가 사용하는 소켓 경로를 반환한다.
+	 *
+	 * @return 임시 디렉토리의 소켓 경로
+	 */
+	static Path defaultSocketPath() {
+		return Path.of(System.getProperty("java.io.tmpdir"), "sicxe-assembler.sock");
+	}
+}
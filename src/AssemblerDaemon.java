@@ -0,0 +1,137 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import instruction.InstructionTable;
+
+public class AssemblerDaemon {
+	/**
+	 * 기계어 목록 테이블을 한 번 읽어 둔 채로 상주하며, Unix domain socket으로 들어오는 어셈블 요청을 처리한다.
+	 *
+	 * <pre>
+	 * --daemon [-t 기계어목록파일] [-s 소켓경로]
+	 * </pre>
+	 *
+	 * 요청은 {@link AssemblerClient}로 보낸다. 클라이언트의 인자가 <code>--batch</code>로 시작하면 배치 작업을,
+	 * <code>--shutdown</code>이면 데몬 종료를, 그 외에는 작업 디렉토리의 input.txt 어셈블을 수행한다.
+	 *
+	 * @param args 명령행 인자. 첫 번째 인자는 <code>--daemon</code>
+	 */
+	public static void main(String[] args) {
+		try {
+			String instFile = "inst_table.txt";
+			Path socketPath = AssemblerClient.defaultSocketPath();
+
+			for (int i = 1; i < args.length; i++) {
+				if ("-t".equals(args[i]) && i + 1 < args.length)
+					instFile = args[++i];
+				else if ("-s".equals(args[i]) && i + 1 < args.length)
+					socketPath = Path.of(args[++i]);
+				else
+					throw new RuntimeException("illegal daemon argument (" + args[i] + ")");
+			}
+
+			Assembler assembler = new Assembler(new InstructionTable(instFile));
+			new AssemblerDaemon(assembler, socketPath).serve();
+		} catch (Exception e) {
+			System.out.println("Error : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * 데몬을 초기화한다.
+	 *
+	 * @param assembler  기계어 목록 테이블을 읽어 둔 어셈블러
+	 * @param socketPath 요청을 받을 소켓 경로
+	 */
+	public AssemblerDaemon(Assembler assembler, Path socketPath) {
+		_assembler = assembler;
+		_socketPath = socketPath;
+	}
+
+	/**
+	 * 소켓을 열고 종료 요청이 올 때까지 요청을 처리한다. 요청들은 각각 별도의 스레드에서 동시에 처리된다.
+	 *
+	 * @throws IOException 소켓 생성 실패.
+	 */
+	public void serve() throws IOException {
+		// 이전에 비정상 종료된 데몬이 남긴 소켓 파일을 지운다
+		Files.deleteIfExists(_socketPath);
+
+		ExecutorService workers = Executors.newCachedThreadPool();
+		try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+			server.bind(UnixDomainSocketAddress.of(_socketPath));
+			_server = server;
+			System.out.println("listening on " + _socketPath);
+
+			while (server.isOpen()) {
+				SocketChannel channel;
+				try {
+					channel = server.accept();
+				} catch (ClosedChannelException e) {
+					break;
+				}
+				workers.execute(() -> handle(channel));
+			}
+		} finally {
+			workers.shutdown();
+			Files.deleteIfExists(_socketPath);
+		}
+	}
+
+	/**
+	 * 요청 하나를 처리한다. 요청은 작업 디렉토리와 인자 목록이며, 응답은 종료 코드와 출력 내용이다.
+	 *
+	 * @param channel 클라이언트와 연결된 채널
+	 */
+	private void handle(SocketChannel channel) {
+		try (channel) {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			Path dir = Path.of(in.readUTF());
+			String[] args = new String[in.readInt()];
+			for (int i = 0; i < args.length; i++)
+				args[i] = in.readUTF();
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			boolean success = execute(dir, args, new PrintStream(output, true, StandardCharsets.UTF_8));
+
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+			out.writeInt(success ? 0 : 1);
+			out.writeInt(output.size());
+			output.writeTo(out);
+			out.flush();
+		} catch (IOException e) {
+			System.out.println("Error : " + e.getMessage());
+		}
+	}
+
+	private boolean execute(Path dir, String[] args, PrintStream out) throws IOException {
+		if (args.length > 0 && "--shutdown".equals(args[0])) {
+			_server.close();
+			out.println("daemon stopped");
+			return true;
+		}
+		if (args.length > 0 && "--batch".equals(args[0]))
+			return BatchAssembler.run(_assembler, dir, args, out);
+		return _assembler.run(dir, args, out);
+	}
+
+	private final Assembler _assembler;
+	private final Path _socketPath;
+	private volatile ServerSocketChannel _server;
+}
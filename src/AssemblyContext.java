@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import instruction.InstructionTable;
+import literal.LiteralContent;
+import source.SourceFile;
+import source.SourceSection;
+
+public class AssemblyContext {
+	/**
+	 * 소스 코드 하나를 어셈블하는 동안 필요한 상태를 초기화한다. 어셈블 작업마다 새로운 객체를 사용하므로, 같은 기계어 목록
+	 * 테이블을 공유하는 여러 작업을 동시에 수행할 수 있다. 리터럴 내용 저장소도 작업마다 만들어 그 작업의 section끼리만
+	 * 공유하므로, 작업이 끝나면 함께 버려진다.
+	 *
+	 * @param instTable 기계어 목록 테이블
+	 * @param source    어셈블할 소스 코드
+	 * @param parallel  section들을 병렬로 처리할지 여부
+	 * @param onePass   section마다 pass1과 pass2를 한 번의 순회로 수행할지 여부
+	 */
+	AssemblyContext(InstructionTable instTable, SourceFile source, boolean parallel, boolean onePass) {
+		_instTable = instTable;
+		_source = source;
+		_parallel = parallel;
+		_onePass = onePass;
+		_literals = new LiteralContent();
+	}
+
+	/**
+	 * 소스 코드를 section별로 나누고, 각각 pass1을 진행한다. 한 번에 어셈블하는 경우 오브젝트 코드까지 만든다.
+	 *
+	 * @throws RuntimeException 소스 코드 컴파일 오류.
+	 */
+	public void runPass1() throws RuntimeException {
+		// section별로 나누어진 라인 목록을 반환한다
+		ArrayList<SourceSection> dividedInput = _source.divideSections();
+
+		// dividedInput 각각 pass1을 진행한다
+		if (_onePass)
+			_controlSections = mapSections(dividedInput, x -> ControlSection.assembleOnePass(_instTable, x, _literals));
+		else
+			_controlSections = mapSections(dividedInput, x -> new ControlSection(_instTable, x, _parallel, _literals));
+	}
+
+	/**
+	 * pass1을 마친 section별로 pass2를 진행한다.
+	 *
+	 * @throws RuntimeException 소스 코드 컴파일 오류 혹은 pass1을 진행하지 않음.
+	 */
+	public void runPass2() throws RuntimeException {
+		if (_controlSections == null)
+			throw new RuntimeException("illegal operation");
+
+		// controlSection별로 pass2를 진행한다
+		_objectCodes = mapSections(_controlSections, x -> x.buildObjectCode());
+	}
+
+	/**
+	 * 심볼 테이블 출력 내용을 section 순서대로 출력 대상에 쓴다. section 사이에는 빈 줄을 둔다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException      출력 실패.
+	 * @throws RuntimeException pass1을 진행하지 않음.
+	 */
+	public void writeSymbols(Appendable out) throws IOException, RuntimeException {
+		if (_controlSections == null)
+			throw new RuntimeException("illegal operation");
+
+		for (int i = 0; i < _controlSections.size(); i++) {
+			if (i != 0)
+				out.append("\n\n");
+			_controlSections.get(i).writeSymbols(out);
+		}
+	}
+
+	/**
+	 * 리터럴 테이블 출력 내용을 section 순서대로 출력 대상에 쓴다. section 사이에는 빈 줄을 둔다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException      출력 실패.
+	 * @throws RuntimeException pass1을 진행하지 않음.
+	 */
+	public void writeLiterals(Appendable out) throws IOException, RuntimeException {
+		if (_controlSections == null)
+			throw new RuntimeException("illegal operation");
+
+		for (int i = 0; i < _controlSections.size(); i++) {
+			if (i != 0)
+				out.append("\n\n");
+			_controlSections.get(i).writeLiterals(out);
+		}
+	}
+
+	/**
+	 * 오브젝트 코드를 section 순서대로 출력 대상에 쓴다. section 사이에는 빈 줄을 둔다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException      출력 실패.
+	 * @throws RuntimeException pass2를 진행하지 않음.
+	 */
+	public void writeObjectCodes(Appendable out) throws IOException, RuntimeException {
+		if (_objectCodes == null)
+			throw new RuntimeException("illegal operation");
+
+		// 병렬로 처리하였더라도 결과는 소스 코드 순서대로 쓴다
+		ObjectCodeWriter writer = new ObjectCodeWriter(out);
+		for (int i = 0; i < _objectCodes.size(); i++) {
+			if (i != 0)
+				out.append("\n\n");
+			writer.write(_objectCodes.get(i));
+		}
+	}
+
+	/**
+	 * 심볼 테이블 출력 내용을 반환한다.
+	 *
+	 * @return 심볼 테이블 문자열
+	 * @throws RuntimeException pass1을 진행하지 않음.
+	 */
+	public String getSymbolsString() throws RuntimeException {
+		StringBuilder builder = new StringBuilder();
+		try {
+			writeSymbols(builder);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 리터럴 테이블 출력 내용을 반환한다.
+	 *
+	 * @return 리터럴 테이블 문자열
+	 * @throws RuntimeException pass1을 진행하지 않음.
+	 */
+	public String getLiteralsString() throws RuntimeException {
+		StringBuilder builder = new StringBuilder();
+		try {
+			writeLiterals(builder);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 오브젝트 코드 출력 내용을 반환한다.
+	 *
+	 * @return 오브젝트 코드 문자열
+	 * @throws RuntimeException pass2를 진행하지 않음.
+	 */
+	public String getObjectCodesString() throws RuntimeException {
+		StringBuilder builder = new StringBuilder();
+		try {
+			writeObjectCodes(builder);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * section 목록의 각 원소에 작업을 적용한다. 병렬 모드이고 section이 충분히 많으면 ForkJoinPool에서 병렬로
+	 * 수행하며, 그렇지 않으면 순차적으로 수행한다. 어느 경우든 결과는 입력 순서를 유지한다.
+	 *
+	 * @param sections 작업 대상 section 목록
+	 * @param mapper   section별로 수행할 작업
+	 * @return 입력 순서대로 정렬된 작업 결과
+	 * @throws RuntimeException 작업 도중 발생한 소스 코드 컴파일 오류.
+	 */
+	private <T, R> ArrayList<R> mapSections(ArrayList<T> sections, Function<T, R> mapper) throws RuntimeException {
+		Stream<T> stream = sections.stream();
+		// section이 한두 개뿐이면 작업 분배 비용이 더 크므로 순차적으로 처리한다
+		if (_parallel && sections.size() >= PARALLEL_THRESHOLD)
+			stream = stream.parallel();
+
+		return stream.map(mapper)
+				.collect(Collectors.toCollection(ArrayList::new));
+	}
+
+	/** 병렬 모드로 전환되는 최소 section 수 */
+	private static final int PARALLEL_THRESHOLD = 3;
+
+	private final InstructionTable _instTable;
+	private final SourceFile _source;
+	private final boolean _parallel;
+	private final boolean _onePass;
+	/** section들이 함께 사용하는 리터럴 내용 저장소 */
+	private final LiteralContent _literals;
+
+	private ArrayList<ControlSection> _controlSections;
+	private ArrayList<ObjectCode> _objectCodes;
+}
@@ -0,0 +1,299 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import instruction.InstructionTable;
+import source.SourceFile;
+
+public class BatchAssembler {
+	/**
+	 * 여러 소스 코드 파일을 하나의 JVM에서 어셈블한다. 기계어 목록 테이블은 한 번만 읽는다.
+	 *
+	 * <pre>
+	 * --batch [-j 동시작업수] [-o 출력디렉토리] [-t 기계어목록파일] [--parallel] 입력...
+	 * </pre>
+	 *
+	 * 입력은 파일 경로, <code>@목록파일</code>(한 줄에 경로 하나), 혹은 파일 이름 부분에 glob 패턴(ex.
+	 * <code>src/*.asm</code>)이 들어간 경로로 줄 수 있다.
+	 *
+	 * @param args 명령행 인자. 첫 번째 인자는 <code>--batch</code>
+	 */
+	public static void main(String[] args) {
+		run(null, Path.of(""), args, System.out);
+	}
+
+	/**
+	 * 명령행 인자에 따라 배치 작업을 수행한다. 상대 경로는 작업 디렉토리를 기준으로 해석한다.
+	 *
+	 * @param assembler 기계어 목록 테이블을 읽어 둔 어셈블러. null이면 <code>-t</code>로 주어진 파일을 읽는다.
+	 * @param dir       작업 디렉토리
+	 * @param args      명령행 인자. 첫 번째 인자는 <code>--batch</code>
+	 * @param out       결과 표와 오류 메시지를 출력할 스트림
+	 * @return 모든 파일을 성공적으로 어셈블하였는지 여부
+	 */
+	public static boolean run(Assembler assembler, Path dir, String[] args, PrintStream out) {
+		try {
+			String instFile = "inst_table.txt";
+			Path outputDir = dir;
+			int jobs = Runtime.getRuntime().availableProcessors();
+			boolean parallel = false;
+			ArrayList<Path> inputs = new ArrayList<Path>();
+
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				if ("--batch".equals(arg))
+					continue;
+				else if ("--parallel".equals(arg))
+					parallel = true;
+				else if ("-j".equals(arg))
+					jobs = Integer.parseInt(nextArgument(args, ++i));
+				else if ("-o".equals(arg))
+					outputDir = dir.resolve(nextArgument(args, ++i));
+				else if ("-t".equals(arg))
+					instFile = dir.resolve(nextArgument(args, ++i)).toString();
+				else
+					inputs.addAll(expandInput(dir, arg));
+			}
+
+			if (inputs.isEmpty())
+				throw new RuntimeException("no input file");
+			if (jobs < 1)
+				throw new RuntimeException("illegal number of jobs (" + jobs + ")");
+
+			Files.createDirectories(outputDir);
+
+			if (assembler == null)
+				assembler = new Assembler(new InstructionTable(instFile));
+			BatchAssembler batch = new BatchAssembler(assembler, outputDir, jobs, parallel);
+			ArrayList<Result> results = batch.run(inputs);
+			batch.printSummary(results, out);
+
+			return results.stream().allMatch(x -> x.error == null);
+		} catch (Exception e) {
+			out.println("Error : " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * 배치 작업을 초기화한다.
+	 *
+	 * @param assembler 기계어 목록 테이블을 읽어 둔 어셈블러
+	 * @param outputDir 출력 파일을 저장할 디렉토리
+	 * @param jobs      동시에 어셈블할 파일 수
+	 * @param parallel  파일 내의 section들도 병렬로 처리할지 여부
+	 */
+	public BatchAssembler(Assembler assembler, Path outputDir, int jobs, boolean parallel) {
+		_assembler = assembler;
+		_outputDir = outputDir;
+		_jobs = jobs;
+		_parallel = parallel;
+	}
+
+	/**
+	 * 입력 파일들을 어셈블한다. 읽기 전용 스레드가 다음 파일을 미리 읽는 동안 작업 스레드들이 앞선 파일을 어셈블한다. 미리 읽어
+	 * 두는 파일 수는 동시 작업 수의 두 배로 제한한다.
+	 *
+	 * @param inputs 입력 파일 목록
+	 * @return 입력 순서대로 정렬된 파일별 결과
+	 * @throws RuntimeException 출력 파일 이름이 같은 입력 파일이 있음.
+	 */
+	public ArrayList<Result> run(List<Path> inputs) throws RuntimeException {
+		checkOutputNames(inputs);
+
+		ExecutorService reader = Executors.newSingleThreadExecutor();
+		ExecutorService workers = Executors.newFixedThreadPool(_jobs);
+		Semaphore inFlight = new Semaphore(_jobs * 2);
+
+		ArrayList<CompletableFuture<Result>> futures = new ArrayList<CompletableFuture<Result>>();
+		try {
+			for (Path input : inputs) {
+				Result result = new Result(input);
+				CompletableFuture<Result> future = CompletableFuture
+						.supplyAsync(() -> read(result, inFlight), reader)
+						.thenApplyAsync(source -> assemble(result, source), workers)
+						.handle((x, e) -> {
+							inFlight.release();
+							if (e != null)
+								result.error = errorMessage(e);
+							return result;
+						});
+				futures.add(future);
+			}
+
+			ArrayList<Result> results = new ArrayList<Result>();
+			for (CompletableFuture<Result> future : futures)
+				results.add(future.join());
+			return results;
+		} finally {
+			reader.shutdown();
+			workers.shutdown();
+		}
+	}
+
+	/**
+	 * 파일별 소요 시간을 표로 출력한다.
+	 *
+	 * @param results 파일별 결과
+	 * @param out     출력 스트림
+	 */
+	public void printSummary(List<Result> results, PrintStream out) {
+		long totalRead = 0;
+		long totalAssemble = 0;
+		int failed = 0;
+
+		out.printf("%-40s%12s%14s  %s%n", "file", "read(ms)", "assemble(ms)", "status");
+		for (Result result : results) {
+			totalRead += result.readNanos;
+			totalAssemble += result.assembleNanos;
+			if (result.error != null)
+				failed++;
+
+			out.printf("%-40s%12.3f%14.3f  %s%n", result.input, result.readNanos / 1e6,
+					result.assembleNanos / 1e6, result.error == null ? "ok" : "error : " + result.error);
+		}
+		out.printf("%-40s%12.3f%14.3f  %d/%d ok%n", "total", totalRead / 1e6, totalAssemble / 1e6,
+				results.size() - failed, results.size());
+	}
+
+	private SourceFile read(Result result, Semaphore inFlight) {
+		inFlight.acquireUninterruptibly();
+
+		long start = System.nanoTime();
+		try {
+			return SourceFile.map(result.input.toString());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			result.readNanos = System.nanoTime() - start;
+		}
+	}
+
+	private Result assemble(Result result, SourceFile source) {
+		long start = System.nanoTime();
+		try {
+			AssemblyContext context = _assembler.createContext(source, _parallel);
+			String name = baseName(result.input);
+
+			context.runPass1();
+			Assembler.writeToFile(_outputDir.resolve(name + "_symtab.txt").toString(), context::writeSymbols);
+			Assembler.writeToFile(_outputDir.resolve(name + "_littab.txt").toString(), context::writeLiterals);
+
+			context.runPass2();
+			Assembler.writeToFile(_outputDir.resolve(name + "_objectcode.txt").toString(),
+					context::writeObjectCodes);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			result.assembleNanos = System.nanoTime() - start;
+		}
+		return result;
+	}
+
+	/**
+	 * 출력 파일 이름이 겹치는 입력 파일이 있는지 확인한다. 출력 파일 이름은 확장자를 뗀 파일 이름으로 정하므로
+	 * <code>a/x.asm b/x.asm</code>이나 <code>x.asm x.txt</code>는 같은 파일에 동시에 쓰게 된다. 어셈블을 시작하기
+	 * 전에 확인하여 결과가 서로 덮어쓰이지 않도록 한다.
+	 *
+	 * @param inputs 입력 파일 목록
+	 * @throws RuntimeException 출력 파일 이름이 같은 입력 파일이 있음.
+	 */
+	private static void checkOutputNames(List<Path> inputs) throws RuntimeException {
+		HashMap<String, Path> names = new HashMap<String, Path>();
+		for (Path input : inputs) {
+			Path previous = names.putIfAbsent(baseName(input), input);
+			if (previous != null)
+				throw new RuntimeException("duplicate output name (" + baseName(input) + ": " + previous + ", "
+						+ input + ")");
+		}
+	}
+
+	private static String errorMessage(Throwable e) {
+		if (e instanceof CompletionException || e instanceof UncheckedIOException)
+			return errorMessage(e.getCause());
+		return e.getMessage();
+	}
+
+	// 확장자를 뗀 파일 이름. input.txt의 결과는 input_objectcode.txt 등으로 저장된다
+	private static String baseName(Path input) {
+		String name = input.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		return dot > 0 ? name.substring(0, dot) : name;
+	}
+
+	private static String nextArgument(String[] args, int index) throws RuntimeException {
+		if (index >= args.length)
+			throw new RuntimeException("missing argument after " + args[index - 1]);
+		return args[index];
+	}
+
+	/**
+	 * 명령행의 입력 인자 하나를 파일 목록으로 바꾼다.
+	 *
+	 * @param dir 상대 경로의 기준이 되는 작업 디렉토리
+	 * @param arg 파일 경로, <code>@목록파일</code> 혹은 glob 패턴
+	 * @return 파일 목록
+	 * @throws IOException 목록 파일 혹은 디렉토리 읽기 실패.
+	 */
+	private static ArrayList<Path> expandInput(Path dir, String arg) throws IOException {
+		ArrayList<Path> paths = new ArrayList<Path>();
+
+		if (arg.startsWith("@")) {
+			Path manifest = dir.resolve(arg.substring(1));
+			if (!Files.exists(manifest))
+				throw new FileNotFoundException(manifest.toString());
+			for (String line : Files.readAllLines(manifest)) {
+				line = line.strip();
+				if (!line.isEmpty() && !line.startsWith("#"))
+					paths.addAll(expandInput(dir, line));
+			}
+		} else if (arg.indexOf('*') >= 0 || arg.indexOf('?') >= 0 || arg.indexOf('[') >= 0
+				|| arg.indexOf('{') >= 0) {
+			Path pattern = dir.resolve(arg);
+			Path parent = pattern.getParent() == null ? Path.of(".") : pattern.getParent();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(parent, pattern.getFileName().toString())) {
+				ArrayList<Path> matched = new ArrayList<Path>();
+				stream.forEach(matched::add);
+				// 디렉토리 순서는 운영체제마다 다르므로 이름 순으로 정렬한다
+				matched.sort(null);
+				paths.addAll(matched);
+			}
+		} else {
+			paths.add(dir.resolve(arg));
+		}
+
+		return paths;
+	}
+
+	/**
+	 * 파일 하나의 배치 작업 결과.
+	 */
+	public static class Result {
+		Result(Path input) {
+			this.input = input;
+		}
+
+		public final Path input;
+		public volatile long readNanos;
+		public volatile long assembleNanos;
+		/** 실패한 경우 오류 메시지. 성공한 경우 null */
+		public volatile String error;
+	}
+
+	private final Assembler _assembler;
+	private final Path _outputDir;
+	private final int _jobs;
+	private final boolean _parallel;
+}
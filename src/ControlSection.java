@@ -1,73 +1,154 @@
-import java.math.BigInteger;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import directive.Directive;
 import instruction.*;
+import keyword.*;
 import literal.*;
 import symbol.*;
 import token.*;
 import token.operand.*;
+import numeric.Expression;
 import numeric.Numeric;
+import source.*;
+import trace.Tracer;
 
 public class ControlSection {
 	/**
 	 * pass1 작업을 수행한다. 기계어 목록 테이블을 통해 소스 코드를 토큰화하고, 심볼 테이블 및 리터럴 테이블을 초기화환다.
 	 *
 	 * @param instTable 기계어 목록 테이블
-	 * @param input     하나의 control section에 속하는 소스 코드. 마지막 줄은 END directive를 강제로
+	 * @param section   하나의 control section에 속하는 소스 코드. 마지막 줄은 END directive를 강제로
 	 *                  추가하였음.
 	 * @throws RuntimeException 소스 코드 컴파일 오류.
 	 */
-	public ControlSection(InstructionTable instTable, ArrayList<String> input) throws RuntimeException {
+	public ControlSection(InstructionTable instTable, SourceSection section) throws RuntimeException {
+		this(instTable, section, false);
+	}
+
+	/**
+	 * pass1 작업을 수행한다. 리터럴 내용 저장소는 이 section만 사용한다.
+	 *
+	 * @param instTable 기계어 목록 테이블
+	 * @param section   하나의 control section에 속하는 소스 코드. 마지막 줄은 END directive를 강제로
+	 *                  추가하였음.
+	 * @param parallel  라인별 작업을 병렬로 수행할지 여부
+	 * @throws RuntimeException 소스 코드 컴파일 오류.
+	 */
+	public ControlSection(InstructionTable instTable, SourceSection section, boolean parallel)
+			throws RuntimeException {
+		this(instTable, section, parallel, new LiteralContent());
+	}
+
+	/**
+	 * pass1 작업을 수행한다. 라인마다 독립적인 작업과 앞 라인에 의존하는 작업을 나누어 다음 순서로 진행한다.
+	 *
+	 * <ol>
+	 * <li>토큰화 (라인 묶음 단위로 병렬)
+	 * <li>operator 검색과 크기 계산 (병렬). 명령어 형식과 BYTE, WORD, RESB, RESW의 크기는 라인만 보고 정해진다.
+	 * <li>크기의 prefix sum으로 LOCCTR 계산 (<code>Arrays.parallelPrefix</code>). 리터럴 테이블이 필요한 LTORG,
+	 * END와 LOCCTR을 바꾸는 START, CSECT만 라인 순서대로 처리하여 그 뒤의 주소를 보정한다.
+	 * <li>label과 EXTREF, EQU를 라인 순서대로 심볼 테이블에 한꺼번에 추가
+	 * <li>operand 가공과 토큰 테이블 작성 (병렬)
+	 * </ol>
+	 *
+	 * <p>
+	 * 각 단계의 오류는 바로 던지지 않고 라인 번호와 함께 기록해 두었다가, 가장 앞선 라인의 오류를 던진다. 따라서 라인 순서대로
+	 * 처리할 때와 같은 오류가 보고된다. 병렬 모드가 아니면 모든 단계를 순차적으로 수행한다.
+	 *
+	 * @param instTable 기계어 목록 테이블
+	 * @param section   하나의 control section에 속하는 소스 코드. 마지막 줄은 END directive를 강제로
+	 *                  추가하였음.
+	 * @param parallel  라인별 작업을 병렬로 수행할지 여부
+	 * @param literals  리터럴 내용 저장소. 같은 소스 코드의 section끼리 함께 사용한다.
+	 * @throws RuntimeException 소스 코드 컴파일 오류.
+	 */
+	public ControlSection(InstructionTable instTable, SourceSection section, boolean parallel,
+			LiteralContent literals) throws RuntimeException {
 		// control section별로 초기화를 해준다
-		// StringToken()을 통해 토큰을 파싱해준다
-		List<StringToken> stringTokens = input.stream()
-				.map(x -> new StringToken(x))
-				.collect(Collectors.toList());
+		// 미리 토큰화해 둔 결과를 각 단계에서 토큰 슬롯에 꺼내 쓴다
+		StringTokenBuffer lexed = StringTokenBuffer.lex(section, parallel);
+		KeywordTable keywords = instTable.getKeywordTable();
+		EncodingTemplates templates = instTable.getEncodingTemplates();
+		Pass1Rows rows = new Pass1Rows(lexed);
 
 		// pass1을 위한 변수들 초기화
 		SymbolTable symTab = new SymbolTable();
-		LiteralTable litTab = new LiteralTable();
-		ArrayList<Token> tokens = new ArrayList<Token>();
-		int locctr = 0;
-
-		for (StringToken stringToken : stringTokens) {
-			// 만약 operator가 없는데 operand나 label이 있으면 에러처리
-			if (stringToken.getOperator().isEmpty()) {
-				boolean isLabelEmpty = stringToken.getLabel().isEmpty();
-				boolean isOperandEmpty = stringToken.getOperands().isEmpty();
-				if (!isLabelEmpty || !isOperandEmpty)
-					throw new RuntimeException("missing operator\n\n" + stringToken.toString());
-				continue;
-			}
-
-			String operator = stringToken.getOperator().get();
-			// operator가 명령어 테이블에 있는지 확인한다
-			Optional<Instruction> optInst = instTable.search(operator);
-			boolean isOperatorInstruction = optInst.isPresent();
-			// 만약 명령어테이블에 일치항목이 있으면
-			if (isOperatorInstruction) {
-				Token token = handlePass1InstructionStep(optInst.get(), stringToken, locctr, symTab, litTab);
-				locctr = token.getAddress();
-				tokens.add(token);
-				System.out.println(token.toString()); /** 디버깅 용도 */
-			}
-			// 그렇지 않으면
-			else {
-				Token token = handlePass1DirectiveStep(stringToken, locctr, symTab, litTab);
-				locctr = token.getAddress();
-				tokens.add(token);
-				System.out.println(token.toString()); /** 디버깅 용도 */
-				// 만약 추가한다면 LTORG, END는 여기서 추가한다
-			}
+		LiteralTable litTab = new LiteralTable(literals);
+
+		forEachChunk(lexed, parallel, chunk -> classifyRows(rows, chunk, keywords));
+		assignAddresses(rows, litTab, parallel);
+		defineSymbols(rows, symTab);
+
+		// pass1 trace는 라인 순서대로 출력해야 하므로 순차적으로 처리한다
+		// 병렬로 처리할 때만 묶음별 토큰 테이블을 따로 만들어 이어 붙인다
+		TokenStore tokens = new TokenStore(section.size(), templates);
+		if (parallel && !Tracer.PASS1.debug && lexed.getChunkCount() > 1) {
+			TokenStore[] fragments = new TokenStore[lexed.getChunkCount()];
+			forEachChunk(lexed, true, chunk -> buildTokens(rows, chunk, keywords, templates, symTab, litTab,
+					fragments[chunk] = new TokenStore(lexed.getChunkEnd(chunk) - lexed.getChunkStart(chunk),
+							templates)));
+			rows.throwError();
+			for (TokenStore fragment : fragments)
+				tokens.append(fragment);
+		} else {
+			for (int chunk = 0; chunk < lexed.getChunkCount(); chunk++)
+				buildTokens(rows, chunk, keywords, templates, symTab, litTab, tokens);
+			rows.throwError();
 		}
+
 		// 결국 위에서는 심볼테이블, 리터럴테이블, LOCCTR, nixbpe을 할당시키는 것이군
 		_tokens = tokens;
+		_templates = templates;
 		_symbolTable = symTab;
 		_literalTable = litTab;
+		_objectCode = null;
+	}
+
+	private ControlSection(SymbolTable symTab, LiteralTable litTab, ObjectCode objCode) {
+		_tokens = null;
+		_templates = null;
+		_symbolTable = symTab;
+		_literalTable = litTab;
+		_objectCode = objCode;
+	}
+
+	/**
+	 * pass1과 pass2를 한 번의 순회로 수행한다. 토큰 테이블을 만들지 않으며, 오브젝트 코드는 만들어 둔 것을
+	 * <code>buildObjectCode()</code>가 반환한다.
+	 *
+	 * @param instTable 기계어 목록 테이블
+	 * @param section   하나의 control section에 속하는 소스 코드. 마지막 줄은 END directive를 강제로
+	 *                  추가하였음.
+	 * @return control section
+	 * @throws RuntimeException 소스 코드 컴파일 오류.
+	 * @see OnePassSection
+	 */
+	public static ControlSection assembleOnePass(InstructionTable instTable, SourceSection section)
+			throws RuntimeException {
+		return assembleOnePass(instTable, section, new LiteralContent());
+	}
+
+	/**
+	 * pass1과 pass2를 한 번의 순회로 수행한다. 리터럴 내용 저장소를 같은 소스 코드의 section끼리 함께 사용한다.
+	 *
+	 * @param instTable 기계어 목록 테이블
+	 * @param section   하나의 control section에 속하는 소스 코드. 마지막 줄은 END directive를 강제로
+	 *                  추가하였음.
+	 * @param literals  리터럴 내용 저장소
+	 * @return control section
+	 * @throws RuntimeException 소스 코드 컴파일 오류.
+	 * @see OnePassSection
+	 */
+	public static ControlSection assembleOnePass(InstructionTable instTable, SourceSection section,
+			LiteralContent literals) throws RuntimeException {
+		OnePassSection onePass = new OnePassSection(instTable, section, literals);
+		return new ControlSection(onePass.getSymbolTable(), onePass.getLiteralTable(), onePass.getObjectCode());
 	}
 
 	/**
@@ -77,21 +158,28 @@ public class ControlSection {
 	 * @throws RuntimeException 소스 코드 컴파일 오류.
 	 */
 	public ObjectCode buildObjectCode() throws RuntimeException {
-		ObjectCode objCode = new ObjectCode();
+		// 한 번에 어셈블한 경우 이미 만들어 두었다
+		if (_objectCode != null)
+			return _objectCode;
+
+		// 텍스트는 리터럴 pool을 빼면 한 행에 하나 이하로 나온다
+		ObjectCode objCode = new ObjectCode(_tokens.size() + _literalTable.getAssignedCount());
 		Optional<Symbol> optRepSymbol = _symbolTable.getRepSymbol();
 		if (optRepSymbol.isEmpty())
 			throw new RuntimeException("invalid operation");
 		Symbol repSymbol = optRepSymbol.get();
 
-		for (Token token : _tokens) {
+		TokenStore tokens = _tokens;
+		InstructionEncoder encoder = new InstructionEncoder(tokens, _symbolTable, _templates);
+		int[] code = new int[1];
+		for (int row = 0; row < tokens.size(); row++) {
 			// 명령어 토큰일 경우
-			if (token instanceof InstructionToken) {
-				handlePass2InstructionStep(objCode, (InstructionToken) token, _symbolTable, _literalTable);
+			if (tokens.isInstruction(row)) {
+				handlePass2InstructionStep(objCode, tokens, row, encoder, code);
 			} // 지시어 토큰일 경우
-			else if (token instanceof DirectiveToken) {
-				handlePass2DirectiveStep(objCode, (DirectiveToken) token, repSymbol, _symbolTable, _literalTable);
-			} else
-				throw new RuntimeException("invalid operation");
+			else {
+				handlePass2DirectiveStep(objCode, tokens, row, repSymbol, _symbolTable, encoder, code);
+			}
 		}
 
 		return objCode;
@@ -116,67 +204,99 @@ public class ControlSection {
 	}
 
 	/**
-	 * pass1에서 operator가 instruction에 해당하는 경우에 대해서 처리한다. label 및 operand에 출현한 심볼 및
-	 * 리터럴을 심볼 테이블 및 리터럴 테이블에 추가하고, 문자열 형태로 파싱된 토큰을 InstructionToken으로 가공하여 반환한다.
+	 * 심볼 테이블 객체의 정보를 출력 대상에 바로 쓴다.
 	 *
-	 * @param inst   기계어 정보
-	 * @param token  문자열로 파싱된 토큰
-	 * @param locctr location counter 값
-	 * @param symTab 심볼 테이블
-	 * @param litTab 리터럴 테이블
-	 * @return 가공된 InstructionToken 객체
-	 * @throws RuntimeException 잘못된 명령어 사용 방식.
+	 * @param out 출력 대상
+	 * @throws IOException 출력 실패.
 	 */
-	private static InstructionToken handlePass1InstructionStep(Instruction inst, StringToken token,
-				   int locctr, SymbolTable symTab, LiteralTable litTab) throws RuntimeException {
-		Instruction.Format format = inst.getFormat();
-		Instruction.OperandType operandType = inst.getOperandType();
+	public void writeSymbols(Appendable out) throws IOException {
+		_symbolTable.write(out);
+	}
 
-		int size;
-		ArrayList<Operand> operands = new ArrayList<>();
-		boolean isN = token.isN();
-		boolean isI = token.isI();
-		boolean isX = token.isX();
-		boolean isP = token.isP();
-		boolean isE = token.isE();
-
-		// TODO: label을 심볼 테이블에 추가하기.
-		if(token.getLabel().isPresent()){
-			String s = token.getLabel().get();
-			symTab.put(s, locctr);
+	/**
+	 * 리터럴 테이블 객체의 정보를 출력 대상에 바로 쓴다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException 출력 실패.
+	 */
+	public void writeLiterals(Appendable out) throws IOException {
+		_literalTable.write(out);
+	}
+
+	/**
+	 * 라인 묶음 하나의 operator를 찾고 크기를 계산한다. 라인만 보고 알 수 있는 오류도 여기서 확인한다.
+	 *
+	 * @param rows     라인별 중간 결과
+	 * @param chunk    라인 묶음 번호
+	 * @param keywords 예약어 테이블
+	 */
+	private static void classifyRows(Pass1Rows rows, int chunk, KeywordTable keywords) {
+		StringTokenBuffer lexed = rows.lexed;
+		int end = Math.min(lexed.getChunkEnd(chunk), rows.limit);
+		StringToken token = new StringToken();
+
+		for (int x = lexed.getChunkStart(chunk); x < end; x++) {
+			try {
+				token.load(lexed, x);
+
+				// 만약 operator가 없는데 operand나 label이 있으면 에러처리
+				if (token.getOperator().isEmpty()) {
+					boolean isLabelEmpty = token.getLabel().isEmpty();
+					boolean isOperandEmpty = token.getOperandCount() == 0;
+					if (!isLabelEmpty || !isOperandEmpty)
+						throw new RuntimeException("missing operator\n\n" + token.toString());
+					continue;
+				}
+
+				// operator를 예약어 테이블에서 한 번에 찾는다
+				Optional<Keyword> keyword = keywords.search(token.getOperatorKey());
+				Optional<Instruction> optInst = keyword.flatMap(Keyword::getInstruction);
+				// 만약 명령어테이블에 일치항목이 있으면
+				if (optInst.isPresent())
+					classifyInstruction(rows, x, optInst.get(), token, keywords);
+				// 그렇지 않으면
+				else
+					classifyDirective(rows, x, keyword.flatMap(Keyword::getDirective), token);
+			} catch (RuntimeException e) {
+				rows.fail(x, e);
+				return;
+			}
 		}
+	}
+
+	/**
+	 * operator가 instruction에 해당하는 라인의 크기를 계산하고, operand 형식과 레지스터 이름을 확인한다.
+	 *
+	 * @param rows     라인별 중간 결과
+	 * @param x        section 내의 라인 순서
+	 * @param inst     기계어 정보
+	 * @param token    문자열로 파싱된 토큰
+	 * @param keywords 레지스터 이름을 찾을 예약어 테이블
+	 * @throws RuntimeException 잘못된 명령어 사용 방식.
+	 */
+	private static void classifyInstruction(Pass1Rows rows, int x, Instruction inst, StringToken token,
+			KeywordTable keywords) throws RuntimeException {
+		int flags = 0;
+		int size;
 
-		System.out.printf("%X	", locctr);
+		// label은 주소가 정해진 뒤에 심볼 테이블에 추가한다
+		if (token.getLabel().isPresent()) {
+			rows.labels[x] = token.getLabel();
+			flags |= DEFINES_SYMBOL;
+		}
 
-		switch (operandType) {
+		switch (inst.getOperandType()) {
 			case NO_OPERAND:
-				// TODO: operand가 없어야 하는 경우에 대해서 처리하기.
-                break;
+				break;
 
 			case MEMORY:
-				// TODO: operand로 MEMORY 하나만 주어져야 하는 경우에 대해서 처리하기.
-				String opd0 = token.getOperands().getFirst();
-				Operand.MemoryType memoryType = Operand.MemoryType.distinguish(opd0);
-
-				switch (memoryType) {
+				String opd0 = token.getOperand(0);
+				switch (Operand.MemoryType.distinguish(opd0)) {
 					case NUMERIC:
-						// TODO: operand로 상수 혹은 심볼이 주어지는 경우에 대해서 처리하기.
-						Numeric n;
-						if(isNotFormula(opd0)){
-							n = new Numeric(opd0);
-						}else{
-							n = new Numeric(opd0, symTab, locctr);	// 아니지 타입에 따라서 다르지
-						}
-						NumericOperand no = new NumericOperand(n);
-						operands.add(no);
 						break;
 
 					case LITERAL:
-						// TODO: operand로 리터럴이 주어지는 경우에 대해서 처리하기.
-						Literal l = litTab.putLiteral(opd0);
-						LiteralOperand lo = new LiteralOperand(l);
-						operands.add(lo);
-
+						flags |= USES_LITERAL;
 						break;
 
 					default:
@@ -185,220 +305,478 @@ public class ControlSection {
 				break;
 
 			case REG:
-				// TODO: operand로 REGISTER 하나만 주어져야 하는 경우에 대해서 처리하기.
-				String s = token.getOperands().getFirst();
-				Operand.Register r = Operand.Register.stringToRegister(s);
-				RegisterOperand ro = new RegisterOperand(r);
-
-				operands.add(ro);
+				searchRegister(keywords, token, 0);
 				break;
 
 			case REG1_REG2:
-				// TODO: operand로 REGISTER 두개가 주어져야 하는 경우에 대해서 처리하기.
-				String s1 = token.getOperands().get(0);
-				String s2 = token.getOperands().get(1);
-				Operand.Register r1 = Operand.Register.stringToRegister(s1);
-				Operand.Register r2 = Operand.Register.stringToRegister(s2);
-				RegisterOperand ro1 = new RegisterOperand(r1);
-				RegisterOperand ro2 = new RegisterOperand(r2);
-
-				operands.add(ro1);
-				operands.add(ro2);
+				searchRegister(keywords, token, 0);
+				searchRegister(keywords, token, 1);
 				break;
 
 			default:
 				throw new UnsupportedOperationException("not fully support InstructionInfo.OperandType");
 		}
 
-		switch (format) {
+		switch (inst.getFormat()) {
 			case TWO:
-				// TODO: size = 2?;
 				size = 2;
-				locctr += 2;
 				break;
 
 			case THREE_OR_FOUR:
-				// TODO: size = 3 or 4?;
-				String thisOperator = token.getOperator().get();
+				size = token.isE() ? 4 : 3;
+				break;
 
-				if(isE){
-					size = 4;
-					locctr += size;
-				}else{
-					size = 3;
-					locctr += size;
-				}
+			default:
+				throw new UnsupportedOperationException("not fully support InstructionInfo.Format");
+		}
+
+		rows.instructions[x] = inst;
+		rows.flags[x] = (byte) flags;
+		rows.sizes[x] = size;
+	}
+
+	/**
+	 * operator가 directive에 해당하는 라인의 크기를 계산한다. LTORG, END의 크기는 리터럴 테이블에 따라 정해지므로
+	 * 여기서는 0으로 둔다.
+	 *
+	 * @param rows         라인별 중간 결과
+	 * @param x            section 내의 라인 순서
+	 * @param optDirective 예약어 테이블에서 찾은 지시어
+	 * @param token        문자열로 파싱된 토큰
+	 * @throws RuntimeException 잘못된 지시어 사용 방식.
+	 */
+	private static void classifyDirective(Pass1Rows rows, int x, Optional<Directive> optDirective,
+			StringToken token) throws RuntimeException {
+		if (optDirective.isEmpty())
+			throw new RuntimeException("illegal directive name (" + token.getOperator().get() + ")\n\n"
+					+ token.toString());
+		Directive directive = optDirective.get();
+
+		int flags = 0;
+		int size = 0;
+
+		switch (directive) {
+			case START:
+			case CSECT:
+				flags = MOVES_LOCCTR | DEFINES_SYMBOL;
+				break;
+
+			case EXTDEF:
+				break;
+
+			case EXTREF:
+				flags = DEFINES_SYMBOL;
+				break;
+
+			case BYTE:
+				size = 1;
+				flags = DEFINES_SYMBOL;
+				break;
+
+			case WORD:
+				size = 3;
+				flags = DEFINES_SYMBOL;
+				break;
+
+			case RESB:
+				size = Integer.parseInt(token.getOperand(0));
+				flags = DEFINES_SYMBOL;
+				break;
+
+			case RESW:
+				size = 3;
+				flags = DEFINES_SYMBOL;
+				break;
 
+			case LTORG:
+			case END:
+				flags = MOVES_LOCCTR;
+				break;
+
+			case EQU:
+				flags = DEFINES_SYMBOL;
 				break;
 
 			default:
-				throw new UnsupportedOperationException("not fully support InstructionInfo.Format");
+				throw new UnsupportedOperationException("not fully support Directive");
+		}
+
+		if ((flags & DEFINES_SYMBOL) != 0)
+			rows.labels[x] = token.getLabel();
+		rows.directives[x] = directive;
+		rows.flags[x] = (byte) flags;
+		rows.sizes[x] = size;
+	}
+
+	/**
+	 * 라인별 크기의 prefix sum으로 LOCCTR을 계산한다. 리터럴 선언과 LTORG, END, START, CSECT만 라인 순서대로
+	 * 처리하며, 이 라인들에서 바뀌는 LOCCTR 보정값을 그 뒤의 라인들에 더한다. 계산이 끝나면
+	 * <code>rows.addresses</code>에는 라인 처리 후의 LOCCTR 값이 들어 있다.
+	 *
+	 * @param rows     라인별 중간 결과
+	 * @param litTab   리터럴 테이블
+	 * @param parallel prefix sum과 보정을 병렬로 수행할지 여부
+	 */
+	private static void assignAddresses(Pass1Rows rows, LiteralTable litTab, boolean parallel) {
+		StringTokenBuffer lexed = rows.lexed;
+		int[] addresses = rows.addresses;
+		System.arraycopy(rows.sizes, 0, addresses, 0, addresses.length);
+		if (parallel && lexed.getChunkCount() >= 2)
+			Arrays.parallelPrefix(addresses, Integer::sum);
+		else
+			for (int x = 1; x < addresses.length; x++)
+				addresses[x] += addresses[x - 1];
+
+		// 보정값이 바뀌는 라인만 순서대로 처리한다
+		StringToken token = new StringToken();
+		int limit = rows.limit;
+		int delta = 0;
+		for (int x = 0; x < limit; x++) {
+			if ((rows.flags[x] & (USES_LITERAL | MOVES_LOCCTR)) == 0)
+				continue;
+
+			try {
+				int locctr = (x == 0 ? 0 : addresses[x - 1]) + delta;
+				token.load(lexed, x);
+
+				// TODO: operand로 리터럴이 주어지는 경우에 대해서 처리하기.
+				if ((rows.flags[x] & USES_LITERAL) != 0) {
+					rows.literals[x] = litTab.putLiteral(token.getOperand(0));
+					continue;
+				}
+
+				switch (rows.directives[x]) {
+					case START:
+						// TODO: START인 경우에 대해서 pass1 처리하기.
+						locctr = Integer.parseInt(token.getOperand(0));
+						break;
+
+					case CSECT:
+						// TODO: CSECT인 경우에 대해서 pass1 처리하기.
+						locctr = 0;
+						break;
+
+					case LTORG:
+						// TODO: LTORG인 경우에 대해서 pass1 처리하기.
+					case END:
+						// TODO: END인 경우에 대해서 pass1 처리하기.
+						// 기다리던 리터럴을 차례로 이어 놓는다. pool의 크기는 리터럴 크기의 합이다
+						LiteralPool pool = litTab.placePool(locctr);
+						rows.pools.put(x, pool);
+						rows.sizes[x] = pool.getSize();
+						locctr += pool.getSize();
+						break;
+
+					default:
+						throw new UnsupportedOperationException("not fully support Directive");
+				}
+				delta = locctr - addresses[x];
+				rows.addBreak(x, delta);
+			} catch (RuntimeException e) {
+				rows.fail(x, e);
+				break;
+			}
+		}
+
+		forEachChunk(lexed, parallel, chunk -> {
+			int start = lexed.getChunkStart(chunk);
+			int end = lexed.getChunkEnd(chunk);
+			// chunk 시작 전의 마지막 보정값부터 적용한다
+			int k = Arrays.binarySearch(rows.breakRows, 0, rows.breakCount, start);
+			k = k < 0 ? -k - 1 : k;
+			int d = k == 0 ? 0 : rows.breakDeltas[k - 1];
+			for (int x = start; x < end; x++) {
+				if (k < rows.breakCount && rows.breakRows[k] == x)
+					d = rows.breakDeltas[k++];
+				addresses[x] += d;
+			}
+		});
+	}
+
+	/**
+	 * label, control section 명칭, EXTREF, EQU를 라인 순서대로 심볼 테이블에 추가한다. EQU의 수식 operand도
+	 * 여기서 계산하여, 라인 순서대로 처리할 때와 같은 심볼만 참조하도록 한다.
+	 *
+	 * @param rows   라인별 중간 결과
+	 * @param symTab 심볼 테이블
+	 */
+	private static void defineSymbols(Pass1Rows rows, SymbolTable symTab) {
+		StringToken token = new StringToken();
+		int limit = rows.limit;
+
+		for (int x = 0; x < limit; x++) {
+			int flags = rows.flags[x];
+			if ((flags & DEFINES_SYMBOL) == 0)
+				continue;
+
+			try {
+				int locctr = rows.addresses[x];
+				int start = locctr - rows.sizes[x];
+
+				// TODO: label을 심볼 테이블에 추가하기.
+				if (rows.instructions[x] != null) {
+					symTab.put(rows.labels[x].get(), start);
+					continue;
+				}
+
+				switch (rows.directives[x]) {
+					case START:
+					case CSECT:
+						symTab.putRep(rows.labels[x].get(), locctr);
+						break;
+
+					case EXTREF:
+						for(String s : token.load(rows.lexed, x).getOperands()){
+							symTab.putRefer(s);
+						}
+						break;
+
+					case BYTE:
+					case WORD:
+					case RESB:
+					case RESW:
+						symTab.put(rows.labels[x].get(), start);
+						break;
+
+					case EQU:
+						// 만약 *인지 BUFEND-BUFFER인지 케이스는 Numeric에서 알아서 해준다
+						// 아니다. 여기서 해줘야한다
+						String opd0 = token.load(rows.lexed, x).getOperand(0);
+						symTab.put(rows.labels[x].get(), opd0, locctr);
+						if (!isNotFormula(opd0))
+							rows.ordered[x] = new Numeric(opd0, symTab, locctr);
+						break;
+
+					default:
+						throw new UnsupportedOperationException("not fully support Directive");
+				}
+			} catch (RuntimeException e) {
+				rows.fail(x, e);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * 라인 묶음 하나의 operand를 가공하여 토큰 테이블에 추가한다. 심볼 테이블은 읽기만 하므로 여러 묶음을 동시에 처리할 수
+	 * 있다.
+	 *
+	 * @param rows      라인별 중간 결과
+	 * @param chunk     라인 묶음 번호
+	 * @param keywords  레지스터 이름을 찾을 예약어 테이블
+	 * @param templates object code 틀 테이블
+	 * @param symTab    심볼 테이블
+	 * @param litTab    리터럴 테이블
+	 * @param tokens    행을 추가할 토큰 테이블
+	 */
+	private static void buildTokens(Pass1Rows rows, int chunk, KeywordTable keywords, EncodingTemplates templates,
+			SymbolTable symTab, LiteralTable litTab, TokenStore tokens) {
+		StringTokenBuffer lexed = rows.lexed;
+		int start = lexed.getChunkStart(chunk);
+		int end = Math.min(lexed.getChunkEnd(chunk), rows.limit);
+		StringToken token = new StringToken();
+		InstructionEncoder encoder = new InstructionEncoder(tokens, symTab, templates);
+
+		for (int x = start; x < end; x++) {
+			if (rows.instructions[x] == null && rows.directives[x] == null)
+				continue;
+
+			try {
+				token.load(lexed, x);
+				if (rows.instructions[x] != null) {
+					buildInstructionToken(rows, x, token, keywords, symTab, tokens);
+					// operand를 심볼 번호나 리터럴 번호로 바꾸어 둔다. 오류는 pass2에서 보고한다
+					encoder.bind(tokens.size() - 1);
+				} else {
+					buildDirectiveToken(rows, x, token, symTab, tokens);
+					// 모든 심볼이 정의된 뒤이므로 WORD의 수식을 미리 계산해 둔다
+					if (rows.directives[x] == Directive.WORD)
+						encoder.bindWord(tokens.size() - 1);
+				}
+			} catch (RuntimeException e) {
+				rows.fail(x, e);
+				break;
+			}
+
+			if (Tracer.PASS1.debug) {
+				Tracer.PASS1.logf("%X\t%s", rows.traceLocctr, tokens.toString(tokens.size() - 1));
+				rows.traceLocctr = rows.addresses[x];
+			}
 		}
+	}
+
+	/**
+	 * operator가 instruction에 해당하는 라인의 operand를 가공하여 토큰 테이블에 한 행으로 추가한다.
+	 *
+	 * @param rows     라인별 중간 결과
+	 * @param x        section 내의 라인 순서
+	 * @param token    문자열로 파싱된 토큰
+	 * @param keywords 레지스터 이름을 찾을 예약어 테이블
+	 * @param symTab   심볼 테이블
+	 * @param tokens   토큰 테이블
+	 * @throws RuntimeException 잘못된 명령어 사용 방식.
+	 */
+	private static void buildInstructionToken(Pass1Rows rows, int x, StringToken token, KeywordTable keywords,
+			SymbolTable symTab, TokenStore tokens) throws RuntimeException {
+		Instruction inst = rows.instructions[x];
+		int locctr = rows.addresses[x];
+		int size = rows.sizes[x];
+		int nixbpe = (token.isN() ? TokenStore.N : 0) | (token.isI() ? TokenStore.I : 0)
+				| (token.isX() ? TokenStore.X : 0) | (token.isP() ? TokenStore.P : 0)
+				| (token.isE() ? TokenStore.E : 0);
+
+		tokens.beginInstruction(inst, nixbpe);
+		switch (inst.getOperandType()) {
+			case MEMORY:
+				// TODO: operand로 MEMORY 하나만 주어져야 하는 경우에 대해서 처리하기.
+				if ((rows.flags[x] & USES_LITERAL) != 0) {
+					tokens.addLiteral(rows.literals[x]);
+					break;
+				}
+
+				// TODO: operand로 상수 혹은 심볼이 주어지는 경우에 대해서 처리하기.
+				// 모든 심볼이 정의된 뒤이므로 뒤에서 정의된 심볼도 계산에 포함된다
+				Numeric n;
+				String opd0 = token.getOperand(0);
+				if(isNotFormula(opd0)){
+					n = new Numeric(opd0);
+				}else{
+					n = new Numeric(opd0, symTab, locctr - size);	// 아니지 타입에 따라서 다르지
+				}
+				tokens.addNumeric(n);
+				break;
 
-		String para = "";
+			case REG:
+				// TODO: operand로 REGISTER 하나만 주어져야 하는 경우에 대해서 처리하기.
+				tokens.addRegister(searchRegister(keywords, token, 0));
+				break;
 
-		if(!token.getOperands().isEmpty()){
-			para = token.getOperands().getFirst();
+			case REG1_REG2:
+				// TODO: operand로 REGISTER 두개가 주어져야 하는 경우에 대해서 처리하기.
+				tokens.addRegister(searchRegister(keywords, token, 0));
+				tokens.addRegister(searchRegister(keywords, token, 1));
+				break;
+
+			default:
+				break;
 		}
 
-		return new InstructionToken(para, locctr, size, inst, operands, isN, isI, isX, isP, isE);
+		tokens.end(locctr, size);
 	}
 
 	/**
-	 * pass1에서 operator가 directive에 해당하는 경우에 대해서 처리한다. label 및 operand에 출현한 심볼을 심볼
-	 * 테이블에 추가하고, 주소가 지정되지 않은 리터럴을 리터럴 테이블에서 찾아 주소를 할당하고, 문자열 형태로 파싱된 토큰을
-	 * DirectiveToken으로 가공하여 반환한다.
+	 * operand를 예약어 테이블에서 찾아 레지스터로 변환한다.
 	 *
+	 * @param keywords 예약어 테이블
+	 * @param token    문자열로 파싱된 토큰
+	 * @param index    operand 순서
+	 * @return 레지스터
+	 * @throws RuntimeException 레지스터가 아닌 operand.
+	 */
+	static Operand.Register searchRegister(KeywordTable keywords, StringToken token, int index)
+			throws RuntimeException {
+		Optional<Operand.Register> register = keywords.search(token.getOperandKey(index))
+				.flatMap(Keyword::getRegister);
+		if (register.isEmpty())
+			throw new RuntimeException("illegal register name (" + token.getOperand(index) + ")");
+		return register.get();
+	}
+
+	/**
+	 * operator가 directive에 해당하는 라인의 operand를 가공하여 토큰 테이블에 한 행으로 추가한다.
+	 *
+	 * @param rows   라인별 중간 결과
+	 * @param x      section 내의 라인 순서
 	 * @param token  문자열로 파싱된 토큰
-	 * @param locctr location counter 값
 	 * @param symTab 심볼 테이블
-	 * @param litTab 리터럴 테이블
-	 * @return 가공된 DirectiveToken 객체
+	 * @param tokens 토큰 테이블
 	 * @throws RuntimeException 잘못된 지시어 사용 방식.
 	 */
-	private static DirectiveToken handlePass1DirectiveStep(StringToken token,
-				   int locctr, SymbolTable symTab, LiteralTable litTab) throws RuntimeException {
-		String operator = token.getOperator().get();
-
-		Directive directive;
-		try {
-			directive = Directive.stringToDirective(operator);
-		} catch (RuntimeException e) {
-			throw new RuntimeException(e.getMessage() + "\n\n" + token.toString());
-		}
-
-		int size = 0;
-		ArrayList<Operand> operands = new ArrayList<>();
+	private static void buildDirectiveToken(Pass1Rows rows, int x, StringToken token, SymbolTable symTab,
+			TokenStore tokens) throws RuntimeException {
+		Directive directive = rows.directives[x];
+		int locctr = rows.addresses[x];
+		int size = rows.sizes[x];
 		Numeric numeric;
-		NumericOperand numericOperand;
-
-		System.out.printf("%X	", locctr);
 
+		tokens.beginDirective(directive);
 		switch (directive) {
 			case START:
-				// TODO: START인 경우에 대해서 pass1 처리하기.
-				locctr = Integer.parseInt(token.getOperands().getFirst());
-				symTab.putRep(token.getLabel().get(), locctr);
-				numeric = new Numeric(String.valueOf(locctr));
-				numericOperand = new NumericOperand(numeric);
-				operands.add(numericOperand);
+				tokens.addNumeric(Numeric.of(locctr));
 				break;
 
 			case CSECT:
-				// TODO: CSECT인 경우에 대해서 pass1 처리하기.
-				locctr = 0;
-				symTab.putRep(token.getLabel().get(), locctr);
 				break;
 
 			case EXTDEF:
 				// TODO: EXTDEF인 경우에 대해서 pass1 처리하기.
-				for(int i = 0; i < token.getOperands().size(); i++){
-					numeric = new Numeric(token.getOperands().get(i), symTab, locctr);
-					numericOperand = new NumericOperand(numeric);
-					operands.add(numericOperand);
+				for(int i = 0; i < token.getOperandCount(); i++){
+					numeric = new Numeric(token.getOperand(i), symTab, locctr);
+					String name = numeric.getMemoryName();
+					tokens.addSymbol(numeric, name == null ? SymbolTable.NO_HANDLE : symTab.getHandle(name));
 				}
 				break;
 
 			case EXTREF:
 				// TODO: EXTREF인 경우에 대해서 pass1 처리하기.
-				for(String s : token.getOperands()){
-//					System.out.println("ㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡ" + s + "ㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡ");
-					symTab.putRefer(s);
-					operands.add(new NumericOperand(new Numeric(s, 7)));
+				for(int i = 0; i < token.getOperandCount(); i++){
+					tokens.addNumeric(new Numeric(token.getOperand(i), 7));
 				}
 				break;
 
 			case BYTE:
 				// TODO: BYTE인 경우에 대해서 pass1 처리하기.
-				size = 1;
-				symTab.put(token.getLabel().get(), locctr);
-				locctr += 1;
-				numeric = new Numeric(token.getOperands().getFirst());
-				numericOperand = new NumericOperand(numeric);
-				operands.add(numericOperand);
+				numeric = new Numeric(token.getOperand(0));
+				tokens.addNumeric(numeric);
 				break;
 
 			case WORD:
 				// TODO: WORD인 경우에 대해서 pass1 처리하기.
-				size = 3;
-				symTab.put(token.getLabel().get(), locctr);
-				locctr += 3;
-				if(isNotFormula(token.getOperands().getFirst())){
-//					System.out.println("KKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKKK");
-					numeric = new Numeric(token.getOperands().getFirst());
+				if(isNotFormula(token.getOperand(0))){
+					numeric = new Numeric(token.getOperand(0));
 				}else{
-//					System.out.println("PPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPPP");
-					numeric = new Numeric(token.getOperands().getFirst(), symTab, locctr);
+					numeric = new Numeric(token.getOperand(0), symTab, locctr);
 				}
-				numericOperand = new NumericOperand(numeric);
-				operands.add(numericOperand);
+				tokens.addNumeric(numeric);
 				break;
 
 			case RESB:
-				// TODO: RESB인 경우에 대해서 pass1 처리하기.
-				size = Integer.parseInt(token.getOperands().getFirst());
-				symTab.put(token.getLabel().get(), locctr);
-				locctr += size;
-				numeric = new Numeric(String.valueOf(size));
-				numericOperand = new NumericOperand(numeric);
-				operands.add(numericOperand);
-				break;
-
 			case RESW:
-				// TODO: RESW인 경우에 대해서 pass1 처리하기.
-				size = 3;
-				symTab.put(token.getLabel().get(), locctr);
-				locctr += size;
-				numeric = new Numeric(String.valueOf(size));
-				numericOperand = new NumericOperand(numeric);
-				operands.add(numericOperand);
+				// TODO: RESB, RESW인 경우에 대해서 pass1 처리하기.
+				numeric = Numeric.of(size);
+				tokens.addNumeric(numeric);
 				break;
 
 			case LTORG:
-				// TODO: LTORG인 경우에 대해서 pass1 처리하기.
-				for(int i = 0; i < litTab.size(); i++){
-					size += litTab.assignAddress(locctr, operands);
-					locctr += size;
-				}
+			case END:
+				// 리터럴 주소는 LOCCTR 계산 단계에서 할당하였다
+				for (Literal literal : rows.pools.get(x).getLiterals())
+					tokens.addLiteral(literal);
 				break;
 
 			case EQU:
 				// TODO: EQU인 경우에 대해서 pass1 처리하기.
-				// 만약 *인지 BUFEND-BUFFER인지 케이스는 Numeric에서 알아서 해준다
-				// 아니다. 여기서 해줘야한다
-				symTab.put(token.getLabel().get(), token.getOperands().getFirst(), locctr);
-				if(isNotFormula(token.getOperands().getFirst())){
-					numeric = new Numeric(token.getOperands().getFirst());
-				}else{
-					// *일 경우?
-					numeric = new Numeric(token.getOperands().getFirst(), symTab, locctr);
-				}
-				numericOperand = new NumericOperand(numeric);
-				operands.add(numericOperand);
-				break;
-
-			case END:
-				// TODO: END인 경우에 대해서 pass1 처리하기.
-				for(int i = 0; i < litTab.size(); i++){
-					locctr += litTab.assignAddress(locctr, operands);
+				numeric = rows.ordered[x];
+				if (numeric == null) {
+					if(isNotFormula(token.getOperand(0))){
+						numeric = new Numeric(token.getOperand(0));
+					}else{
+						// *일 경우?
+						numeric = new Numeric(token.getOperand(0), symTab, locctr);
+					}
 				}
+				tokens.addNumeric(numeric);
 				break;
 
 			default:
 				throw new UnsupportedOperationException("not fully support Directive");
 		}
 
-		String para = "";
-
-		if(!token.getOperands().isEmpty()){
-			para = token.getOperands().getFirst();
-		}
-
-		return new DirectiveToken(para, locctr, size, directive, operands);
+		tokens.end(locctr, size);
 	}
 
 	// 문자열에 +, -가 있는지 확인한다
-	private static boolean isNotFormula(String s) throws RuntimeException {
+	static boolean isNotFormula(String s) throws RuntimeException {
 		if(s.contains("'"))
 			return true;
 		else if(s.chars().allMatch(Character::isDigit))
@@ -407,52 +785,80 @@ public class ControlSection {
 		return false;
 	}
 
+	/**
+	 * 라인 묶음마다 작업을 수행한다. 병렬 모드이고 묶음이 둘 이상이면 병렬로 수행한다.
+	 *
+	 * @param lexed    토큰화 결과
+	 * @param parallel 병렬로 수행할지 여부
+	 * @param action   라인 묶음 번호를 받아 수행할 작업
+	 */
+	private static void forEachChunk(StringTokenBuffer lexed, boolean parallel, IntConsumer action) {
+		int chunks = lexed.getChunkCount();
+		if (parallel && chunks >= 2)
+			IntStream.range(0, chunks).parallel().forEach(action);
+		else
+			for (int chunk = 0; chunk < chunks; chunk++)
+				action.accept(chunk);
+	}
+
 	/**
 	 * pass2에서 operator가 instruction인 경우에 대해서 오브젝트 코드에 정보를 추가한다.
 	 *
 	 * @param objCode 오브젝트 코드 객체
-	 * @param token   InstructionToken 객체
+	 * @param tokens  토큰 테이블
+	 * @param row     명령어 토큰의 행 번호
+	 * @param encoder 명령어 인코더
+	 * @param code    인코더가 코드를 쓸 배열
 	 * @throws RuntimeException 잘못된 심볼 객체 변환 시도.
 	 */
-	private static void handlePass2InstructionStep(ObjectCode objCode, InstructionToken token,
-												   SymbolTable symbolTable, LiteralTable literalTable) throws RuntimeException {
-		Token.TextInfo textInfo = token.getTextInfo(symbolTable, literalTable);
-
-		objCode.addText(textInfo.address - textInfo.size, textInfo.code, textInfo.size);
-
-		if (textInfo.mod.isEmpty())
+	private static void handlePass2InstructionStep(ObjectCode objCode, TokenStore tokens, int row,
+												   InstructionEncoder encoder, int[] code) throws RuntimeException {
+		int address = tokens.getAddress(row);
+		int size = tokens.getSize(row);
+		int result = encoder.encode(row, code, 0);
+		if (result != InstructionEncoder.OK)
+			throw new RuntimeException(encoder.getMessage(row, result));
+		if (Tracer.PASS2.debug)
+			Tracer.PASS2.logf("%X\t%X\t%d\t%s", address - size, code[0], size, tokens.toString(row));
+
+		objCode.addText(address - size, code[0], size);
+
+		if ((tokens.getNixbpe(row) & TokenStore.E) == 0)
 			return;
 
-		Token.ModificationInfo modInfo = textInfo.mod.get();
-		objCode.addModification("+" + modInfo.refers, modInfo.address, modInfo.sizeHalfByte);
+		// format 4는 encode()에서 operand가 심볼임을 확인하였다
+		objCode.addModification('+', encoder.getSymbolName(row), address, 5);
 	}
 
 	/**
 	 * pass2에서 operator가 directive인 경우에 대해서 오브젝트 코드에 정보를 추가한다.
 	 *
 	 * @param objCode      오브젝트 코드 객체
-	 * @param token        DirectiveToken 객체
+	 * @param tokens       토큰 테이블
+	 * @param row          지시어 토큰의 행 번호
 	 * @param repSymbol    control section 명칭 심볼
-	 * @param literalTable 리터럴 테이블
+	 * @param symbolTable  심볼 테이블
+	 * @param encoder      WORD 값을 읽을 인코더
+	 * @param code         인코더가 값을 쓸 배열
 	 * @throws RuntimeException 잘못된 지시어 사용 방식.
 	 */
-	private static void handlePass2DirectiveStep(ObjectCode objCode, DirectiveToken token, Symbol repSymbol,
-												 SymbolTable symbolTable, LiteralTable literalTable) throws RuntimeException {
-		Directive directive = token.getDirective();
+	private void handlePass2DirectiveStep(ObjectCode objCode, TokenStore tokens, int row, Symbol repSymbol,
+												 SymbolTable symbolTable, InstructionEncoder encoder, int[] code)
+			throws RuntimeException {
+		Directive directive = tokens.getDirective(row);
 		String sectionName = repSymbol.getName();
 
-		ArrayList<Operand> operands;
-		NumericOperand numOperand;
 		Numeric num;
-		int address;
-		int size;
+		int address = tokens.getAddress(row);
+		int size = tokens.getSize(row);
+		int operandCount = tokens.getOperandCount(row);
 
 		switch (directive) {
 			case START:
-				numOperand = (NumericOperand) token.getOperands().get(0);
+				num = tokens.getNumeric(row, 0);
 				objCode.setSectionName(sectionName);
-				objCode.setStartAddress(numOperand.getNumeric().getInteger());
-				isStartCsect = true;
+				objCode.setStartAddress(num.getInteger());
+				_isStartCsect = true;
 				break;
 
 			case CSECT:
@@ -463,21 +869,19 @@ public class ControlSection {
 			case EXTDEF:
 				// TODO: EXTDEF인 경우에 대해서 pass2 처리하기.
 				// objCode.addDefineSymbol(?, ?);
-				for(int i = 0; i < token.getOperands().size(); i++){
-					NumericOperand no = (NumericOperand) token.getOperands().get(i);
-					String name = no.getNumeric().getMemoryName();
-					int nameAddress = symbolTable.search(name).get().getAddress().get().getInteger();
+				for(int i = 0; i < operandCount; i++){
+					int handle = tokens.getOperandHandle(row, i);
+					if (handle == SymbolTable.NO_HANDLE || !symbolTable.hasHandleAddress(handle))
+						throw new RuntimeException("undefined symbol (" + tokens.getNumeric(row, i).getMemoryName() + ")");
 
-					objCode.addDefineSymbol(name, nameAddress);
+					objCode.addDefineSymbol(symbolTable.getHandleName(handle), symbolTable.getHandleAddress(handle));
 				}
 
 				break;
 
 			case EXTREF:
-				operands = token.getOperands();
-				for (Operand operand : operands) {
-					numOperand = (NumericOperand) operand;
-					num = numOperand.getNumeric();
+				for (int i = 0; i < operandCount; i++) {
+					num = tokens.getNumeric(row, i);
 					String symbolName = num.getMemoryName();
 					objCode.addReferSymbol(symbolName);
 				}
@@ -486,62 +890,57 @@ public class ControlSection {
 			case BYTE:
 				// TODO: BYTE인 경우에 대해서 pass2 처리하기.
 				// objCode.addText(?, ?, ?);
-				NumericOperand n = (NumericOperand)token.getOperands().getFirst();
-				byte k = (byte)n.getNumeric().getInteger();
-				objCode.addText(token.getAddress(), k, 1);
+				byte k = (byte)tokens.getNumeric(row, 0).getInteger();
+				objCode.addText(address, k, 1);
 
 				break;
 
 			case WORD:
 				// TODO: WORD인 경우에 대해서 pass2 처리하기.
-				NumericOperand no = (NumericOperand) token.getOperands().getFirst();
-
-				if(no.getNumeric().getMemoryName() == null){
-					objCode.addText(token.getAddress(), no.getNumeric().getInteger(), token.getSize());
-				}else{
-					objCode.addText(token.getAddress(), 0, token.getSize());
-
-					String []split = no.getNumeric().getMemoryName().split("[+-]");
-					if(no.getNumeric().getMemoryName().contains("-")){
-						objCode.addModification("+" + split[0], token.getAddress(), 6);
-						objCode.addModification("-" + split[1], token.getAddress(), 6);
+				// 수식은 pass1에서 계산해 두었다
+				int result = encoder.encodeWord(row, code, 0);
+				if (result != InstructionEncoder.OK)
+					throw new RuntimeException(encoder.getMessage(row, result));
+				objCode.addText(address, code[0], size);
+
+				if (tokens.hasExternal(row)) {
+					// 외부 심볼은 값에 더하지 않고 modification record로 남긴다
+					Expression expression = tokens.getNumeric(row, 0).getExpression().get();
+					for (int i = 0; i < expression.getSymbolCount(); i++) {
+						String name = expression.getSymbolName(i);
+						if (!symbolTable.isHandleRefer(symbolTable.getHandle(name)))
+							continue;
+
+						int multiplier = expression.getMultiplier(i);
+						for (int j = 0; j < Math.abs(multiplier); j++)
+							objCode.addModification(multiplier > 0 ? '+' : '-', name, address, 6);
 					}
 				}
 
-
-
-
 				break;
 
 			case LTORG:
 				// TODO: LTORG인 경우에 대해서 pass2 처리하기.
-				for(int i = 0; i < token.getOperands().size(); i++){
-					NumericOperand nn = (NumericOperand)token.getOperands().get(i);
-					int bi = nn.getNumeric().getValue().intValue();
-
-					objCode.addText(token.getAddress() - token.getSize(), Integer.toHexString(bi).toUpperCase(), token.getSize());
+				// 리터럴마다 pass1에서 할당한 주소에 자기 크기만큼 놓는다
+				for(int i = 0; i < operandCount; i++){
+					addLiteralText(objCode, tokens.getLiteral(row, i));
 				}
 
 				break;
 
 			case END:
 				// TODO: END인 경우에 대해서 pass2 처리하기.
-				int extraLength = 0;
-				for(int i = 0; i < token.getOperands().size(); i++){
-					NumericOperand nn = (NumericOperand)token.getOperands().get(i);
-					int bi = nn.getNumeric().getValue().intValue();
-
-					String s = String.format("%02X", bi);
-					extraLength += (s.length() + 1) / 2;
-					objCode.addText(token.getAddress(), s, (s.length() + 1) / 2);
+				for(int i = 0; i < operandCount; i++){
+					addLiteralText(objCode, tokens.getLiteral(row, i));
 				}
-				if(isStartCsect){
-					objCode.setInitialPC(repSymbol.getAddress().get().getValue().intValue());
-					isStartCsect = false;
+				if(_isStartCsect){
+					objCode.setInitialPC(repSymbol.getAddress().get().getInteger());
+					_isStartCsect = false;
 				}else{
 					objCode.setInitialPC(-1);
 				}
-				objCode.setProgramLength(token.getAddress() + extraLength);
+				// END의 주소는 리터럴 pool 다음이다
+				objCode.setProgramLength(address);
 
 				break;
 
@@ -559,8 +958,121 @@ public class ControlSection {
 		}
 	}
 
-	static boolean isStartCsect;
-	private final List<Token> _tokens;
+	/**
+	 * 리터럴 pool에 놓인 리터럴 하나를 텍스트로 추가한다. pass1에서 할당한 주소에 리터럴 크기만큼 차지한다. 4바이트보다
+	 * 긴 리터럴은 모든 바이트를 16진수 문자열로 추가한다.
+	 *
+	 * @param objCode 오브젝트 코드
+	 * @param literal 주소가 할당된 리터럴
+	 */
+	static void addLiteralText(ObjectCode objCode, Literal literal) {
+		int size = literal.getSize();
+		if (literal.hasCode())
+			objCode.addHexText(literal.getAddress().get(), literal.getCode(), size * 2, size);
+		else
+			objCode.addText(literal.getAddress().get(), literal.getText(), size);
+	}
+
+	/**
+	 * pass1 단계 사이에서 라인별 중간 결과를 담는다. section 내의 라인 순서로 색인하며, pass1이 끝나면 버린다.
+	 */
+	private static final class Pass1Rows {
+		Pass1Rows(StringTokenBuffer lexed) {
+			int size = lexed.size();
+			this.lexed = lexed;
+			instructions = new Instruction[size];
+			directives = new Directive[size];
+			flags = new byte[size];
+			sizes = new int[size];
+			addresses = new int[size];
+			@SuppressWarnings("unchecked")
+			Optional<String>[] labelArray = (Optional<String>[]) new Optional<?>[size];
+			labels = labelArray;
+			literals = new Literal[size];
+			ordered = new Numeric[size];
+			limit = size;
+		}
+
+		/**
+		 * 라인의 오류를 기록한다. 이미 더 앞선 라인의 오류가 있으면 무시한다.
+		 *
+		 * @param x     section 내의 라인 순서
+		 * @param error 오류
+		 */
+		synchronized void fail(int x, RuntimeException error) {
+			if (x < limit) {
+				limit = x;
+				_error = error;
+			}
+		}
+
+		/**
+		 * 기록된 오류 중 가장 앞선 라인의 오류를 던진다.
+		 *
+		 * @throws RuntimeException 기록된 오류.
+		 */
+		synchronized void throwError() throws RuntimeException {
+			if (_error != null)
+				throw _error;
+		}
+
+		/**
+		 * LOCCTR 보정값이 바뀌는 라인을 기록한다. 라인 순서대로 호출해야 한다.
+		 *
+		 * @param x     section 내의 라인 순서
+		 * @param delta 이 라인부터 prefix sum에 더할 값
+		 */
+		void addBreak(int x, int delta) {
+			if (breakCount == breakRows.length) {
+				breakRows = Arrays.copyOf(breakRows, breakCount * 2);
+				breakDeltas = Arrays.copyOf(breakDeltas, breakCount * 2);
+			}
+			breakRows[breakCount] = x;
+			breakDeltas[breakCount++] = delta;
+		}
+
+		final StringTokenBuffer lexed;
+		final Instruction[] instructions;
+		final Directive[] directives;
+		final byte[] flags;
+		/** 라인이 차지하는 크기 */
+		final int[] sizes;
+		/** 라인 처리 후의 LOCCTR. 계산 도중에는 크기의 prefix sum */
+		final int[] addresses;
+		final Optional<String>[] labels;
+		/** 리터럴 operand의 리터럴 */
+		final Literal[] literals;
+		/** 라인 순서대로 계산한 EQU 수식 operand */
+		final Numeric[] ordered;
+		/** LTORG, END에서 주소를 할당한 리터럴 */
+		final HashMap<Integer, LiteralPool> pools = new HashMap<Integer, LiteralPool>();
+
+		int[] breakRows = new int[8];
+		int[] breakDeltas = new int[8];
+		int breakCount;
+
+		/** 오류가 난 가장 앞선 라인. 이 라인부터는 처리하지 않는다 */
+		volatile int limit;
+		/** pass1 trace에 출력할 LOCCTR */
+		int traceLocctr;
+		private RuntimeException _error;
+	}
+
+	/** 라인 플래그: label 등을 심볼 테이블에 추가한다 */
+	private static final int DEFINES_SYMBOL = 1;
+	/** 라인 플래그: operand가 리터럴이다 */
+	private static final int USES_LITERAL = 1 << 1;
+	/** 라인 플래그: 리터럴 테이블 혹은 operand에 따라 LOCCTR이 바뀐다 (START, CSECT, LTORG, END) */
+	private static final int MOVES_LOCCTR = 1 << 2;
+
+	/** pass2에서 START로 시작한 section인지 여부. section마다 따로 가지므로 여러 section을 동시에 처리할 수 있다. */
+	private boolean _isStartCsect;
+	/** pass1 결과. 한 번에 어셈블한 경우 null */
+	private final TokenStore _tokens;
+	/** pass2에서 object code를 계산할 틀 테이블. 한 번에 어셈블한 경우 null */
+	private final EncodingTemplates _templates;
 	private final SymbolTable _symbolTable;
 	private final LiteralTable _literalTable;
+	/** 한 번에 어셈블한 경우의 오브젝트 코드. 그 외에는 null */
+	private final ObjectCode _objectCode;
 }
@@ -1,10 +1,34 @@
-import numeric.Numeric;
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Optional;
 
 public class ObjectCode {
 	public ObjectCode() {
+		this(false);
+	}
+
+	/**
+	 * 오브젝트 코드 객체를 초기화한다.
+	 *
+	 * @param encodeTexts 텍스트를 목록에 모으지 않고 추가되는 대로 T 레코드로 만들지 여부. 텍스트 목록을 보관하지 않으므로
+	 *                    텍스트를 주소 순서대로 추가하는 경우 사용한다.
+	 */
+	public ObjectCode(boolean encodeTexts) {
+		this(encodeTexts, INITIAL_CAPACITY);
+	}
+
+	/**
+	 * 텍스트를 목록에 모으는 오브젝트 코드 객체를 초기화한다.
+	 *
+	 * @param textCapacity 예상 텍스트 수. 목록을 미리 이만큼 잡아 두어 늘리지 않도록 한다.
+	 */
+	public ObjectCode(int textCapacity) {
+		this(false, Math.max(textCapacity, INITIAL_CAPACITY));
+	}
+
+	private ObjectCode(boolean encodeTexts, int textCapacity) {
 		_sectionName = Optional.empty();
 		_startAddress = Optional.empty();
 		_programLength = Optional.empty();
@@ -12,147 +36,201 @@ public class ObjectCode {
 
 		_defines = new ArrayList<Define>();
 		_refers = new ArrayList<String>();
-		_texts = new ArrayList<Text>();
-		_mods = new ArrayList<Modification>();
+		_textAddresses = new int[textCapacity];
+		_textCodes = new int[textCapacity];
+		_textSizes = new int[textCapacity];
+		_modAddresses = new int[INITIAL_CAPACITY];
+		_modSizes = new int[INITIAL_CAPACITY];
+		_modSigns = new char[INITIAL_CAPACITY];
+		_modNames = new String[INITIAL_CAPACITY];
+
+		if (encodeTexts) {
+			_textRecords = new StringBuilder();
+			_textWriter = new TextRecordWriter(_textRecords);
+		}
 	}
 
 	/**
-	 * ObjectCode 객체를 String으로 변환한다. Assembler.java에서 오브젝트 코드를 출력하는 데에 사용된다.
+	 * ObjectCode 객체를 String으로 변환한다. 큰 출력은 {@link ObjectCodeWriter}로 바로 파일에 쓰는 것이 좋다.
 	 */
 	@Override
 	public String toString() {
-		if (_sectionName.isEmpty() || _startAddress.isEmpty() || _programLength.isEmpty())
-			throw new RuntimeException("illegal operation");
-
-		String sectionName = _sectionName.get();
-		int startAddress = _startAddress.get();
-		int programLength = _programLength.get();
-
-		String header = String.format("H%-6s%06X%06X\n", sectionName, startAddress, programLength);
-		String define = "";
-		String refer = "";
-		String text = "";
-		String modification = "";
-
-		// TODO: 오브젝트 코드 문자열 생성하기.
-		for(int i = 0; i < _defines.size(); i++) {
-			if(i == 0)
-				define += "D";
-
-			define += _defines.get(i).symbolName + String.format("%06X", _defines.get(i).address);
-
-			if(i == _defines.size() - 1)
-				define += "\n";
+		StringBuilder builder = new StringBuilder();
+		try {
+			new ObjectCodeWriter(builder).write(this);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
+		return builder.toString();
+	}
 
-		for(int i = 0; i < _refers.size(); i++) {
-			if(i == 0)
-				define += "R";
-
-			define += String.format("%-6s", _refers.get(i));
+	public void setSectionName(String sectionName) {
+		_sectionName = Optional.of(sectionName);
+	}
 
-			if(i == _refers.size() - 1)
-				define += "\n";
-		}
+	public void setStartAddress(int address) {
+		_startAddress = Optional.of(address);
+	}
 
-		int textLength = 0;
-		String tmpText = "";
+	public void setProgramLength(int length) {
+		_programLength = Optional.of(length);
+	}
 
-		for(int i = 0 ; i < _texts.size() ; i++) {
-			if(textLength == 0 && !(_texts.get(i).size == 0 && _texts.get(i).address == 0)){
-				text += "T";
-				text += String.format("%06X", _texts.get(i).address);
-			}
+	public void addDefineSymbol(String symbolName, int address) {
+		_defines.add(new Define(symbolName, address));
+	}
 
-			textLength += _texts.get(i).size;
+	public void addReferSymbol(String symbolName) {
+		_refers.add(symbolName);
+	}
 
-			if(textLength > 30 || (_texts.get(i).size == 0 && _texts.get(i).address == 0)){
-				if(textLength != 0){
-					textLength -= _texts.get(i).size;
-					text += String.format("%02X", textLength);
-					text += tmpText;
-					text += "\n";
-				}
+	public void addText(int address, int context, int size) {
+		// 16진수 문자열은 ObjectCodeWriter가 출력할 때 만든다
+		addText(address, context, 0, null, size);
+	}
+	public void addText(int address, String context, int size) {
+		addText(address, 0, 0, context, size);
+	}
 
-				textLength = 0;
-				tmpText = "";
+	/**
+	 * 정수를 크기에 맞춰 자르지 않고, 최소 자리수만 맞춘 16진수 그대로 출력하는 텍스트를 추가한다. 리터럴 pool처럼 내용을
+	 * 16진수 문자열로 출력해야 하는 경우 문자열을 만들지 않고 사용한다.
+	 *
+	 * @param address   텍스트 주소
+	 * @param value     내용
+	 * @param minDigits 최소 자리수 (1 이상)
+	 * @param size      크기
+	 */
+	public void addHexText(int address, int value, int minDigits, int size) {
+		addText(address, value, minDigits, null, size);
+	}
 
-				if(!(_texts.get(i).size == 0 && _texts.get(i).address == 0))
-					i--;
+	/**
+	 * modification record를 추가한다. 부호와 심볼 명칭을 따로 받아 문자열을 만들지 않는다.
+	 *
+	 * @param sign         '+' 혹은 '-'
+	 * @param symbolName   심볼 명칭
+	 * @param address      수정할 코드가 들어 있는 텍스트를 처리한 후의 location counter 값
+	 * @param sizeHalfByte 수정할 크기 (half byte)
+	 */
+	public void addModification(char sign, String symbolName, int address, int sizeHalfByte) {
+		int index = _modCount;
+		if (index == _modAddresses.length) {
+			_modAddresses = Arrays.copyOf(_modAddresses, index * 2);
+			_modSizes = Arrays.copyOf(_modSizes, index * 2);
+			_modSigns = Arrays.copyOf(_modSigns, index * 2);
+			_modNames = Arrays.copyOf(_modNames, index * 2);
+		}
+		_modAddresses[index] = address - 3;
+		_modSizes[index] = sizeHalfByte;
+		_modSigns[index] = sign;
+		_modNames[index] = symbolName;
+		_modCount++;
+	}
 
-				continue;
-			}
+	public void setInitialPC(int address) {
+		_initialPC = address;
+	}
 
-			tmpText += _texts.get(i).value;
+	Optional<String> getSectionName() {
+		return _sectionName;
+	}
 
+	Optional<Integer> getStartAddress() {
+		return _startAddress;
+	}
 
-			if(i == _texts.size() - 1){
-				text += String.format("%02X", textLength);
-				text += tmpText;
-				text += "\n";
-			}
-		}
+	Optional<Integer> getProgramLength() {
+		return _programLength;
+	}
 
-		for(int i = 0 ; i < _mods.size() ; i++) {
-			modification += "M";
-			modification += String.format("%06X", _mods.get(i).address);
-			modification += String.format("%02X", _mods.get(i).sizeHalfByte);
-			modification += _mods.get(i).symbolNameWithSign;
-			modification += "\n";
-		}
+	int getInitialPC() {
+		return _initialPC;
+	}
 
-		String end = "E";
-		if(_initialPC != -1){
-			end += String.format("%06X", _initialPC);
-		}
+	ArrayList<Define> getDefines() {
+		return _defines;
+	}
 
-		return header + define + refer + text + modification + end;
+	ArrayList<String> getRefers() {
+		return _refers;
 	}
 
-	public void setSectionName(String sectionName) {
-		_sectionName = Optional.of(sectionName);
+	/**
+	 * 추가된 텍스트 수를 반환한다.
+	 *
+	 * @return 텍스트 수
+	 */
+	int getTextCount() {
+		return _textCount;
 	}
 
-	public void setStartAddress(int address) {
-		_startAddress = Optional.of(address);
+	int getTextAddress(int index) {
+		return _textAddresses[index];
 	}
 
-	public void setProgramLength(int length) {
-		_programLength = Optional.of(length);
+	int getTextCode(int index) {
+		return _textCodes[index];
 	}
 
-	public void addDefineSymbol(String symbolName, int address) {
-		_defines.add(new Define(symbolName, address));
+	/**
+	 * 문자열로 주어진 텍스트 내용을 반환한다.
+	 *
+	 * @param index 텍스트 순서
+	 * @return 내용. 정수로 주어진 경우 null
+	 */
+	String getTextValue(int index) {
+		return _textValues != null ? _textValues[index] : null;
 	}
 
-	public void addReferSymbol(String symbolName) {
-		_refers.add(symbolName);
+	/**
+	 * <code>addHexText()</code>로 추가한 텍스트의 최소 자리수를 반환한다.
+	 *
+	 * @param index 텍스트 순서
+	 * @return 최소 자리수. 다른 방법으로 추가한 경우 0
+	 */
+	int getTextDigits(int index) {
+		return _textSizes[index] >>> DIGITS_SHIFT;
 	}
 
-	public void addText(int address, int context, int size) {
-		String value = String.format("%06X", context);
+	int getTextSize(int index) {
+		return _textSizes[index] & SIZE_MASK;
+	}
 
-		if(size == 1){
-			value = value.substring(6);
-		}
-		else if(size == 2){
-			value = value.substring(4);
+	/**
+	 * 추가되는 대로 만든 T 레코드를 반환한다. 진행 중인 레코드도 마저 만든다.
+	 *
+	 * @return T 레코드 문자열. 텍스트를 목록에 모으는 경우 null
+	 */
+	CharSequence getTextRecords() {
+		if (_textWriter == null)
+			return null;
+		try {
+			_textWriter.finish();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
-		if(size == 3 && value.length() > 6)
-			value = value.substring(2);
+		return _textRecords;
+	}
 
-		_texts.add(new Text(address, value, size));
+	int getModificationCount() {
+		return _modCount;
 	}
-	public void addText(int address, String context, int size) {
-		_texts.add(new Text(address, context, size));
+
+	int getModificationAddress(int index) {
+		return _modAddresses[index];
 	}
 
-	public void addModification(String symbolNameWithSign, int address, int sizeHalfByte) {
-		_mods.add(new Modification(address - 3, sizeHalfByte, symbolNameWithSign));
+	int getModificationSize(int index) {
+		return _modSizes[index];
 	}
 
-	public void setInitialPC(int address) {
-		_initialPC = address;
+	char getModificationSign(int index) {
+		return _modSigns[index];
+	}
+
+	String getModificationName(int index) {
+		return _modNames[index];
 	}
 
 	class Define {
@@ -165,28 +243,42 @@ public class ObjectCode {
 		int address;
 	}
 
-	class Text {
-		Text(int address, String value, int size) {
-			this.address = address;
-			this.value = value;
-			this.size = size;
+	/**
+	 * 텍스트를 항목별 배열에 기록한다. 텍스트마다 객체를 만들지 않는다.
+	 */
+	private void addText(int address, int code, int digits, String value, int size) {
+		if (_textWriter != null) {
+			_textCount++;
+			encodeText(address, code, digits, value, size);
+			return;
 		}
 
-		int address;
-		String value;
-		int size;
+		int index = _textCount;
+		if (index == _textAddresses.length) {
+			_textAddresses = Arrays.copyOf(_textAddresses, index * 2);
+			_textCodes = Arrays.copyOf(_textCodes, index * 2);
+			_textSizes = Arrays.copyOf(_textSizes, index * 2);
+			if (_textValues != null)
+				_textValues = Arrays.copyOf(_textValues, index * 2);
+		}
+		_textAddresses[index] = address;
+		_textCodes[index] = code;
+		_textSizes[index] = size | digits << DIGITS_SHIFT;
+		if (value != null) {
+			// 문자열 텍스트는 드물므로 처음 들어올 때 배열을 만든다
+			if (_textValues == null)
+				_textValues = new String[_textAddresses.length];
+			_textValues[index] = value;
+		}
+		_textCount++;
 	}
 
-	class Modification {
-		Modification(int address, int sizeHalfByte, String symbolNameWithSign) {
-			this.address = address;
-			this.sizeHalfByte = sizeHalfByte;
-			this.symbolNameWithSign = symbolNameWithSign;
+	private void encodeText(int address, int code, int digits, String value, int size) {
+		try {
+			_textWriter.add(address, code, digits, value, size);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
-
-		int address;
-		int sizeHalfByte;
-		String symbolNameWithSign;
 	}
 
 	private Optional<String> _sectionName;
@@ -196,6 +288,28 @@ public class ObjectCode {
 
 	private ArrayList<Define> _defines;
 	private ArrayList<String> _refers;
-	private ArrayList<Text> _texts;
-	private ArrayList<Modification> _mods;
+	/** 텍스트 주소. 텍스트는 항목별 배열에 추가한 순서대로 기록한다 */
+	private int[] _textAddresses;
+	/** 정수로 주어진 텍스트 내용 */
+	private int[] _textCodes;
+	/** 텍스트 크기. <code>DIGITS_SHIFT</code> 위의 비트는 <code>addHexText()</code>의 최소 자리수 */
+	private int[] _textSizes;
+	/** 문자열로 주어진 텍스트 내용. 문자열 텍스트가 없으면 배열도 만들지 않는다 */
+	private String[] _textValues;
+	private int _textCount;
+	private int[] _modAddresses;
+	/** 수정할 크기 (half byte) */
+	private int[] _modSizes;
+	private char[] _modSigns;
+	private String[] _modNames;
+	private int _modCount;
+
+	/** 텍스트를 추가되는 대로 T 레코드로 만드는 경우의 레코드 문자열. 그 외에는 null */
+	private StringBuilder _textRecords;
+	private TextRecordWriter _textWriter;
+
+	/** 텍스트, modification record 배열의 처음 크기 */
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int DIGITS_SHIFT = 16;
+	private static final int SIZE_MASK = (1 << DIGITS_SHIFT) - 1;
 }
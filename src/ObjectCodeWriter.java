@@ -0,0 +1,111 @@
+import java.io.IOException;
+import java.util.ArrayList;
+
+import numeric.Hex;
+import trace.Tracer;
+
+public class ObjectCodeWriter {
+	/**
+	 * 오브젝트 코드 레코드를 출력 대상에 바로 쓰는 객체를 초기화한다. 레코드를 문자열로 만들어 합치지 않으므로, 파일에 쓰는 경우
+	 * 사용하는 메모리는 출력 버퍼 크기로 제한된다.
+	 *
+	 * @param out 출력 대상 (ex. <code>BufferedWriter</code>, <code>StringBuilder</code>)
+	 */
+	public ObjectCodeWriter(Appendable out) {
+		_out = out;
+	}
+
+	/**
+	 * control section 하나의 H/D/R/T/M/E 레코드를 출력한다. 마지막 E 레코드 뒤에는 줄바꿈을 붙이지 않는다.
+	 *
+	 * @param objCode 출력할 오브젝트 코드
+	 * @throws IOException      출력 실패.
+	 * @throws RuntimeException section 명칭, 시작 주소 혹은 길이가 정해지지 않음.
+	 */
+	public void write(ObjectCode objCode) throws IOException, RuntimeException {
+		if (objCode.getSectionName().isEmpty() || objCode.getStartAddress().isEmpty()
+				|| objCode.getProgramLength().isEmpty())
+			throw new RuntimeException("illegal operation");
+
+		if (Tracer.OBJECTCODE.info)
+			Tracer.OBJECTCODE.logf("%s\ttexts:%d, modifications:%d", objCode.getSectionName().get(),
+					objCode.getTextCount(), objCode.getModificationCount());
+
+		writeHeader(objCode.getSectionName().get(), objCode.getStartAddress().get(),
+				objCode.getProgramLength().get());
+		writeDefines(objCode.getDefines());
+		writeRefers(objCode.getRefers());
+		writeTexts(objCode);
+		writeModifications(objCode);
+		writeEnd(objCode.getInitialPC());
+	}
+
+	private void writeHeader(String sectionName, int startAddress, int programLength) throws IOException {
+		_out.append('H');
+		Hex.appendPadded(_out, sectionName, 6);
+		Hex.append(_out, startAddress, 6);
+		Hex.append(_out, programLength, 6);
+		_out.append('\n');
+	}
+
+	private void writeDefines(ArrayList<ObjectCode.Define> defines) throws IOException {
+		if (defines.isEmpty())
+			return;
+
+		_out.append('D');
+		for (ObjectCode.Define define : defines) {
+			_out.append(define.symbolName);
+			Hex.append(_out, define.address, 6);
+		}
+		_out.append('\n');
+	}
+
+	private void writeRefers(ArrayList<String> refers) throws IOException {
+		if (refers.isEmpty())
+			return;
+
+		_out.append('R');
+		for (String refer : refers)
+			Hex.appendPadded(_out, refer, 6);
+		_out.append('\n');
+	}
+
+	/**
+	 * 텍스트 목록을 T 레코드로 묶어서 출력한다. 이미 T 레코드로 만들어 둔 오브젝트 코드는 그대로 출력한다.
+	 *
+	 * @param objCode 오브젝트 코드
+	 * @throws IOException 출력 실패.
+	 */
+	private void writeTexts(ObjectCode objCode) throws IOException {
+		CharSequence records = objCode.getTextRecords();
+		if (records != null) {
+			_out.append(records);
+			return;
+		}
+
+		TextRecordWriter writer = new TextRecordWriter(_out);
+		for (int i = 0; i < objCode.getTextCount(); i++)
+			writer.add(objCode.getTextAddress(i), objCode.getTextCode(i), objCode.getTextDigits(i),
+					objCode.getTextValue(i), objCode.getTextSize(i));
+		writer.finish();
+	}
+
+	private void writeModifications(ObjectCode objCode) throws IOException {
+		for (int i = 0; i < objCode.getModificationCount(); i++) {
+			_out.append('M');
+			Hex.append(_out, objCode.getModificationAddress(i), 6);
+			Hex.append(_out, objCode.getModificationSize(i), 2);
+			_out.append(objCode.getModificationSign(i));
+			_out.append(objCode.getModificationName(i));
+			_out.append('\n');
+		}
+	}
+
+	private void writeEnd(int initialPC) throws IOException {
+		_out.append('E');
+		if (initialPC != -1)
+			Hex.append(_out, initialPC, 6);
+	}
+
+	private final Appendable _out;
+}
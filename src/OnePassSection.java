@@ -0,0 +1,697 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+
+import directive.Directive;
+import instruction.Instruction;
+import instruction.InstructionTable;
+import keyword.Keyword;
+import keyword.KeywordTable;
+import literal.Literal;
+import literal.LiteralContent;
+import literal.LiteralPool;
+import literal.LiteralTable;
+import numeric.Expression;
+import numeric.Numeric;
+import source.SourceFile;
+import source.SourceSection;
+import symbol.Symbol;
+import symbol.SymbolTable;
+import token.InstructionEncoder;
+import token.StringToken;
+import token.TokenStore;
+import token.operand.Operand;
+import trace.Tracer;
+
+/**
+ * control section 하나를 라인 순서대로 한 번만 훑어서 어셈블한다. 라인을 읽는 즉시 LOCCTR과 심볼 테이블을 갱신하고
+ * 오브젝트 코드를 만들며, 토큰 테이블은 만들지 않는다.
+ *
+ * <p>
+ * 아직 정의되지 않은 심볼을 참조하는 명령어와 WORD는 텍스트 자리만 잡아 두고, 심볼 테이블에 주소가 정해지지 않은 심볼로
+ * 추가한 뒤 그 심볼에 참조 위치를 연결 목록(fixup chain)으로 매단다. 심볼 테이블이 그 심볼에 주소를 할당하면 연결 목록을
+ * 따라가며 코드를 채운다. 리터럴 operand는 리터럴을 배치하는 다음 LTORG 혹은 END에서 채운다. 코드는 pass2와 같은
+ * <code>InstructionEncoder</code>로 계산하므로, 두 번에 나누어 어셈블한 결과와 같다.
+ *
+ * <p>
+ * 텍스트는 앞에 채워지지 않은 텍스트가 없어지는 대로 오브젝트 코드에 넘기며, 오브젝트 코드는 이를 바로 T 레코드 문자열로
+ * 만든다. 라인마다 토큰이나 텍스트 항목을 남기지는 않지만, 만든 T 레코드와 modification record는 출력할 때까지 메모리에
+ * 남으므로 사용하는 메모리는 두 번에 나누어 어셈블할 때와 마찬가지로 프로그램 크기에 비례한다.
+ *
+ * <p>
+ * 두 번에 나누어 어셈블할 때 pass2에서 나는 오류는 pass1 오류보다 나중에 보고된다. 같은 오류가 보고되도록, 코드를 계산하다가
+ * 난 오류는 기록만 해 두고 모든 라인을 처리한 뒤에 던진다.
+ */
+final class OnePassSection {
+	/**
+	 * control section 하나를 어셈블한다.
+	 *
+	 * @param instTable 기계어 목록 테이블
+	 * @param section   하나의 control section에 속하는 소스 코드. 마지막 줄은 END directive를 강제로
+	 *                  추가하였음.
+	 * @param literals  리터럴 내용 저장소
+	 * @throws RuntimeException 소스 코드 컴파일 오류.
+	 */
+	OnePassSection(InstructionTable instTable, SourceSection section, LiteralContent literals)
+			throws RuntimeException {
+		_keywords = instTable.getKeywordTable();
+		_symbolTable = new SymbolTable();
+		_literalTable = new LiteralTable(literals);
+		_objectCode = new ObjectCode(true);
+		_row = new TokenStore(1, instTable.getEncodingTemplates());
+		_encoder = new InstructionEncoder(_row, _symbolTable, instTable.getEncodingTemplates());
+		_symbolTable.setDefineListener(symbol -> {
+			int fixups = symbol.getFixups();
+			symbol.setFixups(Symbol.NO_FIXUP);
+			release(fixups);
+		});
+
+		SourceFile source = section.getSource();
+		StringToken token = new StringToken();
+		for (int x = 0; x < section.size(); x++) {
+			int line = section.lineAt(x);
+			try {
+				token.scan(source, line);
+			} catch (RuntimeException e) {
+				throw new RuntimeException(e.getMessage() + " (line " + (line + 1) + ")");
+			}
+			assembleLine(token);
+			flush();
+		}
+		finish();
+
+		if (Tracer.PASS1.info)
+			Tracer.PASS1.logf("%s\tone-pass lines:%d, fixups:%d, max pending texts:%d",
+					_symbolTable.getRepSymbol().get().getName(), section.size(), _fixupCount, _maxPending);
+	}
+
+	SymbolTable getSymbolTable() {
+		return _symbolTable;
+	}
+
+	LiteralTable getLiteralTable() {
+		return _literalTable;
+	}
+
+	ObjectCode getObjectCode() {
+		return _objectCode;
+	}
+
+	private void assembleLine(StringToken token) throws RuntimeException {
+		// 만약 operator가 없는데 operand나 label이 있으면 에러처리
+		if (token.getOperator().isEmpty()) {
+			if (token.getLabel().isPresent() || token.getOperandCount() != 0)
+				throw new RuntimeException("missing operator\n\n" + token.toString());
+			return;
+		}
+
+		Optional<Keyword> keyword = _keywords.search(token.getOperatorKey());
+		Optional<Instruction> optInst = keyword.flatMap(Keyword::getInstruction);
+		if (optInst.isPresent())
+			assembleInstruction(optInst.get(), token);
+		else
+			assembleDirective(keyword.flatMap(Keyword::getDirective), token);
+	}
+
+	/**
+	 * 명령어 라인을 처리한다. operand가 아직 정해지지 않은 심볼이나 리터럴을 참조하면 텍스트 자리만 잡아 둔다.
+	 *
+	 * @param inst  기계어 정보
+	 * @param token 문자열로 파싱된 토큰
+	 * @throws RuntimeException 잘못된 명령어 사용 방식.
+	 */
+	private void assembleInstruction(Instruction inst, StringToken token) throws RuntimeException {
+		Object operand = null;
+		boolean isLiteral = false;
+		int size;
+
+		switch (inst.getOperandType()) {
+			case NO_OPERAND:
+				break;
+
+			case MEMORY:
+				switch (Operand.MemoryType.distinguish(token.getOperand(0))) {
+					case NUMERIC:
+						break;
+
+					case LITERAL:
+						isLiteral = true;
+						break;
+
+					default:
+						throw new UnsupportedOperationException("not fully support Operand.MemoryType");
+				}
+				break;
+
+			case REG:
+				operand = new Operand.Register[] { ControlSection.searchRegister(_keywords, token, 0) };
+				break;
+
+			case REG1_REG2:
+				operand = new Operand.Register[] { ControlSection.searchRegister(_keywords, token, 0),
+						ControlSection.searchRegister(_keywords, token, 1) };
+				break;
+
+			default:
+				throw new UnsupportedOperationException("not fully support InstructionInfo.OperandType");
+		}
+
+		switch (inst.getFormat()) {
+			case TWO:
+				size = 2;
+				break;
+
+			case THREE_OR_FOUR:
+				size = token.isE() ? 4 : 3;
+				break;
+
+			default:
+				throw new UnsupportedOperationException("not fully support InstructionInfo.Format");
+		}
+
+		int start = _locctr;
+		_locctr += size;
+		if (token.getLabel().isPresent())
+			_symbolTable.put(token.getLabel().get(), start);
+
+		int nixbpe = (token.isN() ? TokenStore.N : 0) | (token.isI() ? TokenStore.I : 0)
+				| (token.isX() ? TokenStore.X : 0) | (token.isP() ? TokenStore.P : 0)
+				| (token.isE() ? TokenStore.E : 0);
+		String memoryName = null;
+		Expression expression = null;
+		if (inst.getOperandType() == Instruction.OperandType.MEMORY) {
+			String opd0 = token.getOperand(0);
+			if (isLiteral) {
+				operand = _literalTable.putLiteral(opd0);
+			} else if (ControlSection.isNotFormula(opd0)) {
+				Numeric numeric = new Numeric(opd0);
+				memoryName = numeric.getMemoryName();
+				operand = numeric;
+			} else {
+				// 수식은 모든 심볼이 정해진 뒤에 pass1과 같은 방식으로 계산한다
+				expression = _symbolTable.compile(opd0);
+				memoryName = expression.isLocctr() ? null : opd0;
+				operand = opd0;
+			}
+		}
+
+		int position = reserve(start, size, inst, nixbpe, operand);
+		int waiting = 0;
+		if (isLiteral) {
+			waiting = link(position, null);
+		} else if (expression != null) {
+			waiting = linkSymbols(position, expression);
+			// 심볼 하나이면 심볼 번호로 바꾸어 둔다. 주소는 심볼이 정의될 때 번호에 채워진다
+			if (expression.isSymbol()) {
+				_queueHandles[position] = _symbolTable.getHandle(expression.getSymbolName(0));
+				_queueOperands[position] = null;
+			}
+		}
+		hold(position, waiting);
+
+		// format 4의 modification record는 주소만 있으면 되므로 바로 남긴다
+		if ((nixbpe & TokenStore.E) != 0 && inst.getOperandType() == Instruction.OperandType.MEMORY && !isLiteral)
+			_objectCode.addModification('+', memoryName, _locctr, 5);
+	}
+
+	/**
+	 * 지시어 라인을 처리한다.
+	 *
+	 * @param optDirective 예약어 테이블에서 찾은 지시어
+	 * @param token        문자열로 파싱된 토큰
+	 * @throws RuntimeException 잘못된 지시어 사용 방식.
+	 */
+	private void assembleDirective(Optional<Directive> optDirective, StringToken token) throws RuntimeException {
+		if (optDirective.isEmpty())
+			throw new RuntimeException("illegal directive name (" + token.getOperator().get() + ")\n\n"
+					+ token.toString());
+
+		int start = _locctr;
+		Numeric numeric;
+
+		switch (optDirective.get()) {
+			case START:
+				_locctr = Integer.parseInt(token.getOperand(0));
+				_symbolTable.putRep(token.getLabel().get(), _locctr);
+				_objectCode.setSectionName(_symbolTable.getRepSymbol().get().getName());
+				_objectCode.setStartAddress(_locctr);
+				_isStartCsect = true;
+				break;
+
+			case CSECT:
+				_locctr = 0;
+				_symbolTable.putRep(token.getLabel().get(), _locctr);
+				_objectCode.setSectionName(_symbolTable.getRepSymbol().get().getName());
+				_objectCode.setStartAddress(0);
+				break;
+
+			case EXTDEF:
+				// 주소는 뒤에서 정해질 수 있으므로 END 뒤에 D 레코드에 추가한다
+				for (int i = 0; i < token.getOperandCount(); i++)
+					_defines.add(new Numeric(token.getOperand(i), _symbolTable, _locctr).getMemoryName());
+				break;
+
+			case EXTREF:
+				for (String s : token.getOperands()) {
+					_symbolTable.putRefer(s);
+					_objectCode.addReferSymbol(s);
+				}
+				break;
+
+			case BYTE:
+				_locctr += 1;
+				_symbolTable.put(token.getLabel().get(), start);
+				numeric = new Numeric(token.getOperand(0));
+				emit(_locctr, (byte) numeric.getInteger(), 0, 1);
+				break;
+
+			case WORD:
+				_locctr += 3;
+				_symbolTable.put(token.getLabel().get(), start);
+				assembleWord(token.getOperand(0));
+				break;
+
+			case RESB:
+			case RESW:
+				_locctr += optDirective.get() == Directive.RESB ? Integer.parseInt(token.getOperand(0)) : 3;
+				_symbolTable.put(token.getLabel().get(), start);
+				emit(0, 0, 0, 0);
+				break;
+
+			case LTORG:
+				assemblePool(false);
+				break;
+
+			case END:
+				assemblePool(true);
+				break;
+
+			case EQU:
+				_symbolTable.put(token.getLabel().get(), token.getOperand(0), _locctr);
+				break;
+
+			default:
+				throw new UnsupportedOperationException("not fully support Directive");
+		}
+	}
+
+	/**
+	 * WORD의 operand를 처리한다. 수식이면 모든 심볼이 정해진 뒤에 계산하고, 외부 심볼은 modification record로 남긴다.
+	 *
+	 * @param opd0 operand
+	 * @throws RuntimeException 잘못된 수식 포맷.
+	 */
+	private void assembleWord(String opd0) throws RuntimeException {
+		Numeric numeric = ControlSection.isNotFormula(opd0) ? new Numeric(opd0)
+				: new Numeric(opd0, _symbolTable, _locctr);
+		if (numeric.getMemoryName() == null || numeric.getExpression().isEmpty()) {
+			emit(_locctr, numeric.getInteger(), 0, 3);
+			return;
+		}
+
+		Expression expression = numeric.getExpression().get();
+		int position = reserve(_locctr, 3, null, 0, expression);
+		hold(position, linkSymbols(position, expression));
+
+		for (int i = 0; i < expression.getSymbolCount(); i++) {
+			String name = expression.getSymbolName(i);
+			Optional<Symbol> symbol = _symbolTable.search(name);
+			if (symbol.isEmpty() || !symbol.get().isReferSymbol())
+				continue;
+
+			int multiplier = expression.getMultiplier(i);
+			for (int j = 0; j < Math.abs(multiplier); j++)
+				_objectCode.addModification(multiplier > 0 ? '+' : '-', name, _locctr, 6);
+		}
+	}
+
+	/**
+	 * LTORG, END에서 아직 주소가 할당되지 않은 리터럴을 배치하고, 리터럴을 기다리던 코드를 채운다.
+	 *
+	 * @param isEnd END인지 여부
+	 */
+	private void assemblePool(boolean isEnd) {
+		LiteralPool pool = _literalTable.placePool(_locctr);
+		_locctr += pool.getSize();
+
+		int pending = _poolFixups;
+		_poolFixups = Symbol.NO_FIXUP;
+		release(pending);
+
+		// 리터럴마다 할당한 주소에 자기 크기만큼 놓는다
+		for (Literal literal : pool.getLiterals()) {
+			int size = literal.getSize();
+			if (literal.hasCode())
+				emit(literal.getAddress().get(), literal.getCode(), size * 2, size);
+			else
+				reserve(literal.getAddress().get(), size, null, 0, literal.getText());
+		}
+		if (!isEnd)
+			return;
+
+		Optional<Symbol> repSymbol = _symbolTable.getRepSymbol();
+		if (_isStartCsect && repSymbol.isPresent()) {
+			_objectCode.setInitialPC(repSymbol.get().getAddress().get().getInteger());
+			_isStartCsect = false;
+		} else {
+			_objectCode.setInitialPC(-1);
+		}
+		_objectCode.setProgramLength(_locctr);
+	}
+
+	/**
+	 * 모든 라인을 처리한 뒤 남은 작업을 마친다. 끝까지 정의되지 않은 심볼을 참조하는 코드는 pass2와 같은 방식으로 계산하여
+	 * 같은 오류를 낸다.
+	 *
+	 * @throws RuntimeException 코드를 계산하다가 난 오류.
+	 */
+	private void finish() throws RuntimeException {
+		if (_symbolTable.getRepSymbol().isEmpty())
+			throw new RuntimeException("invalid operation");
+
+		for (int i = _queueHead; i < _queueTail; i++) {
+			if (_queueWaiting[i] != 0)
+				resolve(i);
+		}
+		flush();
+
+		RuntimeException error = _error;
+		try {
+			for (String name : _defines) {
+				int handle = name == null ? SymbolTable.NO_HANDLE : _symbolTable.getHandle(name);
+				if (handle == SymbolTable.NO_HANDLE || !_symbolTable.hasHandleAddress(handle))
+					throw new RuntimeException("undefined symbol (" + name + ")");
+				_objectCode.addDefineSymbol(name, _symbolTable.getHandleAddress(handle));
+			}
+		} catch (RuntimeException e) {
+			// EXTDEF는 section 앞쪽에 있으므로 pass2에서도 먼저 보고된다
+			error = e;
+		}
+		if (error != null)
+			throw error;
+	}
+
+	/**
+	 * 이미 내용이 정해진 텍스트를 추가한다. <code>digits</code>가 0이 아니면 <code>ObjectCode.addHexText()</code>로
+	 * 넘긴다.
+	 */
+	private void emit(int address, int code, int digits, int size) {
+		int position = reserve(address, size, null, 0, null);
+		_queueCodes[position] = code;
+		_queueDigits[position] = digits;
+	}
+
+	/**
+	 * 텍스트 자리를 대기열 끝에 잡는다. 내용은 <code>hold()</code> 혹은 <code>resolve()</code>가 채운다.
+	 *
+	 * @param address 텍스트 주소
+	 * @param size    텍스트 크기
+	 * @param inst    명령어 텍스트의 기계어 정보. WORD 혹은 내용이 정해진 텍스트이면 null
+	 * @param nixbpe  명령어 텍스트의 nixbpe 비트
+	 * @param operand 코드 계산에 필요한 operand. 리터럴, 수치값, 수식 문자열, 레지스터 배열 혹은 WORD의 수식.
+	 *                <code>inst</code>가 null이면 WORD의 수식 혹은 그대로 출력할 16진수 문자열
+	 * @return 대기열 내의 위치
+	 */
+	private int reserve(int address, int size, Instruction inst, int nixbpe, Object operand) {
+		if (_queueTail == _queueAddresses.length)
+			growQueue();
+
+		int position = _queueTail++;
+		_queueAddresses[position] = address;
+		_queueSizes[position] = size;
+		_queueCodes[position] = nixbpe;
+		_queueDigits[position] = 0;
+		_queueHandles[position] = SymbolTable.NO_HANDLE;
+		_queueWaiting[position] = 0;
+		_queueInstructions[position] = inst;
+		_queueOperands[position] = operand;
+		_maxPending = Math.max(_maxPending, _queueTail - _queueHead);
+		return position;
+	}
+
+	/**
+	 * 잡아 둔 텍스트가 기다리는 참조 수를 기록한다. 기다릴 것이 없으면 바로 코드를 계산한다.
+	 */
+	private void hold(int position, int waiting) {
+		if (waiting == 0) {
+			resolve(position);
+			return;
+		}
+		_queueWaiting[position] = waiting;
+		_fixupCount++;
+	}
+
+	/**
+	 * 수식의 심볼 중 아직 정의되지 않은 심볼마다 참조 위치를 연결한다. 심볼 테이블에 없는 심볼은 주소가 정해지지 않은 심볼로
+	 * 추가한다.
+	 *
+	 * @return 연결한 심볼 수
+	 */
+	private int linkSymbols(int position, Expression expression) {
+		int waiting = 0;
+		for (int i = 0; i < expression.getSymbolCount(); i++) {
+			String name = expression.getSymbolName(i);
+			Optional<Symbol> optSymbol = _symbolTable.search(name);
+			Symbol symbol = optSymbol.isPresent() ? optSymbol.get() : _symbolTable.put(name);
+			if (!symbol.isUndefined())
+				continue;
+
+			waiting += link(position, symbol);
+		}
+		return waiting;
+	}
+
+	/**
+	 * 심볼 혹은 다음 리터럴 pool의 연결 목록 맨 앞에 참조 위치를 추가한다.
+	 *
+	 * @param position 대기열 내의 위치
+	 * @param symbol   심볼. 리터럴 pool이면 null
+	 * @return 1
+	 */
+	private int link(int position, Symbol symbol) {
+		int link;
+		if (_freeLink != Symbol.NO_FIXUP) {
+			link = _freeLink;
+			_freeLink = _linkNext[link];
+		} else {
+			if (_linkCount == _linkSequences.length) {
+				_linkSequences = Arrays.copyOf(_linkSequences, _linkCount * 2);
+				_linkNext = Arrays.copyOf(_linkNext, _linkCount * 2);
+			}
+			link = _linkCount++;
+		}
+
+		// 대기열 위치는 앞쪽을 비우면 바뀌므로 바뀌지 않는 일련번호로 기록한다
+		_linkSequences[link] = _queueBase + position;
+		if (symbol != null) {
+			_linkNext[link] = symbol.getFixups();
+			symbol.setFixups(link);
+		} else {
+			_linkNext[link] = _poolFixups;
+			_poolFixups = link;
+		}
+		return 1;
+	}
+
+	/**
+	 * 연결 목록의 참조 위치마다 기다리는 참조 수를 줄이고, 더 기다릴 것이 없는 텍스트의 코드를 계산한다. 다 쓴 연결은 다시
+	 * 사용한다.
+	 *
+	 * @param link 연결 목록의 첫 번호
+	 */
+	private void release(int link) {
+		while (link != Symbol.NO_FIXUP) {
+			int next = _linkNext[link];
+			int position = _linkSequences[link] - _queueBase;
+			if (_queueWaiting[position] > 0 && --_queueWaiting[position] == 0)
+				resolve(position);
+
+			_linkNext[link] = _freeLink;
+			_freeLink = link;
+			link = next;
+		}
+	}
+
+	/**
+	 * 잡아 둔 텍스트의 코드를 계산한다. 명령어는 pass2와 같이 <code>InstructionEncoder</code>로, WORD는 수식을 모든
+	 * 심볼에 대해 계산한다. 오류는 기록만 한다.
+	 *
+	 * @param position 대기열 내의 위치
+	 */
+	private void resolve(int position) {
+		int code = 0;
+		try {
+			Instruction inst = _queueInstructions[position];
+			int address = _queueAddresses[position];
+			if (inst != null)
+				code = encode(inst, _queueCodes[position], address + _queueSizes[position], _queueSizes[position],
+						_queueOperands[position], _queueHandles[position]);
+			else if (_queueOperands[position] != null)
+				code = (int) ((Expression) _queueOperands[position]).evaluate(_symbolTable, address);
+		} catch (RuntimeException e) {
+			if (_error == null)
+				_error = e;
+		}
+
+		_queueCodes[position] = code;
+		_queueWaiting[position] = 0;
+		_queueInstructions[position] = null;
+		_queueOperands[position] = null;
+	}
+
+	/**
+	 * 명령어 하나를 토큰 테이블의 한 행으로 만들어 pass2와 같은 방식으로 코드를 계산한다.
+	 *
+	 * @param inst    기계어 정보
+	 * @param nixbpe  nixbpe 비트
+	 * @param address 명령어 처리 후의 location counter 값
+	 * @param size    명령어 크기
+	 * @param operand <code>reserve()</code>에 넘긴 operand
+	 * @param handle  operand가 심볼 하나이면 그 심볼 번호. 그 외에는 <code>SymbolTable.NO_HANDLE</code>
+	 * @return object code
+	 * @throws RuntimeException 잘못된 심볼 객체 변환 시도.
+	 */
+	private int encode(Instruction inst, int nixbpe, int address, int size, Object operand, int handle)
+			throws RuntimeException {
+		TokenStore row = _row;
+		row.clear();
+		row.beginInstruction(inst, nixbpe);
+		if (handle != SymbolTable.NO_HANDLE) {
+			// operand 문자열을 다시 해석하지 않고 번호로 주소를 읽는다
+			row.end(address, size);
+			row.bind(0, InstructionEncoder.OK, TokenStore.HANDLE_SYMBOL, handle);
+			return encode();
+		}
+		if (operand instanceof Literal)
+			row.addLiteral((Literal) operand);
+		else if (operand instanceof Numeric)
+			row.addNumeric((Numeric) operand);
+		else if (operand instanceof String)
+			row.addNumeric(new Numeric((String) operand, _symbolTable, address - size));
+		else if (operand instanceof Operand.Register[])
+			for (Operand.Register register : (Operand.Register[]) operand)
+				row.addRegister(register);
+		row.end(address, size);
+		return encode();
+	}
+
+	/**
+	 * <code>_row</code>에 만든 행의 코드를 계산한다.
+	 */
+	private int encode() throws RuntimeException {
+		int result = _encoder.encode(0, _code, 0);
+		if (result != InstructionEncoder.OK)
+			throw new RuntimeException(_encoder.getMessage(0, result));
+		return _code[0];
+	}
+
+	/**
+	 * 대기열 앞쪽부터 코드가 정해진 텍스트를 오브젝트 코드에 넘긴다. 대기열이 비면 처음부터 다시 사용한다.
+	 */
+	private void flush() {
+		while (_queueHead < _queueTail && _queueWaiting[_queueHead] == 0) {
+			int i = _queueHead++;
+			if (_queueDigits[i] != 0)
+				_objectCode.addHexText(_queueAddresses[i], _queueCodes[i], _queueDigits[i], _queueSizes[i]);
+			else if (_queueOperands[i] instanceof String) {
+				_objectCode.addText(_queueAddresses[i], (String) _queueOperands[i], _queueSizes[i]);
+				_queueOperands[i] = null;
+			} else
+				_objectCode.addText(_queueAddresses[i], _queueCodes[i], _queueSizes[i]);
+		}
+
+		if (_queueHead == _queueTail) {
+			_queueBase += _queueTail;
+			_queueHead = 0;
+			_queueTail = 0;
+		}
+	}
+
+	/**
+	 * 대기열이 가득 찼을 때, 앞쪽이 절반 이상 비어 있으면 당기고 그렇지 않으면 크기를 두 배로 늘린다.
+	 */
+	private void growQueue() {
+		int length = _queueAddresses.length;
+		if (_queueHead >= length / 2) {
+			int count = _queueTail - _queueHead;
+			System.arraycopy(_queueAddresses, _queueHead, _queueAddresses, 0, count);
+			System.arraycopy(_queueCodes, _queueHead, _queueCodes, 0, count);
+			System.arraycopy(_queueSizes, _queueHead, _queueSizes, 0, count);
+			System.arraycopy(_queueWaiting, _queueHead, _queueWaiting, 0, count);
+			System.arraycopy(_queueDigits, _queueHead, _queueDigits, 0, count);
+			System.arraycopy(_queueHandles, _queueHead, _queueHandles, 0, count);
+			System.arraycopy(_queueInstructions, _queueHead, _queueInstructions, 0, count);
+			System.arraycopy(_queueOperands, _queueHead, _queueOperands, 0, count);
+			Arrays.fill(_queueInstructions, count, length, null);
+			Arrays.fill(_queueOperands, count, length, null);
+			_queueBase += _queueHead;
+			_queueTail = count;
+			_queueHead = 0;
+			return;
+		}
+
+		_queueAddresses = Arrays.copyOf(_queueAddresses, length * 2);
+		_queueCodes = Arrays.copyOf(_queueCodes, length * 2);
+		_queueSizes = Arrays.copyOf(_queueSizes, length * 2);
+		_queueWaiting = Arrays.copyOf(_queueWaiting, length * 2);
+		_queueDigits = Arrays.copyOf(_queueDigits, length * 2);
+		_queueHandles = Arrays.copyOf(_queueHandles, length * 2);
+		_queueInstructions = Arrays.copyOf(_queueInstructions, length * 2);
+		_queueOperands = Arrays.copyOf(_queueOperands, length * 2);
+	}
+
+	/** 대기열과 연결 목록의 처음 크기 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final KeywordTable _keywords;
+	private final SymbolTable _symbolTable;
+	private final LiteralTable _literalTable;
+	private final ObjectCode _objectCode;
+	/** 코드 계산에 쓰는 한 행짜리 토큰 테이블 */
+	private final TokenStore _row;
+	private final InstructionEncoder _encoder;
+	/** 인코더가 코드를 쓸 배열 */
+	private final int[] _code = new int[1];
+
+	private int _locctr;
+	/** START로 시작한 section인지 여부 */
+	private boolean _isStartCsect;
+	/** EXTDEF로 선언한 심볼 명칭. 주소는 END 뒤에 찾는다 */
+	private final ArrayList<String> _defines = new ArrayList<String>();
+	/** 코드를 계산하다가 난 첫 오류 */
+	private RuntimeException _error;
+
+	/*
+	 * 오브젝트 코드에 넘기기를 기다리는 텍스트 대기열. [_queueHead, _queueTail) 구간을 사용하며, 배열 위치 0의
+	 * 일련번호가 _queueBase이다. 코드가 정해지지 않은 텍스트는 _queueCodes에 nixbpe 비트를 담아 둔다.
+	 */
+	private int[] _queueAddresses = new int[INITIAL_CAPACITY];
+	private int[] _queueCodes = new int[INITIAL_CAPACITY];
+	private int[] _queueSizes = new int[INITIAL_CAPACITY];
+	/** 텍스트가 기다리는 참조 수. 0이면 내용이 정해짐 */
+	private int[] _queueWaiting = new int[INITIAL_CAPACITY];
+	/** 리터럴 pool 텍스트의 16진수 최소 자리수. 그 외의 텍스트는 0 */
+	private int[] _queueDigits = new int[INITIAL_CAPACITY];
+	/** 명령어 operand가 심볼 하나이면 그 심볼 번호. 그 외에는 <code>SymbolTable.NO_HANDLE</code> */
+	private int[] _queueHandles = new int[INITIAL_CAPACITY];
+	private Instruction[] _queueInstructions = new Instruction[INITIAL_CAPACITY];
+	private Object[] _queueOperands = new Object[INITIAL_CAPACITY];
+	private int _queueHead;
+	private int _queueTail;
+	private int _queueBase;
+
+	/*
+	 * 참조 위치 연결 목록. 심볼마다 Symbol.getFixups()에서 시작하고, 리터럴을 기다리는 참조는 _poolFixups에서 시작한다.
+	 * 다 쓴 연결은 _freeLink 목록에 모아 다시 사용한다.
+	 */
+	private int[] _linkSequences = new int[INITIAL_CAPACITY];
+	private int[] _linkNext = new int[INITIAL_CAPACITY];
+	private int _linkCount;
+	private int _freeLink = Symbol.NO_FIXUP;
+	private int _poolFixups = Symbol.NO_FIXUP;
+
+	/** 참조를 기다렸던 텍스트 수 */
+	private int _fixupCount;
+	/** 대기열에 동시에 있었던 최대 텍스트 수 */
+	private int _maxPending;
+}
@@ -0,0 +1,96 @@
+import java.io.IOException;
+
+import numeric.Hex;
+
+/**
+ * 텍스트를 하나씩 받아 T 레코드로 묶어서 출력한다. 한 레코드는 30바이트를 넘지 않으며, 주소가 0이고 크기가 0인 텍스트(RESW,
+ * RESB)를 만나면 레코드를 끊는다.
+ *
+ * <p>
+ * 레코드 길이는 내용보다 앞에 출력해야 하므로, 진행 중인 레코드 하나의 내용만 모아 두었다가 레코드가 끝날 때 출력한다.
+ * 텍스트 목록 전체를 가지고 있을 필요가 없으므로, 텍스트가 만들어지는 대로 넘겨줄 수 있다.
+ */
+final class TextRecordWriter {
+	/**
+	 * @param out 출력 대상
+	 */
+	TextRecordWriter(Appendable out) {
+		_out = out;
+	}
+
+	/**
+	 * 텍스트 하나를 추가한다. 진행 중인 레코드에 들어가지 않으면 그 레코드를 출력하고 새 레코드를 시작한다.
+	 *
+	 * @param address 텍스트 주소. 레코드의 첫 텍스트이면 레코드 시작 주소가 된다.
+	 * @param code    정수로 주어진 내용
+	 * @param digits  0이 아니면 정수 내용을 크기에 맞춰 자르지 않고 이 자리수 이상의 16진수로 출력한다
+	 * @param value   문자열로 주어진 내용. 정수로 주어진 경우 null
+	 * @param size    크기
+	 * @throws IOException 출력 실패.
+	 */
+	void add(int address, int code, int digits, String value, int size) throws IOException {
+		if (size == 0 && address == 0) {
+			finish();
+			return;
+		}
+
+		if (_length != 0 && _length + size > MAX_RECORD_LENGTH)
+			finish();
+		if (_length == 0)
+			_start = address;
+
+		if (value != null)
+			_body.append(value);
+		else if (digits != 0)
+			Hex.append(_body, code, digits);
+		else
+			appendCode(code, size);
+		_length += size;
+	}
+
+	/**
+	 * 진행 중인 레코드를 출력한다. 진행 중인 레코드가 없으면 아무것도 하지 않는다.
+	 *
+	 * @throws IOException 출력 실패.
+	 */
+	void finish() throws IOException {
+		if (_length == 0)
+			return;
+
+		_out.append('T');
+		Hex.append(_out, _start, 6);
+		Hex.append(_out, _length, 2);
+		_out.append(_body);
+		_out.append('\n');
+
+		_body.setLength(0);
+		_length = 0;
+	}
+
+	/**
+	 * 정수로 주어진 내용을 6자리 16진수를 기준으로 크기에 맞게 앞부분을 잘라 덧붙인다.
+	 */
+	private void appendCode(int code, int size) throws IOException {
+		int from;
+		if (size == 1)
+			from = 6;
+		else if (size == 2)
+			from = 4;
+		else if (size == 3 && Hex.length(code, 6) > 6)
+			from = 2;
+		else
+			from = 0;
+		Hex.appendFrom(_body, code, from, 6);
+	}
+
+	/** T 레코드 하나의 최대 크기 (바이트) */
+	private static final int MAX_RECORD_LENGTH = 30;
+
+	private final Appendable _out;
+	/** 진행 중인 레코드의 내용 */
+	private final StringBuilder _body = new StringBuilder(MAX_RECORD_LENGTH * 2);
+	/** 진행 중인 레코드의 시작 주소 */
+	private int _start;
+	/** 진행 중인 레코드의 크기. 0이면 진행 중인 레코드가 없음 */
+	private int _length;
+}
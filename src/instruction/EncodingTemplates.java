@@ -0,0 +1,131 @@
+package instruction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 명령어와 nixbpe 비트 조합별 object code 틀 테이블. 기계어 목록 테이블마다 한 번 만들며, 이후에는 변경되지 않으므로 여러
+ * 스레드에서 공유할 수 있다.
+ *
+ * <p>
+ * 틀은 opcode와 nixbpe를 미리 합쳐 둔 코드와, 여기에 operand를 어떻게 합칠지를 담는다. 명령어 형식과 주소 지정 방식에
+ * 따른 분기를 틀을 만들 때 한 번만 하므로, 코드를 계산할 때는 틀을 하나 읽어 operand 값이나 변위를 합치기만 한다.
+ *
+ * <ul>
+ * <li>format 4: <code>nixbpe &lt;&lt; 20 | opcode &lt;&lt; 24</code>. 주소는 modification record로 남기므로
+ * 합치지 않는다.
+ * <li>immediate: <code>nixbpe &lt;&lt; 12 | opcode &lt;&lt; 16</code>에 operand 값을 합친다.
+ * <li>그 외 format 3: <code>nixbpe &lt;&lt; 12 | opcode &lt;&lt; 16</code>에 pc 기준 변위를 합친다.
+ * <li>format 2: <code>opcode &lt;&lt; 8</code>에 레지스터 번호를 합친다. 레지스터 operand가 없으면 0이다.
+ * </ul>
+ */
+public final class EncodingTemplates {
+	/**
+	 * 명령어 목록으로 틀 테이블을 만든다. 명령어 번호는 목록 순서와 같아야 한다.
+	 *
+	 * @param instructions 기계어 목록 테이블의 명령어 목록
+	 * @throws RuntimeException 명령어 번호가 목록 순서와 다름.
+	 */
+	EncodingTemplates(List<Instruction> instructions) throws RuntimeException {
+		_instructions = new ArrayList<Instruction>(instructions);
+		_templates = new long[_instructions.size() << NIXBPE_BITS];
+		for (int id = 0; id < _instructions.size(); id++) {
+			Instruction inst = _instructions.get(id);
+			if (inst.getId() != id)
+				throw new RuntimeException("wrong instruction id (" + inst.getName() + ")");
+			for (int nixbpe = 0; nixbpe <= NIXBPE_MASK; nixbpe++)
+				_templates[id << NIXBPE_BITS | nixbpe] = templateOf(inst, nixbpe);
+		}
+	}
+
+	/**
+	 * object code를 계산한다.
+	 *
+	 * @param id      명령어 번호. <code>Instruction.getId()</code>
+	 * @param nixbpe  nixbpe 비트
+	 * @param target  operand 값. format 3은 대상 주소, immediate는 operand 값, format 2는 합친 레지스터 번호.
+	 * @param address 명령어 다음 주소. pc 기준 변위 계산에 사용한다.
+	 * @return object code
+	 */
+	public int encode(int id, int nixbpe, int target, int address) {
+		long template = _templates[id << NIXBPE_BITS | (nixbpe & NIXBPE_MASK)];
+		// 분기 대신 틀의 비트로 만든 mask를 쓴다. 명령어와 주소 지정 방식이 섞여 나오면 분기 예측이 자주 틀리기 때문이다
+		int useTarget = -(int) (template >>> USE_TARGET_SHIFT & 1);
+		int relative = -(int) (template >>> RELATIVE_SHIFT & 1);
+		// 대상 주소가 다음 주소보다 앞이면 12비트 변위로 되돌린다. 넘침 없이 비교하도록 long으로 뺀다
+		long difference = (long) target - (address & relative);
+		int value = (int) difference + ((int) (difference >> 63) & 0x1000 & relative);
+		return (int) template | (value & useTarget);
+	}
+
+	/**
+	 * 번호에 해당하는 명령어를 반환한다.
+	 *
+	 * @param id 명령어 번호
+	 * @return 명령어
+	 */
+	public Instruction getInstruction(int id) {
+		return _instructions.get(id);
+	}
+
+	/**
+	 * 틀 테이블에 담긴 명령어 수를 반환한다.
+	 *
+	 * @return 명령어 수
+	 */
+	public int size() {
+		return _instructions.size();
+	}
+
+	/**
+	 * 명령어 하나와 nixbpe 조합의 틀을 만든다.
+	 *
+	 * @param inst   명령어
+	 * @param nixbpe nixbpe 비트
+	 * @return 틀
+	 */
+	private static long templateOf(Instruction inst, int nixbpe) {
+		int opcode = inst.getOpcode();
+		if (inst.getFormat() == Instruction.Format.THREE_OR_FOUR) {
+			if ((nixbpe & E) != 0)
+				return template(nixbpe << 20 | opcode << 24, false, false);
+			if ((nixbpe & (N | I)) == I)
+				return template(nixbpe << 12 | opcode << 16, true, false);
+			return template(nixbpe << 12 | opcode << 16, true, true);
+		}
+
+		Instruction.OperandType type = inst.getOperandType();
+		if (type == Instruction.OperandType.REG || type == Instruction.OperandType.REG1_REG2)
+			return template(opcode << 8, true, false);
+		return template(0, false, false);
+	}
+
+	/**
+	 * 미리 합쳐 둔 코드와 operand를 합치는 방식을 틀 하나로 묶는다.
+	 *
+	 * @param code      opcode와 nixbpe를 합친 코드
+	 * @param useTarget operand를 합치는지 여부
+	 * @param relative  operand 대신 pc 기준 변위를 합치는지 여부
+	 * @return 틀
+	 */
+	private static long template(int code, boolean useTarget, boolean relative) {
+		return (useTarget ? 1L << USE_TARGET_SHIFT : 0) | (relative ? 1L << RELATIVE_SHIFT : 0)
+				| (code & 0xFFFFFFFFL);
+	}
+
+	/** 틀에서 operand를 합치는지 나타내는 비트 위치 */
+	private static final int USE_TARGET_SHIFT = 32;
+	/** 틀에서 pc 기준 변위를 합치는지 나타내는 비트 위치 */
+	private static final int RELATIVE_SHIFT = 33;
+
+	private static final int NIXBPE_BITS = 6;
+	private static final int NIXBPE_MASK = (1 << NIXBPE_BITS) - 1;
+
+	// token.TokenStore의 nixbpe 비트와 같다. 패키지 의존을 만들지 않도록 따로 둔다
+	private static final int N = 0b100000;
+	private static final int I = 0b010000;
+	private static final int E = 0b000001;
+
+	private final ArrayList<Instruction> _instructions;
+	private final long[] _templates;
+}
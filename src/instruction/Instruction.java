@@ -1,6 +1,6 @@
 package instruction;
 
-public class Instruction {
+public final class Instruction {
 	/**
 	 * 명령어의 operand 타입.
 	 */
@@ -52,9 +52,11 @@ public class Instruction {
 	 * 기계어 목록 파일의 한 줄을 읽고, 이를 파싱하여 저장한다.
 	 * 
 	 * @param line 기계어 목록 파일의 한 줄
+	 * @param id   기계어 목록 테이블 안에서의 명령어 번호
 	 * @throws RuntimeException 잘못된 파일 형식.
 	 */
-	Instruction(String line) throws RuntimeException {
+	Instruction(String line, int id) throws RuntimeException {
+		_id = id;
 		String[] split = line.split("\t");
 		if (split.length != 4)
 			throw new RuntimeException("wrong instruction table file (wrong format)\n\n" + line);
@@ -92,6 +94,23 @@ public class Instruction {
 		}
 	}
 
+	/**
+	 * 이미 검증된 값으로 기계어 정보를 초기화한다. 스냅샷에서 읽을 때 사용한다.
+	 *
+	 * @param name        기계어 명칭
+	 * @param operandType operand 타입
+	 * @param format      형식
+	 * @param opcode      opcode
+	 * @param id          기계어 목록 테이블 안에서의 명령어 번호
+	 */
+	Instruction(String name, OperandType operandType, Format format, byte opcode, int id) {
+		_id = id;
+		_name = name;
+		_operandType = operandType;
+		_format = format;
+		_opcode = opcode;
+	}
+
 	/**
 	 * 기계어 명칭을 반환한다.
 	 * 
@@ -101,6 +120,16 @@ public class Instruction {
 		return _name;
 	}
 
+	/**
+	 * 기계어 목록 테이블 안에서의 명령어 번호를 반환한다. 기계어 목록의 명령어 순서대로 0부터 붙이며,
+	 * <code>EncodingTemplates</code>의 틀을 찾는 데 사용한다.
+	 *
+	 * @return 명령어 번호
+	 */
+	public int getId() {
+		return _id;
+	}
+
 	/**
 	 * 기계어의 opcode를 반환한다.
 	 *
@@ -144,4 +173,5 @@ public class Instruction {
 	private final OperandType _operandType;
 	private final Format _format;
 	private final byte _opcode;
+	private final int _id;
 }
@@ -0,0 +1,235 @@
+package instruction;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+
+import keyword.KeywordTable;
+
+/**
+ * 기계어 목록 파일을 미리 변환해 둔 바이너리 스냅샷. 기계어 목록 파일이 원본이며, 스냅샷에는 원본 내용의 길이와 체크섬을
+ * 기록해 두어 원본의 내용이 바뀌면 스냅샷을 쓰지 않는다. 수정 시각은 복사나 checkout으로 쉽게 바뀌거나 유지되므로 쓰지
+ * 않는다.
+ *
+ * <p>
+ * 스냅샷은 기계어 목록 파일 이름 뒤에 <code>.snapshot</code>을 붙인 파일이다. 어셈블러는 스냅샷을 읽기만 하며, 아래
+ * 명령으로 미리 만들어 두어야 한다. 원본을 고친 뒤 다시 만들지 않은 스냅샷은 사용하지 않고, 오래된 스냅샷임을 알린 뒤
+ * 원본을 파싱한다.
+ *
+ * <pre>
+ * java -cp out instruction.InstructionSnapshot inst_table.txt
+ * </pre>
+ *
+ * <p>
+ * 파일 형식 (<code>DataOutputStream</code>, big endian)
+ *
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * int    원본 파일 길이
+ * long   원본 파일 체크섬 (FNV-1a 64비트)
+ * long   예약어 테이블 곱셈 상수
+ * int    예약어 테이블 크기 지수
+ * int    명령어 수
+ * 명령어마다: byte 명칭 길이, 명칭 (ISO-8859-1), byte operand 타입, byte 형식, byte opcode
+ * </pre>
+ */
+public final class InstructionSnapshot {
+	/**
+	 * 기계어 목록 파일의 스냅샷을 만든다. 실패하면 0이 아닌 종료 코드로 끝난다.
+	 *
+	 * @param args 기계어 목록 파일 목록
+	 */
+	public static void main(String[] args) {
+		try {
+			if (args.length == 0)
+				throw new RuntimeException("missing instruction table file");
+
+			for (String instFileName : args)
+				create(instFileName);
+		} catch (Exception e) {
+			System.out.println("Error : " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * 기계어 목록 파일을 파싱하여 스냅샷을 만든다.
+	 *
+	 * @param instFileName 기계어 목록 파일
+	 * @throws FileNotFoundException 기계어 목록 파일이 없음.
+	 * @throws IOException           파일 읽기 혹은 스냅샷 쓰기 실패.
+	 * @throws RuntimeException      잘못된 기계어 목록 테이블 파일 포맷.
+	 */
+	public static void create(String instFileName) throws FileNotFoundException, IOException, RuntimeException {
+		byte[] text = InstructionTable.readFile(instFileName);
+		ArrayList<Instruction> instructions = InstructionTable.parse(text);
+		write(fileOf(instFileName), checksum(text), text.length, instructions, new KeywordTable(instructions));
+	}
+
+	private InstructionSnapshot() {
+	}
+
+	/**
+	 * 기계어 목록 파일에 해당하는 스냅샷 파일을 반환한다.
+	 *
+	 * @param instFileName 기계어 목록 파일
+	 * @return 스냅샷 파일
+	 */
+	static File fileOf(String instFileName) {
+		return new File(instFileName.concat(SUFFIX));
+	}
+
+	/**
+	 * 기계어 목록 파일 내용의 체크섬을 계산한다. 시작 시간에 영향을 주지 않도록 별도의 클래스 없이 FNV-1a 64비트 해시를
+	 * 직접 계산한다.
+	 *
+	 * @param text 기계어 목록 파일 내용
+	 * @return 체크섬
+	 */
+	static long checksum(byte[] text) {
+		long hash = FNV_OFFSET_BASIS;
+		for (byte b : text) {
+			hash ^= b & 0xFF;
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * 스냅샷을 읽는다. 원본과 길이 혹은 체크섬이 다르거나, 형식이 잘못되었으면 읽지 않는다. 파일을 만들거나 고치지 않는다.
+	 *
+	 * @param file         스냅샷 파일
+	 * @param checksum     원본 파일의 체크섬
+	 * @param length       원본 파일의 길이
+	 * @param instructions 읽은 명령어 목록을 채울 목록. 스냅샷을 사용할 수 없으면 채우지 않는다.
+	 * @return 예약어 테이블. 스냅샷을 사용할 수 없으면 empty <code>Optional</code>.
+	 */
+	static Optional<KeywordTable> read(File file, long checksum, int length, ArrayList<Instruction> instructions) {
+		// java.nio.file과 DataInputStream은 처음 사용할 때 초기화 비용이 크므로, java.io로 읽어서 직접 해석한다
+		byte[] data;
+		try {
+			data = readAllBytes(file);
+		} catch (IOException e) {
+			return Optional.empty();
+		}
+
+		try {
+			int[] position = { 0 };
+			if (readInt(data, position) != MAGIC || readInt(data, position) != VERSION)
+				return Optional.empty();
+			if (readInt(data, position) != length || readLong(data, position) != checksum)
+				return Optional.empty();
+
+			long multiplier = readLong(data, position);
+			int bits = readInt(data, position);
+			int count = readInt(data, position);
+			if (count < 0 || count > MAX_INSTRUCTIONS)
+				return Optional.empty();
+
+			Instruction.OperandType[] operandTypes = Instruction.OperandType.values();
+			Instruction.Format[] formats = Instruction.Format.values();
+			ArrayList<Instruction> read = new ArrayList<Instruction>(count);
+			for (int i = 0; i < count; i++) {
+				int nameLength = data[position[0]++];
+				if (nameLength < 1 || nameLength > 6)
+					return Optional.empty();
+				String name = new String(data, position[0], nameLength, StandardCharsets.ISO_8859_1);
+				position[0] += nameLength;
+
+				int operandType = data[position[0]++];
+				int format = data[position[0]++];
+				byte opcode = data[position[0]++];
+				if (operandType < 0 || operandType >= operandTypes.length || format < 0 || format >= formats.length)
+					return Optional.empty();
+				read.add(new Instruction(name, operandTypes[operandType], formats[format], opcode, i));
+			}
+			if (position[0] != data.length)
+				return Optional.empty();
+
+			KeywordTable keywords = new KeywordTable(read, multiplier, bits);
+			instructions.addAll(read);
+			return Optional.of(keywords);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			// 잘린 스냅샷은 사용하지 않는다
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * 스냅샷을 쓴다. 임시 파일에 쓴 뒤 이름을 바꾸므로, 다른 프로세스가 동시에 읽거나 써도 완성되지 않은 스냅샷을 읽지 않는다.
+	 *
+	 * @param file         스냅샷 파일
+	 * @param checksum     원본 파일의 체크섬
+	 * @param length       원본 파일의 길이
+	 * @param instructions 명령어 목록
+	 * @param keywords     명령어 목록으로 만든 예약어 테이블
+	 * @throws IOException 파일 쓰기 실패.
+	 */
+	static void write(File file, long checksum, int length, Collection<Instruction> instructions,
+			KeywordTable keywords) throws IOException {
+		Path path = file.toPath();
+		Path dir = path.toAbsolutePath().getParent();
+		Path temp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+		try {
+			try (OutputStream stream = Files.newOutputStream(temp);
+					DataOutputStream out = new DataOutputStream(stream)) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(length);
+				out.writeLong(checksum);
+				out.writeLong(keywords.getMultiplier());
+				out.writeInt(keywords.getBits());
+				out.writeInt(instructions.size());
+				for (Instruction instruction : instructions) {
+					out.writeByte(instruction.getName().length());
+					out.writeBytes(instruction.getName());
+					out.writeByte(instruction.getOperandType().ordinal());
+					out.writeByte(instruction.getFormat().ordinal());
+					out.writeByte(instruction.getOpcode());
+				}
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static int readInt(byte[] data, int[] position) {
+		int value = 0;
+		for (int i = 0; i < Integer.BYTES; i++)
+			value = value << 8 | (data[position[0]++] & 0xFF);
+		return value;
+	}
+
+	private static long readLong(byte[] data, int[] position) {
+		long value = 0;
+		for (int i = 0; i < Long.BYTES; i++)
+			value = value << 8 | (data[position[0]++] & 0xFF);
+		return value;
+	}
+
+	private static byte[] readAllBytes(File file) throws IOException {
+		try (FileInputStream in = new FileInputStream(file)) {
+			return in.readAllBytes();
+		}
+	}
+
+	/** 파일 형식 표시 ("SICI") */
+	private static final int MAGIC = 0x53494349;
+	private static final int VERSION = 3;
+	private static final String SUFFIX = ".snapshot";
+	private static final int MAX_INSTRUCTIONS = 1024;
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+	private static final long FNV_PRIME = 0x100000001B3L;
+}
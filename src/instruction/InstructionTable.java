@@ -1,69 +1,141 @@
-package instruction;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Optional;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.IOException;
-
-public class InstructionTable {
-	/**
-	 * 기계어 목록 파일을 읽어, 기계어 목록 테이블을 초기화한다.
-	 * 
-	 * @param instFileName 기계어 목록이 적힌 파일
-	 * @throws FileNotFoundException 기계어 목록 파일이 없음.
-	 * @throws IOException           파일 읽기 실패.
-	 * @throws RuntimeException      잘못된 기계어 목록 테이블 파일 포맷.
-	 */
-	public InstructionTable(String instFileName) throws FileNotFoundException, IOException, RuntimeException {
-		HashMap<String, Instruction> instMap = new HashMap<String, Instruction>();
-
-		ArrayList<String> data = readFile(instFileName);
-		data.forEach(x -> {
-			String name = x.substring(0, x.indexOf('\t'));
-			instMap.put(name, new Instruction(x));
-		});
-
-		_instructionMap = instMap;
-	}
-
-	/**
-	 * 기계어 목록 테이블에서 특정 기계어를 검색한다.
-	 * 
-	 * @param instructionName 검색할 기계어 명칭
-	 * @return 기계어 정보를 담은 <code>Optional</code>. 없을 경우 empty <code>Optional</code>.
-	 */
-	public Optional<Instruction> search(String instructionName) {
-		return Optional.ofNullable(_instructionMap.get(instructionName));
-	}
-
-	/**
-	 * 파일을 읽고, 해당 파일의 내용을 라인 단위로 저장하여 반환한다.
-	 * 
-	 * @param fileName 읽을 파일 명
-	 * @return 파일의 내용. 라인 단위로 분리되어 있음.
-	 * @throws FileNotFoundException 파일이 존재하지 않음.
-	 * @throws IOException           파일 읽기 실패.
-	 */
-	private ArrayList<String> readFile(String fileName) throws FileNotFoundException, IOException {
-		ArrayList<String> data = new ArrayList<String>();
-
-		File file = new File(fileName);
-		BufferedReader bufReader = new BufferedReader(new FileReader(file));
-
-		String line = "";
-		while ((line = bufReader.readLine()) != null){
-			data.add(line);
-//			System.out.println(line);
-		}
-
-		bufReader.close();
-
-		return data;
-	}
-
-	private final HashMap<String, Instruction> _instructionMap;
-}
+package instruction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Optional;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+
+import keyword.Keyword;
+import keyword.KeywordTable;
+
+/**
+ * 기계어 목록 테이블. 생성된 이후에는 변경되지 않으므로 여러 스레드에서 공유할 수 있다.
+ */
+public final class InstructionTable {
+	/**
+	 * 기계어 목록 파일을 읽어, 기계어 목록 테이블을 초기화한다. 파일과 일치하는 스냅샷이 있으면 스냅샷을 읽고, 없으면 파일을
+	 * 파싱한다. 스냅샷은 만들지 않으며, 파일과 맞지 않는 스냅샷이 있으면 표준 에러로 알린다.
+	 * 
+	 * @param instFileName 기계어 목록이 적힌 파일
+	 * @throws FileNotFoundException 기계어 목록 파일이 없음.
+	 * @throws IOException           파일 읽기 실패.
+	 * @throws RuntimeException      잘못된 기계어 목록 테이블 파일 포맷.
+	 * @see InstructionSnapshot
+	 */
+	public InstructionTable(String instFileName) throws FileNotFoundException, IOException, RuntimeException {
+		this(instFileName, true);
+	}
+
+	/**
+	 * 기계어 목록 파일을 읽어, 기계어 목록 테이블을 초기화한다. 파일을 만들거나 고치지 않는다.
+	 *
+	 * @param instFileName 기계어 목록이 적힌 파일
+	 * @param useSnapshot  스냅샷 사용 여부. false이면 스냅샷이 있어도 항상 파일을 파싱한다.
+	 * @throws FileNotFoundException 기계어 목록 파일이 없음.
+	 * @throws IOException           파일 읽기 실패.
+	 * @throws RuntimeException      잘못된 기계어 목록 테이블 파일 포맷.
+	 */
+	public InstructionTable(String instFileName, boolean useSnapshot)
+			throws FileNotFoundException, IOException, RuntimeException {
+		byte[] text = readFile(instFileName);
+		File snapshot = InstructionSnapshot.fileOf(instFileName);
+		if (useSnapshot && snapshot.isFile()) {
+			ArrayList<Instruction> instructions = new ArrayList<Instruction>();
+			Optional<KeywordTable> loaded = InstructionSnapshot.read(snapshot, InstructionSnapshot.checksum(text),
+					text.length, instructions);
+			if (loaded.isPresent()) {
+				_keywordTable = loaded.get();
+				_encodingTemplates = new EncodingTemplates(instructions);
+				return;
+			}
+			// 원본을 고친 뒤 스냅샷을 다시 만들지 않은 경우. 알리기만 하고 원본을 파싱한다
+			System.err.println("Warning : stale instruction snapshot (" + snapshot.getPath()
+					+ "), run instruction.InstructionSnapshot " + instFileName);
+		}
+
+		ArrayList<Instruction> instructions = parse(text);
+		_keywordTable = new KeywordTable(instructions);
+		_encodingTemplates = new EncodingTemplates(instructions);
+	}
+
+	/**
+	 * 기계어 목록 테이블에서 특정 기계어를 검색한다.
+	 * 
+	 * @param instructionName 검색할 기계어 명칭
+	 * @return 기계어 정보를 담은 <code>Optional</code>. 없을 경우 empty <code>Optional</code>.
+	 */
+	public Optional<Instruction> search(String instructionName) {
+		// 시작 시간에 영향을 주므로 메서드 참조를 쓰지 않는다
+		Optional<Keyword> keyword = _keywordTable.search(instructionName);
+		return keyword.isPresent() ? keyword.get().getInstruction() : Optional.empty();
+	}
+
+	/**
+	 * 명령어와 함께 지시어, 레지스터 이름을 담은 예약어 테이블을 반환한다.
+	 *
+	 * @return 예약어 테이블
+	 */
+	public KeywordTable getKeywordTable() {
+		return _keywordTable;
+	}
+
+	/**
+	 * 명령어와 nixbpe 조합별 object code 틀 테이블을 반환한다.
+	 *
+	 * @return object code 틀 테이블
+	 */
+	public EncodingTemplates getEncodingTemplates() {
+		return _encodingTemplates;
+	}
+
+	/**
+	 * 기계어 목록 파일의 내용을 파싱한다. 같은 명칭의 기계어가 여러 번 나오면 마지막 것을 사용하며, 명령어 번호는 그
+	 * 명칭이 처음 나온 순서대로 붙인다.
+	 *
+	 * @param text 기계어 목록 파일 내용
+	 * @return 기계어 목록
+	 * @throws IOException      파일 내용 읽기 실패.
+	 * @throws RuntimeException 잘못된 기계어 목록 테이블 파일 포맷.
+	 */
+	static ArrayList<Instruction> parse(byte[] text) throws IOException, RuntimeException {
+		HashMap<String, Integer> ids = new HashMap<String, Integer>();
+		ArrayList<Instruction> instructions = new ArrayList<Instruction>();
+
+		BufferedReader bufReader = new BufferedReader(new StringReader(new String(text)));
+		String line = "";
+		while ((line = bufReader.readLine()) != null) {
+			String name = line.substring(0, line.indexOf('\t'));
+			Integer id = ids.get(name);
+			if (id == null) {
+				ids.put(name, instructions.size());
+				instructions.add(new Instruction(line, instructions.size()));
+			} else {
+				instructions.set(id, new Instruction(line, id));
+			}
+		}
+
+		return instructions;
+	}
+
+	/**
+	 * 파일을 읽고, 해당 파일의 내용을 반환한다.
+	 * 
+	 * @param fileName 읽을 파일 명
+	 * @return 파일의 내용
+	 * @throws FileNotFoundException 파일이 존재하지 않음.
+	 * @throws IOException           파일 읽기 실패.
+	 */
+	static byte[] readFile(String fileName) throws FileNotFoundException, IOException {
+		try (FileInputStream in = new FileInputStream(new File(fileName))) {
+			return in.readAllBytes();
+		}
+	}
+
+	private final KeywordTable _keywordTable;
+	private final EncodingTemplates _encodingTemplates;
+}
@@ -0,0 +1,79 @@
+package keyword;
+
+import java.util.Optional;
+
+import directive.Directive;
+import instruction.Instruction;
+import token.operand.Operand;
+
+/**
+ * 예약어 정보. 같은 이름이 명령어, 지시어, 레지스터 중 여러 역할을 가질 수 있으므로 각각을 따로 가진다. 생성된 이후에는
+ * 변경되지 않는다.
+ */
+public final class Keyword {
+	Keyword(String name, Optional<Instruction> instruction, Optional<Directive> directive,
+			Optional<Operand.Register> register) {
+		_name = name;
+		_instruction = instruction;
+		_directive = directive;
+		_register = register;
+	}
+
+	/**
+	 * 예약어 이름을 반환한다.
+	 *
+	 * @return 예약어 이름
+	 */
+	public String getName() {
+		return _name;
+	}
+
+	/**
+	 * 이 이름의 명령어를 반환한다.
+	 *
+	 * @return 명령어 정보. 명령어가 아니면 empty <code>Optional</code>.
+	 */
+	public Optional<Instruction> getInstruction() {
+		return _instruction;
+	}
+
+	/**
+	 * 이 이름의 지시어를 반환한다.
+	 *
+	 * @return 지시어. 지시어가 아니면 empty <code>Optional</code>.
+	 */
+	public Optional<Directive> getDirective() {
+		return _directive;
+	}
+
+	/**
+	 * 이 이름의 레지스터를 반환한다.
+	 *
+	 * @return 레지스터. 레지스터가 아니면 empty <code>Optional</code>.
+	 */
+	public Optional<Operand.Register> getRegister() {
+		return _register;
+	}
+
+	Keyword withInstruction(Instruction instruction) {
+		return new Keyword(_name, Optional.of(instruction), _directive, _register);
+	}
+
+	Keyword withDirective(Directive directive) {
+		return new Keyword(_name, _instruction, Optional.of(directive), _register);
+	}
+
+	Keyword withRegister(Operand.Register register) {
+		return new Keyword(_name, _instruction, _directive, Optional.of(register));
+	}
+
+	@Override
+	public String toString() {
+		return _name;
+	}
+
+	private final String _name;
+	private final Optional<Instruction> _instruction;
+	private final Optional<Directive> _directive;
+	private final Optional<Operand.Register> _register;
+}
@@ -0,0 +1,214 @@
+package keyword;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import directive.Directive;
+import instruction.Instruction;
+import token.operand.Operand;
+
+/**
+ * 명령어, 지시어, 레지스터 이름을 한 번에 찾는 예약어 테이블. 생성된 이후에는 변경되지 않으므로 여러 스레드에서 공유할 수
+ * 있다.
+ *
+ * <p>
+ * 이름의 각 글자를 8비트씩 이어 붙여 <code>long</code> 키로 만들고, 테이블 생성 시 모든 키가 서로 다른 칸에 들어가는
+ * 곱셈 해시(perfect hash)를 찾아 둔다. 따라서 검색은 곱셈 한 번과 비교 한 번으로 끝나며, 문자열을 만들거나 비교하지
+ * 않는다.
+ */
+public final class KeywordTable {
+	/** 키로 만들 수 없는 이름의 키. 어떤 예약어와도 일치하지 않는다 */
+	public static final long NO_KEY = 0;
+
+	/** 키로 만들 수 있는 이름의 최대 길이 */
+	public static final int MAX_LENGTH = Long.BYTES;
+
+	/**
+	 * 명령어 목록과 지시어, 레지스터로 예약어 테이블을 초기화한다.
+	 *
+	 * @param instructions 명령어 목록
+	 * @throws RuntimeException 키로 만들 수 없는 이름의 명령어.
+	 */
+	public KeywordTable(Collection<Instruction> instructions) throws RuntimeException {
+		this(instructions, 0, 0);
+	}
+
+	/**
+	 * 이전에 찾아 둔 곱셈 상수로 예약어 테이블을 초기화한다. 상수가 주어진 키들에 맞지 않으면 새로 찾는다.
+	 *
+	 * @param instructions 명령어 목록
+	 * @param multiplier   <code>getMultiplier()</code>로 얻은 곱셈 상수. 0이면 새로 찾는다.
+	 * @param bits         <code>getBits()</code>로 얻은 테이블 크기
+	 * @throws RuntimeException 키로 만들 수 없는 이름의 명령어.
+	 */
+	public KeywordTable(Collection<Instruction> instructions, long multiplier, int bits) throws RuntimeException {
+		// 시작 시간에 영향을 주므로 람다를 쓰지 않는다
+		LinkedHashMap<Long, Keyword> keywords = new LinkedHashMap<Long, Keyword>();
+		for (Instruction instruction : instructions) {
+			long key = keyOf(instruction.getName());
+			keywords.put(key, entry(instruction.getName(), keywords.get(key)).withInstruction(instruction));
+		}
+		for (Directive directive : Directive.values()) {
+			long key = keyOf(directive.getName());
+			keywords.put(key, entry(directive.getName(), keywords.get(key)).withDirective(directive));
+		}
+		for (Operand.Register register : Operand.Register.values()) {
+			long key = keyOf(register.getName());
+			keywords.put(key, entry(register.getName(), keywords.get(key)).withRegister(register));
+		}
+
+		long[] keys = new long[keywords.size()];
+		int n = 0;
+		for (long key : keywords.keySet())
+			keys[n++] = key;
+
+		if (multiplier != 0 && (bits < 1 || bits > MAX_BITS || !isPerfect(keys, multiplier, bits)))
+			multiplier = 0;
+
+		// 모든 키가 서로 다른 칸에 들어가는 곱셈 상수를 찾는다. 못 찾으면 테이블 크기를 늘린다
+		if (multiplier == 0) {
+			SplittableRandom random = new SplittableRandom(SEED);
+			bits = Math.max(4, 64 - Long.numberOfLeadingZeros(keys.length * 4L - 1));
+		search:
+			while (true) {
+				for (int attempt = 0; attempt < ATTEMPTS_PER_SIZE; attempt++) {
+					long candidate = random.nextLong() | 1;
+					if (isPerfect(keys, candidate, bits)) {
+						multiplier = candidate;
+						break search;
+					}
+				}
+				bits++;
+			}
+		}
+
+		_multiplier = multiplier;
+		_shift = 64 - bits;
+		_keys = new long[1 << bits];
+		@SuppressWarnings("unchecked")
+		Optional<Keyword>[] values = (Optional<Keyword>[]) new Optional<?>[1 << bits];
+		_values = values;
+		for (int i = 0; i < _values.length; i++)
+			_values[i] = Optional.empty();
+		for (long key : keys) {
+			int index = index(key);
+			_keys[index] = key;
+			_values[index] = Optional.of(keywords.get(key));
+		}
+	}
+
+	/**
+	 * 테이블의 곱셈 상수를 반환한다. 스냅샷에 저장해 두면 다음 실행에서 상수를 찾는 과정을 생략할 수 있다.
+	 *
+	 * @return 곱셈 상수
+	 */
+	public long getMultiplier() {
+		return _multiplier;
+	}
+
+	/**
+	 * 테이블 크기를 2의 지수로 반환한다.
+	 *
+	 * @return 테이블 크기의 지수
+	 */
+	public int getBits() {
+		return 64 - _shift;
+	}
+
+	/**
+	 * 키로 예약어를 검색한다.
+	 *
+	 * @param key <code>pack()</code>으로 만든 키
+	 * @return 예약어 정보를 담은 <code>Optional</code>. 없을 경우 empty <code>Optional</code>.
+	 */
+	public Optional<Keyword> search(long key) {
+		int index = index(key);
+		// 빈 칸의 키는 NO_KEY이고 값은 empty Optional이므로 따로 확인하지 않는다
+		return _keys[index] == key ? _values[index] : Optional.empty();
+	}
+
+	/**
+	 * 이름으로 예약어를 검색한다.
+	 *
+	 * @param name 검색할 이름
+	 * @return 예약어 정보를 담은 <code>Optional</code>. 없을 경우 empty <code>Optional</code>.
+	 */
+	public Optional<Keyword> search(CharSequence name) {
+		return search(pack(name));
+	}
+
+	/**
+	 * 이름을 키로 만든다.
+	 *
+	 * @param name 이름
+	 * @return 키. 이름이 비어 있거나, <code>MAX_LENGTH</code>보다 길거나, 8비트로 표현할 수 없는 문자가 있으면
+	 *         <code>NO_KEY</code>.
+	 */
+	public static long pack(CharSequence name) {
+		if (name.length() > MAX_LENGTH)
+			return NO_KEY;
+
+		long key = NO_KEY;
+		for (int i = 0; i < name.length(); i++) {
+			key = pack(key, name.charAt(i));
+			if (key == NO_KEY)
+				break;
+		}
+		return key;
+	}
+
+	/**
+	 * 키 뒤에 한 글자를 이어 붙인다. 문자열을 만들지 않고 한 글자씩 키를 만들 때 사용한다. 이어 붙인 글자 수가
+	 * <code>MAX_LENGTH</code>를 넘지 않는지는 호출하는 쪽에서 확인해야 한다.
+	 *
+	 * @param key 지금까지 만든 키. 처음에는 <code>NO_KEY</code>
+	 * @param c   이어 붙일 글자
+	 * @return 새로운 키. 8비트로 표현할 수 없는 문자이면 <code>NO_KEY</code>.
+	 */
+	public static long pack(long key, char c) {
+		if (c == 0 || c > 0xFF)
+			return NO_KEY;
+		return key << 8 | c;
+	}
+
+	private static long keyOf(String name) throws RuntimeException {
+		long key = pack(name);
+		if (key == NO_KEY)
+			throw new RuntimeException("illegal keyword name (" + name + ")");
+		return key;
+	}
+
+	private static Keyword entry(String name, Keyword keyword) {
+		if (keyword != null)
+			return keyword;
+		return new Keyword(name, Optional.empty(), Optional.empty(), Optional.empty());
+	}
+
+	private static boolean isPerfect(long[] keys, long multiplier, int bits) {
+		boolean[] used = new boolean[1 << bits];
+		for (long key : keys) {
+			int index = (int) ((key * multiplier) >>> (64 - bits));
+			if (used[index])
+				return false;
+			used[index] = true;
+		}
+		return true;
+	}
+
+	private int index(long key) {
+		return (int) ((key * _multiplier) >>> _shift);
+	}
+
+	/** 곱셈 상수를 찾는 난수 seed. 실행할 때마다 같은 테이블을 만든다 */
+	private static final long SEED = 0x5C1CE;
+	private static final int ATTEMPTS_PER_SIZE = 1024;
+	/** 저장된 곱셈 상수를 받아들이는 최대 테이블 크기 */
+	private static final int MAX_BITS = 16;
+
+	private final long _multiplier;
+	private final int _shift;
+	private final long[] _keys;
+	private final Optional<Keyword>[] _values;
+}
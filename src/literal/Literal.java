@@ -1,6 +1,9 @@
 package literal;
 
+import java.io.IOException;
 import java.util.Optional;
+
+import numeric.Hex;
 import numeric.Numeric;
 
 public class Literal {
@@ -11,10 +14,22 @@ public class Literal {
 	 * @throws RuntimeException 잘못된 리터럴 문자열 포맷
 	 */
     public Literal(String literal) throws RuntimeException {
+		this(literal, new LiteralContent());
+	}
+
+	/**
+	 * 리터럴 객체를 초기화한다. 주소는 할당하지 않는다. 인코딩한 바이트는 <code>content</code>에서 같은 리터럴
+	 * 문자열끼리 공유한다.
+	 * 
+	 * @param literal 리터럴 문자열
+	 * @param content 리터럴 내용 저장소
+	 * @throws RuntimeException 잘못된 리터럴 문자열 포맷
+	 */
+	public Literal(String literal, LiteralContent content) throws RuntimeException {
 		// TODO: 리터럴 객체 초기화하기.
 		_literal = literal;
 		_address = Optional.empty();
-		_value = new Numeric(literal);	// 아 이거 아니라 454F46 같은거
+		_bytes = content.intern(literal);
 	}
 
 	/**
@@ -26,8 +41,59 @@ public class Literal {
 		return _literal;
 	}
 
+	/**
+	 * 리터럴의 수치값을 반환한다. 처음 요청할 때 계산한다.
+	 *
+	 * @return 수치값
+	 */
 	public Numeric getValue() {
-		return _value;
+		Numeric value = _value;
+		if (value == null) {
+			value = new Numeric(_literal);	// 아 이거 아니라 454F46 같은거
+			_value = value;
+		}
+		return value;
+	}
+
+	/**
+	 * 리터럴 pool에 놓을 object code가 정수 하나에 들어가는지 여부를 반환한다. 들어가지 않으면
+	 * <code>getText()</code>를 사용한다.
+	 *
+	 * @return 4바이트 이하인지 여부
+	 */
+	public boolean hasCode() {
+		return _bytes.length <= Integer.BYTES;
+	}
+
+	/**
+	 * 리터럴 pool에 놓을 object code를 정수로 반환한다.
+	 *
+	 * @return object code
+	 * @throws RuntimeException 4바이트보다 긴 리터럴
+	 */
+	public int getCode() throws RuntimeException {
+		if (!hasCode())
+			throw new RuntimeException("literal too long for integer code (" + _literal + ")");
+
+		int code = 0;
+		for (byte b : _bytes)
+			code = code << 8 | (b & 0xFF);
+		return code;
+	}
+
+	/**
+	 * 리터럴 pool에 놓을 object code를 16진수 문자열로 반환한다. 바이트마다 두 자리씩 쓰므로 길이에 상관없이 모든
+	 * 바이트를 담는다.
+	 *
+	 * @return object code 문자열
+	 */
+	public String getText() {
+		char[] text = new char[_bytes.length * 2];
+		for (int i = 0; i < _bytes.length; i++) {
+			text[i * 2] = HEX_DIGITS[_bytes[i] >>> 4 & 0xF];
+			text[i * 2 + 1] = HEX_DIGITS[_bytes[i] & 0xF];
+		}
+		return new String(text);
 	}
 
 	/**
@@ -40,10 +106,14 @@ public class Literal {
 	}
 
 	/**
-	 * 리터럴의 수치값을 저장하기 위해 필요한 크기를 반환한다.
+	 * 리터럴을 리터럴 pool에 놓을 때 차지하는 크기를 반환한다. 캐릭터 리터럴은 문자 바이트 수, 16진수 리터럴은 16진수
+	 * 자릿수를 바이트로 올림한 값이다.
 	 * 
-	 * @return 수치값 크기
+	 * @return 리터럴 크기 (byte)
 	 */
+	public int getSize() {
+		return _bytes.length;
+	}
 
 	/**
 	 * 리터럴 객체의 정보를 문자열로 반환한다. 리터럴 테이블 출력 용도로 사용한다.
@@ -58,6 +128,20 @@ public class Literal {
 		return formatted;
 	}
 
+	/**
+	 * 리터럴 객체의 정보를 출력 대상에 바로 쓴다. <code>toString()</code>과 같은 내용을 출력한다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException 출력 실패.
+	 */
+	public void write(Appendable out) throws IOException {
+		Hex.appendPadded(out, _literal, 12);
+		if (_address.isPresent())
+			Hex.append(out, _address.get(), 1);
+		else
+			out.append("(not assigned)");
+	}
+
 	/**
 	 * 리터럴의 주소를 지정한다.
 	 * 
@@ -67,9 +151,14 @@ public class Literal {
 		_address = Optional.of(address);
 	}
 
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
 	private final String _literal;
 
 	/** 리터럴 주소. 주소가 지정되지 않은 경우 empty <code>Optional</code> */
 	private Optional<Integer> _address;
-	private final Numeric _value;
+	/** 인코딩한 바이트. <code>LiteralContent</code>에서 같은 리터럴 문자열끼리 공유한다 */
+	private final byte[] _bytes;
+	/** 리터럴의 수치값. 계산하기 전에는 null */
+	private Numeric _value;
 }
@@ -0,0 +1,75 @@
+package literal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+import numeric.Numeric;
+
+/**
+ * 리터럴 내용의 공유 저장소. 같은 리터럴 문자열(ex. <code>=C'EOF'</code>)을 object code로 인코딩한 바이트는 한 번만
+ * 만들어 모든 control section이 공유하고, 각 section의 <code>Literal</code>은 배치 정보(주소)만 따로 가진다.
+ *
+ * <p>
+ * 저장소는 어셈블 한 번마다 하나를 만들어 그 어셈블의 section들이 함께 사용한다. 어셈블이 끝나면 함께 버려지므로, 여러 번
+ * 어셈블하는 데몬에서도 어셈블 사이에 남지 않는다. 여러 section을 동시에 처리할 수 있도록 여러 스레드에서 사용하여도 되며,
+ * 같은 리터럴을 동시에 추가하면 먼저 들어간 바이트를 함께 사용한다. 저장된 바이트는 이후 변경되지 않는다.
+ */
+public final class LiteralContent {
+	/**
+	 * 빈 저장소를 만든다.
+	 */
+	public LiteralContent() {
+		_bytes = new ConcurrentHashMap<String, byte[]>();
+	}
+
+	/**
+	 * 리터럴 문자열을 인코딩한 바이트를 반환한다. 처음 보는 리터럴이면 인코딩하여 저장한다. 반환한 배열은 고치면 안 된다.
+	 *
+	 * @param literal 리터럴 문자열
+	 * @return 인코딩한 바이트
+	 * @throws RuntimeException 잘못된 리터럴 문자열 포맷
+	 */
+	byte[] intern(String literal) throws RuntimeException {
+		byte[] bytes = _bytes.get(literal);
+		if (bytes != null)
+			return bytes;
+
+		bytes = encode(literal);
+		byte[] previous = _bytes.putIfAbsent(literal, bytes);
+		return previous != null ? previous : bytes;
+	}
+
+	/**
+	 * 리터럴 문자열을 인코딩한다. 캐릭터 리터럴은 문자 바이트를, 16진수 리터럴은 자릿수를 바이트로 올림하여 앞을 0으로
+	 * 채운 값을 만든다. 수치값으로 계산할 때와 같은 리터럴에서 같은 오류를 낸다.
+	 */
+	private static byte[] encode(String literal) throws RuntimeException {
+		int open = literal.indexOf('\'');
+		if (open < 0) {
+			// 따옴표가 없는 리터럴은 수치값으로 계산할 수 있을 때만 그 값의 바이트를 사용한다
+			Numeric value = new Numeric(literal);
+			return toBytes(value.getInteger(), value.getSize());
+		}
+
+		int close = literal.lastIndexOf('\'');
+		if (literal.charAt(0) == '=' && literal.charAt(1) == 'C') {
+			if (close <= open + 1)
+				throw new RuntimeException("empty character constant (" + literal + ")");
+			return literal.substring(open + 1, close).getBytes(StandardCharsets.UTF_8);
+		}
+
+		String digits = literal.split("'")[1];
+		int value = Integer.parseInt(digits, 16);
+		return toBytes(value, (digits.length() + 1) / 2);
+	}
+
+	private static byte[] toBytes(int value, int size) {
+		byte[] bytes = new byte[size];
+		for (int i = size - 1, shift = 0; i >= 0 && shift < Integer.SIZE; i--, shift += 8)
+			bytes[i] = (byte) (value >>> shift);
+		return bytes;
+	}
+
+	/** 리터럴 문자열별로 인코딩한 바이트 */
+	private final ConcurrentHashMap<String, byte[]> _bytes;
+}
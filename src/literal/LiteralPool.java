@@ -0,0 +1,38 @@
+package literal;
+
+import java.util.ArrayList;
+
+/**
+ * LTORG 혹은 END에서 한꺼번에 배치한 리터럴 pool. 리터럴은 배치한 순서대로 이어져 있다.
+ */
+public final class LiteralPool {
+	/**
+	 * @param literals 배치한 순서대로의 리터럴 목록
+	 * @param size     리터럴 크기의 합
+	 */
+	LiteralPool(ArrayList<Literal> literals, int size) {
+		_literals = literals;
+		_size = size;
+	}
+
+	/**
+	 * pool에 놓인 리터럴을 배치한 순서대로 반환한다.
+	 *
+	 * @return 리터럴 목록
+	 */
+	public ArrayList<Literal> getLiterals() {
+		return _literals;
+	}
+
+	/**
+	 * pool이 차지하는 크기를 반환한다.
+	 *
+	 * @return 리터럴 크기의 합 (byte)
+	 */
+	public int getSize() {
+		return _size;
+	}
+
+	private final ArrayList<Literal> _literals;
+	private final int _size;
+}
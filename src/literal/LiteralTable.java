@@ -1,104 +1,206 @@
-package literal;
-
-import token.operand.NumericOperand;
-import token.operand.Operand;
-
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
-
-public class LiteralTable {
-	/**
-	 * 리터럴 테이블을 초기화한다.
-	 */
-	public LiteralTable() {
-		_literalMap = new LinkedHashMap<String, Literal>();
-	}
-
-	/**
-	 * 리터럴을 리터럴 테이블에 추가한다.
-	 * 
-	 * @param literal 추가할 리터럴
-	 * @throws RuntimeException 비정상적인 리터럴 서식 혹은 이미 존재하는 리터럴 추가를 시도
-	 */
-	public Literal putLiteral(String literal) throws RuntimeException {
-		// TODO: 리터럴 객체를 생성하고, 이를 리터럴 테이블에 추가하기.
-		Literal lit = new Literal(literal);
-		_literalMap.put(literal, lit);
-
-		return lit;
-	}
-
-	/**
-	 * 리터럴 문자열을 통해 리터럴을 찾는다.
-	 * 
-	 * @param literal 찾을 리터럴 문자열
-	 * @return 리터럴. 없을 경우 empty <code>Optional</code>
-	 */
-	public Optional<Literal> search(String literal) {
-		// TODO: 리터럴을 검색하고, 결과를 반환하기
-		return Optional.ofNullable(_literalMap.get(literal));
-	}
-
-	/**
-	 * 리터럴 주소값을 통해 리터럴을 찾는다.
-	 * 
-	 * @param address 찾을 리터럴의 시작 주소
-	 * @return 리터럴. 없을 경우 empty <code>Optional</code>
-	 */
-	public Optional<Literal> search(int address) {
-		// TODO: 리터럴 주소값으로 리터럴을 검색하고, 결과를 반환하기.
-
-		for(Map.Entry<String, Literal> entry : _literalMap.entrySet()){
-			Integer value = entry.getValue().getAddress().get();
-			if(value == address){
-				return Optional.ofNullable(entry.getValue());
-			}
-		}
-
-		return Optional.empty();
-	}
-
-	/**
-	 * 리터럴 테이블에서 주소가 할당되지 않은 리터럴에 대해 주소를 할당하고, 해당 리터럴들의 전체 크기를 반환한다.
-	 * 
-	 * @param address 할당을 시작할 주소
-	 * @return 할당된 리터럴들의 총 크기
-	 */
-	public int assignAddress(int address, ArrayList<Operand> arr) {	// 어차피 literal 들어간 순서대로 주소입력될거니까
-		// TODO: 리터럴 주소값 할당하기.
-		int size = 0;
-
-		for(Map.Entry<String, Literal> entry : _literalMap.entrySet()){
-			if(entry.getValue().getAddress().isEmpty()){
-				entry.getValue().assignAddress(address);
-				arr.add(new NumericOperand(entry.getValue().getValue()));
-				size = entry.getValue().getValue().getSize();
-				break;
-			}
-		}
-
-		return size;
-	}
-
-	public int size(){
-		return _literalMap.size();
-	}
-
-
-	/**
-	 * 리터럴 테이블 객체의 정보를 문자열로 반환한다. 리터럴 테이블 출력 용도로 사용한다.
-	 */
-	@Override
-	public String toString() {
-		String literals = _literalMap.entrySet().stream()
-				.map(x -> x.getValue().toString())
-				.collect(Collectors.joining("\n"));
-
-		return literals;
-	}
-
-	private LinkedHashMap<String, Literal> _literalMap;
-}
+package literal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 리터럴 테이블. 리터럴 문자열로 찾는 맵 외에, 주소가 할당되기를 기다리는 리터럴의 FIFO 대기열과 주소가 할당된 리터럴의
+ * 주소순 색인을 함께 가진다.
+ *
+ * <p>
+ * LTORG, END는 대기열 앞에서부터 리터럴을 꺼내 주소를 할당하므로, 리터럴 풀 하나를 배치하는 비용은 그 풀에 들어가는 리터럴
+ * 수에 비례한다. 리터럴은 operand로 처음 등장한 순서대로 배치된다.
+ */
+public class LiteralTable {
+	/**
+	 * 리터럴 테이블을 초기화한다.
+	 */
+	public LiteralTable() {
+		this(new LiteralContent());
+	}
+
+	/**
+	 * 리터럴 테이블을 초기화한다. 리터럴의 인코딩한 바이트는 <code>content</code>를 함께 쓰는 테이블끼리 공유한다.
+	 *
+	 * @param content 리터럴 내용 저장소
+	 */
+	public LiteralTable(LiteralContent content) {
+		_content = content;
+		_literalMap = new LinkedHashMap<String, Literal>();
+		_pending = new ArrayList<Literal>();
+		_placed = new ArrayList<Literal>();
+		_placedAddresses = new int[16];
+	}
+
+	/**
+	 * 리터럴을 리터럴 테이블에 추가한다. 아직 주소가 할당되지 않은 같은 리터럴이 있으면 그 리터럴을 함께 사용한다.
+	 * 
+	 * @param literal 추가할 리터럴
+	 * @return 리터럴. 주소는 다음 LTORG 혹은 END에서 할당된다.
+	 * @throws RuntimeException 비정상적인 리터럴 서식 혹은 이미 존재하는 리터럴 추가를 시도
+	 */
+	public Literal putLiteral(String literal) throws RuntimeException {
+		// TODO: 리터럴 객체를 생성하고, 이를 리터럴 테이블에 추가하기.
+		Literal lit = _literalMap.get(literal);
+		if (lit != null && lit.getAddress().isEmpty())
+			return lit;
+
+		lit = new Literal(literal, _content);
+		_literalMap.put(literal, lit);
+		_pending.add(lit);
+
+		return lit;
+	}
+
+	/**
+	 * 리터럴 문자열을 통해 리터럴을 찾는다.
+	 * 
+	 * @param literal 찾을 리터럴 문자열
+	 * @return 리터럴. 없을 경우 empty <code>Optional</code>
+	 */
+	public Optional<Literal> search(String literal) {
+		// TODO: 리터럴을 검색하고, 결과를 반환하기
+		return Optional.ofNullable(_literalMap.get(literal));
+	}
+
+	/**
+	 * 리터럴 주소값을 통해 리터럴을 찾는다.
+	 * 
+	 * @param address 찾을 리터럴의 시작 주소
+	 * @return 리터럴. 없을 경우 empty <code>Optional</code>
+	 */
+	public Optional<Literal> search(int address) {
+		// TODO: 리터럴 주소값으로 리터럴을 검색하고, 결과를 반환하기.
+		int index = Arrays.binarySearch(_placedAddresses, 0, _placed.size(), address);
+		if (index < 0)
+			return Optional.empty();
+
+		// 크기가 0인 리터럴로 같은 주소가 여럿이면 먼저 배치된 것을 찾는다
+		while (index > 0 && _placedAddresses[index - 1] == address)
+			index--;
+		return Optional.of(_placed.get(index));
+	}
+
+	/**
+	 * 주소가 할당되지 않은 리터럴 중 가장 먼저 추가된 리터럴에 주소를 할당한다.
+	 * 
+	 * @param address 할당할 주소
+	 * @return 주소가 할당된 리터럴. 모든 리터럴에 주소가 할당되어 있는 경우 empty <code>Optional</code>
+	 */
+	public Optional<Literal> assignAddress(int address) {	// 어차피 literal 들어간 순서대로 주소입력될거니까
+		if (_pendingHead == _pending.size())
+			return Optional.empty();
+
+		Literal literal = _pending.get(_pendingHead);
+		_pending.set(_pendingHead++, null);
+		if (_pendingHead == _pending.size()) {
+			_pending.clear();
+			_pendingHead = 0;
+		}
+
+		literal.assignAddress(address);
+		index(literal, address);
+		return Optional.of(literal);
+	}
+
+	/**
+	 * 주소가 할당되지 않은 리터럴을 모두 추가된 순서대로 꺼내, 주어진 주소부터 자기 크기만큼씩 이어 놓는다. LTORG, END에서
+	 * 리터럴 pool 하나를 배치할 때 사용한다.
+	 *
+	 * @param address pool 시작 주소
+	 * @return 배치한 리터럴 pool. 기다리는 리터럴이 없으면 크기가 0인 pool
+	 */
+	public LiteralPool placePool(int address) {
+		ArrayList<Literal> literals = new ArrayList<Literal>(getPendingCount());
+		int size = 0;
+		for (int i = getPendingCount(); i > 0; i--) {
+			Literal literal = assignAddress(address + size).get();
+			literals.add(literal);
+			size += literal.getSize();
+		}
+		return new LiteralPool(literals, size);
+	}
+
+	/**
+	 * 주소가 할당되기를 기다리는 리터럴 수를 반환한다.
+	 *
+	 * @return 대기 중인 리터럴 수
+	 */
+	public int getPendingCount() {
+		return _pending.size() - _pendingHead;
+	}
+
+	/**
+	 * 주소가 할당된 리터럴 수를 반환한다. 같은 리터럴이 여러 pool에 놓이면 각각 센다.
+	 *
+	 * @return 주소가 할당된 리터럴 수
+	 */
+	public int getAssignedCount() {
+		return _placed.size();
+	}
+
+	public int size(){
+		return _literalMap.size();
+	}
+
+
+	/**
+	 * 리터럴 테이블 객체의 정보를 출력 대상에 바로 쓴다. <code>toString()</code>과 같은 내용을 출력한다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException 출력 실패.
+	 */
+	public void write(Appendable out) throws IOException {
+		boolean first = true;
+		for (Literal literal : _literalMap.values()) {
+			if (!first)
+				out.append('\n');
+			first = false;
+
+			literal.write(out);
+		}
+	}
+
+	/**
+	 * 리터럴 테이블 객체의 정보를 문자열로 반환한다. 리터럴 테이블 출력 용도로 사용한다.
+	 */
+	@Override
+	public String toString() {
+		String literals = _literalMap.entrySet().stream()
+				.map(x -> x.getValue().toString())
+				.collect(Collectors.joining("\n"));
+
+		return literals;
+	}
+
+	/**
+	 * 주소가 할당된 리터럴을 주소순 색인에 넣는다. 리터럴은 보통 주소가 커지는 순서로 배치되므로 끝에 덧붙게 된다.
+	 */
+	private void index(Literal literal, int address) {
+		int count = _placed.size();
+		if (count == _placedAddresses.length)
+			_placedAddresses = Arrays.copyOf(_placedAddresses, count * 2);
+
+		int index = count;
+		while (index > 0 && _placedAddresses[index - 1] > address)
+			index--;
+		System.arraycopy(_placedAddresses, index, _placedAddresses, index + 1, count - index);
+		_placedAddresses[index] = address;
+		_placed.add(index, literal);
+	}
+
+	private LinkedHashMap<String, Literal> _literalMap;
+	/** 리터럴 내용 저장소 */
+	private final LiteralContent _content;
+	/** 주소가 할당되지 않은 리터럴. 추가된 순서대로 <code>_pendingHead</code>부터 꺼낸다 */
+	private final ArrayList<Literal> _pending;
+	private int _pendingHead;
+	/** 주소가 할당된 리터럴. 주소순으로 정렬되어 있다 */
+	private final ArrayList<Literal> _placed;
+	/** <code>_placed</code>와 같은 순서의 리터럴 주소 */
+	private int[] _placedAddresses;
+}
@@ -0,0 +1,297 @@
+package numeric;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import symbol.Symbol;
+import symbol.SymbolTable;
+
+/**
+ * 컴파일된 수식. EQU, WORD, 명령어 operand에 쓰이는 수식을 한 번만 해석해 두고, 심볼 테이블에 대해 여러 번 계산한다.
+ *
+ * <p>
+ * 수식에는 피연산자로 심볼, 10진수 상수, 16진수 상수(<code>X'F1'</code>), 현재 LOCCTR(<code>*</code>)와
+ * 괄호를 쓸 수 있고, 이항연산자 +, -와 단항연산자 -를 쓸 수 있다.
+ *
+ * <p>
+ * 연산자가 +, -뿐이므로 후위 표기 프로그램은 항상 <code>상수 + Σ 계수 × 피연산자</code> 꼴로 접힌다. 컴파일할 때 이를
+ * 미리 실행하여, 상수는 하나로 더하고 같은 심볼은 계수를 합쳐 둔다. 따라서 계산할 때는 스택 없이 심볼마다 주소를 한 번씩
+ * 찾아 더하기만 하며, 객체를 만들지 않는다.
+ *
+ * <p>
+ * 생성된 이후에는 변경되지 않으므로 여러 스레드에서 공유할 수 있다. 이 클래스는 캐시를 두지 않는다. 같은 수식을 다시
+ * 해석하지 않도록 하는 캐시는 <code>SymbolTable.compile()</code>이 심볼 테이블마다 따로 가지므로, 어셈블이 끝나면
+ * 심볼 테이블과 함께 버려진다.
+ */
+public final class Expression {
+	/**
+	 * 수식 문자열을 컴파일한다.
+	 *
+	 * @param formula 수식 문자열
+	 * @return 컴파일된 수식
+	 * @throws RuntimeException 잘못된 수식 포맷
+	 * @see SymbolTable#compile(String)
+	 */
+	public static Expression compile(String formula) throws RuntimeException {
+		return new Parser(formula).parse();
+	}
+
+	private Expression(long constant, int locctrMultiplier, long[] keys, String[] names, int[] multipliers) {
+		_constant = constant;
+		_locctrMultiplier = locctrMultiplier;
+		_keys = keys;
+		_names = names;
+		_multipliers = multipliers;
+	}
+
+	/**
+	 * 수식이 현재 LOCCTR(<code>*</code>) 하나로만 이루어졌는지 여부를 반환한다.
+	 *
+	 * @return <code>*</code> 하나인지 여부
+	 */
+	public boolean isLocctr() {
+		return _locctrMultiplier == 1 && _constant == 0 && _keys.length == 0;
+	}
+
+	/**
+	 * 수식이 심볼 하나로만 이루어졌는지 여부를 반환한다.
+	 *
+	 * @return 심볼 하나인지 여부
+	 */
+	public boolean isSymbol() {
+		return _keys.length == 1 && _multipliers[0] == 1 && _constant == 0 && _locctrMultiplier == 0;
+	}
+
+	/**
+	 * 수식에 남아 있는 심볼 수를 반환한다. 계수가 0이 되어 사라진 심볼은 세지 않는다.
+	 *
+	 * @return 심볼 수
+	 */
+	public int getSymbolCount() {
+		return _keys.length;
+	}
+
+	/**
+	 * 수식에 포함된 심볼의 명칭을 반환한다.
+	 *
+	 * @param index 심볼 순서. 수식에 처음 등장한 순서를 따른다.
+	 * @return 심볼 명칭
+	 */
+	public String getSymbolName(int index) {
+		return _names[index];
+	}
+
+	/**
+	 * 수식에 포함된 심볼에 곱하는 값을 반환한다. 예를 들어 <code>A-B</code>에서 B의 계수는 -1이다.
+	 *
+	 * @param index 심볼 순서
+	 * @return 계수
+	 */
+	public int getMultiplier(int index) {
+		return _multipliers[index];
+	}
+
+	/**
+	 * 심볼 테이블에 대해 수식을 계산한다. 외부 심볼(EXTREF)은 주소를 알 수 없으므로 0으로 계산하며, 호출하는 쪽에서
+	 * modification record로 남겨야 한다.
+	 *
+	 * @param symbolTable 심볼 테이블
+	 * @param locctr      <code>*</code>에 해당하는 location counter 값
+	 * @return 수식의 값
+	 * @throws RuntimeException 정의되지 않은 심볼.
+	 */
+	public long evaluate(SymbolTable symbolTable, int locctr) throws RuntimeException {
+		long value = _constant + (long) _locctrMultiplier * locctr;
+		for (int i = 0; i < _keys.length; i++) {
+			Optional<Symbol> symbol = symbolTable.search(_keys[i]);
+			if (symbol.isEmpty() || (symbol.get().getAddress().isEmpty() && !symbol.get().isReferSymbol()))
+				throw new RuntimeException("undefined symbol (" + _names[i] + ")");
+			if (symbol.get().getAddress().isPresent())
+				value += (long) _multipliers[i] * symbol.get().getAddress().get().getInteger();
+		}
+		return value;
+	}
+
+	/**
+	 * <code>evaluate()</code>가 정의되지 않은 심볼로 실패할지 미리 확인한다. 예외를 던지지 않는다.
+	 *
+	 * @param symbolTable 심볼 테이블
+	 * @return 처음으로 정의되지 않은 심볼의 순서. 모두 정의되었으면 -1
+	 */
+	public int findUndefined(SymbolTable symbolTable) {
+		for (int i = 0; i < _keys.length; i++) {
+			Optional<Symbol> symbol = symbolTable.search(_keys[i]);
+			if (symbol.isEmpty() || (symbol.get().getAddress().isEmpty() && !symbol.get().isReferSymbol()))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * 지금까지 정의된 심볼만으로 수식을 계산한다. 아직 정의되지 않은 심볼과 외부 심볼은 0으로 계산한다. pass1에서 뒤에
+	 * 정의될 심볼을 참조하는 operand를 계산할 때 사용한다.
+	 *
+	 * @param symbolTable 심볼 테이블
+	 * @param locctr      <code>*</code>에 해당하는 location counter 값
+	 * @return 수식의 값
+	 */
+	public long evaluatePartial(SymbolTable symbolTable, int locctr) {
+		long value = _constant + (long) _locctrMultiplier * locctr;
+		for (int i = 0; i < _keys.length; i++) {
+			Optional<Symbol> symbol = symbolTable.search(_keys[i]);
+			if (symbol.isPresent() && symbol.get().getAddress().isPresent())
+				value += (long) _multipliers[i] * symbol.get().getAddress().get().getInteger();
+		}
+		return value;
+	}
+
+	/**
+	 * 재귀 하강 방식으로 수식을 해석하면서, 피연산자마다 지금까지 곱해진 부호를 계수로 더한다.
+	 */
+	private static final class Parser {
+		Parser(String formula) {
+			_formula = formula;
+			_keys = new long[2];
+			_names = new String[2];
+			_multipliers = new int[2];
+		}
+
+		Expression parse() throws RuntimeException {
+			sum(1);
+			if (_position != _formula.length())
+				throw illegal();
+
+			// 계수가 0이 된 심볼은 뺀다
+			int count = 0;
+			for (int i = 0; i < _count; i++) {
+				if (_multipliers[i] == 0)
+					continue;
+				_keys[count] = _keys[i];
+				_names[count] = _names[i];
+				_multipliers[count++] = _multipliers[i];
+			}
+			return new Expression(_constant, _locctr, Arrays.copyOf(_keys, count), Arrays.copyOf(_names, count),
+					Arrays.copyOf(_multipliers, count));
+		}
+
+		// sum := unary (('+' | '-') unary)*
+		private void sum(int sign) throws RuntimeException {
+			unary(sign);
+			while (_position < _formula.length()) {
+				char c = _formula.charAt(_position);
+				if (c != '+' && c != '-')
+					break;
+				_position++;
+				unary(c == '+' ? sign : -sign);
+			}
+		}
+
+		// unary := '-' unary | '(' sum ')' | '*' | 상수 | 심볼
+		private void unary(int sign) throws RuntimeException {
+			if (_position == _formula.length())
+				throw illegal();
+
+			char c = _formula.charAt(_position);
+			if (c == '-') {
+				_position++;
+				unary(-sign);
+			} else if (c == '(') {
+				_position++;
+				sum(sign);
+				if (_position == _formula.length() || _formula.charAt(_position) != ')')
+					throw illegal();
+				_position++;
+			} else if (c == '*') {
+				_position++;
+				_locctr += sign;
+			} else if (c >= '0' && c <= '9') {
+				_constant += sign * number(10, _position, digitsEnd(_position));
+			} else if (c == 'X' && _position + 1 < _formula.length()
+					&& _formula.charAt(_position + 1) == '\'') {
+				int start = _position + 2;
+				int end = _formula.indexOf('\'', start);
+				if (end < 0)
+					throw illegal();
+				_constant += sign * number(16, start, end);
+				_position = end + 1;
+			} else {
+				symbol(sign);
+			}
+		}
+
+		private void symbol(int sign) throws RuntimeException {
+			int start = _position;
+			while (_position < _formula.length() && Character.isLetterOrDigit(_formula.charAt(_position)))
+				_position++;
+			String name = _formula.substring(start, _position);
+			long key = Symbol.pack(name);
+			if (key == Symbol.NO_KEY)
+				throw illegal();
+
+			for (int i = 0; i < _count; i++) {
+				if (_keys[i] == key) {
+					_multipliers[i] += sign;
+					return;
+				}
+			}
+			if (_count == _keys.length) {
+				_keys = Arrays.copyOf(_keys, _count * 2);
+				_names = Arrays.copyOf(_names, _count * 2);
+				_multipliers = Arrays.copyOf(_multipliers, _count * 2);
+			}
+			_keys[_count] = key;
+			_names[_count] = name;
+			_multipliers[_count++] = sign;
+		}
+
+		private int digitsEnd(int start) {
+			int end = start;
+			while (end < _formula.length() && _formula.charAt(end) >= '0' && _formula.charAt(end) <= '9')
+				end++;
+			return end;
+		}
+
+		/**
+		 * <code>[start, end)</code> 범위의 숫자를 읽고 그 뒤로 위치를 옮긴다.
+		 */
+		private long number(int radix, int start, int end) throws RuntimeException {
+			if (end == start || end - start > MAX_DIGITS[radix == 16 ? 1 : 0])
+				throw illegal();
+
+			long value = 0;
+			for (int i = start; i < end; i++) {
+				int digit = Character.digit(_formula.charAt(i), radix);
+				if (digit < 0)
+					throw illegal();
+				value = value * radix + digit;
+			}
+			_position = end;
+			return value;
+		}
+
+		private RuntimeException illegal() {
+			return new RuntimeException("illegal expression (" + _formula + ")");
+		}
+
+		/** long 범위를 넘지 않는 10진수, 16진수 상수의 최대 자리수 */
+		private static final int[] MAX_DIGITS = { 18, 15 };
+
+		private final String _formula;
+		private int _position;
+		private long _constant;
+		private int _locctr;
+		private long[] _keys;
+		private String[] _names;
+		private int[] _multipliers;
+		private int _count;
+	}
+
+	/** 모든 상수를 더한 값 */
+	private final long _constant;
+	/** <code>*</code>에 곱하는 값 */
+	private final int _locctrMultiplier;
+	/** 수식에 포함된 심볼의 키. <code>Symbol.pack()</code>으로 만든다 */
+	private final long[] _keys;
+	private final String[] _names;
+	private final int[] _multipliers;
+}
@@ -0,0 +1,77 @@
+package numeric;
+
+import java.io.IOException;
+
+/**
+ * 출력 파일 작성을 위한 16진수 인코딩 도구. 중간 문자열을 만들지 않고 출력 대상에 바로 문자를 쓴다.
+ */
+public final class Hex {
+	private Hex() {
+	}
+
+	/**
+	 * 정수를 대문자 16진수로 출력한다. <code>String.format("%0nX", value)</code>와 같은 결과를 낸다. 음수는 32-bit
+	 * 2의 보수로 출력한다.
+	 *
+	 * @param out      출력 대상
+	 * @param value    출력할 값
+	 * @param minWidth 최소 자리수. 모자란 자리는 0으로 채운다.
+	 * @throws IOException 출력 실패.
+	 */
+	public static void append(Appendable out, int value, int minWidth) throws IOException {
+		appendRange(out, value, 0, Math.max(minWidth, digits(value)));
+	}
+
+	/**
+	 * <code>String.format("%0nX", value).substring(from)</code>과 같은 결과를 출력한다.
+	 *
+	 * @param out      출력 대상
+	 * @param value    출력할 값
+	 * @param from     출력을 시작할 자리 (앞에서부터 0)
+	 * @param minWidth 최소 자리수
+	 * @throws IOException 출력 실패.
+	 */
+	public static void appendFrom(Appendable out, int value, int from, int minWidth) throws IOException {
+		appendRange(out, value, from, Math.max(minWidth, digits(value)));
+	}
+
+	/**
+	 * <code>String.format("%0nX", value)</code>의 길이를 반환한다.
+	 *
+	 * @param value    값
+	 * @param minWidth 최소 자리수
+	 * @return 16진수 문자열의 길이
+	 */
+	public static int length(int value, int minWidth) {
+		return Math.max(minWidth, digits(value));
+	}
+
+	/**
+	 * 문자열을 출력하고, 모자란 폭만큼 뒤에 공백을 채운다. <code>String.format("%-ns", str)</code>와 같은 결과를
+	 * 낸다.
+	 *
+	 * @param out   출력 대상
+	 * @param str   출력할 문자열
+	 * @param width 최소 폭
+	 * @throws IOException 출력 실패.
+	 */
+	public static void appendPadded(Appendable out, CharSequence str, int width) throws IOException {
+		out.append(str);
+		for (int i = str.length(); i < width; i++)
+			out.append(' ');
+	}
+
+	private static void appendRange(Appendable out, int value, int from, int width) throws IOException {
+		for (int i = from; i < width; i++) {
+			int shift = (width - 1 - i) * 4;
+			out.append(shift >= 32 ? '0' : DIGITS[(value >>> shift) & 0xF]);
+		}
+	}
+
+	private static int digits(int value) {
+		return Math.max(1, (35 - Integer.numberOfLeadingZeros(value)) / 4);
+	}
+
+	private static final char[] DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D',
+			'E', 'F' };
+}
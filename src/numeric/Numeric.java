@@ -2,21 +2,17 @@ package numeric;
 
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.Optional;
 
-import symbol.Symbol;
 import symbol.SymbolTable;
 
 public class Numeric {
 	// refer 을 담기위한 numeric
 	public Numeric(String constant, int n) throws RuntimeException {
 		_memoryName = constant;
-        _value = new BigInteger("0");
-        _relativeMap = new HashMap<>();
+        _value = 0;
+        _wide = null;
+        _expression = null;
     }
 
 	/**
@@ -29,22 +25,8 @@ public class Numeric {
 		Numeric numeric = evaluateConstant(constant);
 
 		_value = numeric._value;
-		_relativeMap = numeric._relativeMap;
-	}
-
-	/**
-	 * 수치값 객체를 초기화한다. 수치는 <code>symbol.address + value</code>를 가진다.
-	 *
-	 * @param value  절대값
-	 * @param symbol 상대값에서의 주소 심볼
-	 *               BUFFER - 100 같은거
-	 */
-	public Numeric(int value, Symbol symbol) {
-		HashMap<Symbol, Integer> map = new HashMap<Symbol, Integer>();
-		map.put(symbol, 1);
-
-		_value = new BigInteger(Integer.toString(value));
-		_relativeMap = map;
+		_wide = numeric._wide;
+		_expression = null;
 	}
 
 	/**
@@ -56,29 +38,29 @@ public class Numeric {
 	 * @throws RuntimeException 잘못된 수식 포맷
 	 */
 	public Numeric(String formula, SymbolTable symbolTable, int locctr) throws RuntimeException {
-		Numeric numeric = evaluateFormula(formula, symbolTable, locctr);
+		// 수식은 심볼 테이블마다 한 번만 컴파일하고, 아직 정의되지 않은 심볼은 0으로 계산한다. pass2에서는 다시 계산한다
+		Expression expression = symbolTable.compile(formula);
 
-		_value = numeric._value;
-		_relativeMap = numeric._relativeMap;
-	}
-
-	private Numeric(BigInteger value, HashMap<Symbol, Integer> relativeMap) {
-		_value = value;
-		_relativeMap = relativeMap;
+		_memoryName = expression.isLocctr() ? null : formula;
+		_value = expression.evaluatePartial(symbolTable, locctr);
+		_wide = null;
+		_expression = expression;
 	}
 
 	/**
-	 * 수치값에 단일 심볼이 포함된 경우, 해당 심볼의 명칭을 반환한다.
+	 * 절대값만 가지는 수치값 객체를 생성한다. 주소나 크기처럼 이미 계산된 값을 문자열로 바꾸지 않고 바로 사용한다.
 	 *
-	 * @return 심볼의 명칭. 수치값에 심볼이 없거나 하나보다 많은 경우 empty <code>Optional</end>.
+	 * @param value 절대값
+	 * @return 수치값 객체
 	 */
-	public Optional<String> getName() {
-		if (_relativeMap.size() != 1)
-			return Optional.empty();
-		String name = _relativeMap.keySet().stream()
-				.map(x -> x.getName())
-				.collect(Collectors.joining(""));
-		return Optional.of(name);
+	public static Numeric of(int value) {
+		return new Numeric(value, null);
+	}
+
+	private Numeric(long value, byte[] wide) {
+		_value = value;
+		_wide = wide;
+		_expression = null;
 	}
 
 	/**
@@ -87,7 +69,13 @@ public class Numeric {
 	 * @return 절대값
 	 */
 	public int getInteger() {
-		return _value.intValue();
+		if (_wide == null)
+			return (int) _value;
+
+		// long 범위를 넘는 값은 항상 8바이트보다 길다
+		int length = _wide.length;
+		return (_wide[length - 4] & 0xFF) << 24 | (_wide[length - 3] & 0xFF) << 16
+				| (_wide[length - 2] & 0xFF) << 8 | (_wide[length - 1] & 0xFF);
 	}
 
 
@@ -98,36 +86,21 @@ public class Numeric {
 	 */
 	public int getSize() {
 		if(_memoryName == null){
-			return (_value.toString(16).length() + 1) / 2;
+			return (toHexString().length() + 1) / 2;
 		}else if(_memoryName.contains("=C")){
-			String convertedResult = String.format("%X", _value);
+			String convertedResult = toHexString();
 			return (convertedResult.length() + 1) / 2;
 		}
 		return 0;
 	}
 
 	/**
-	 * 수치값이 절대값으로만 이루어졌는지 여부를 반환한다.
-	 *
-	 * @return 절대값으로만 이루어졌는지 여부
-	 */
-	public boolean isAbsolute() {
-		return _relativeMap.size() == 0;
-	}
-
-	/**
-	 * 수치값이 단일 심볼의 상대값으로 이루어졌는지 여부를 반환한다.
+	 * 수치값이 0 이상의 int 범위에 있는지 여부를 반환한다.
 	 *
-	 * @return 단일 심볼의 상대값으로 이루어졌는지 여부
+	 * @return 0 이상의 int 범위 값인지 여부
 	 */
-	public boolean isRelative() {
-		if (_relativeMap.size() != 1)
-			return false;
-
-		boolean isOnlyOneMultiplier = _relativeMap.values().stream()
-				.map(x -> x == 1 ? 1 : 2)
-				.reduce(0, (acc, x) -> acc + x) == 1;
-		return isOnlyOneMultiplier == true;
+	public boolean isSmallAbsolute() {
+		return _wide == null && _value >= 0 && _value <= Integer.MAX_VALUE;
 	}
 
 	/**
@@ -135,19 +108,7 @@ public class Numeric {
 	 */
 	@Override
 	public String toString() {
-		String value = String.format("0x%s", _value.toString(16).toUpperCase());
-		String relative = _relativeMap.entrySet().stream()
-				.map(x -> {
-					String symbolName = x.getKey().getName();
-					int multiplier = x.getValue();
-
-					String sign = multiplier > 0 ? "+" : "-";
-					String mulStr = Math.abs(multiplier) == 1 ? "" : "*" + multiplier;
-
-					return sign + symbolName + mulStr;
-				})
-				.collect(Collectors.joining(""));
-		return value.equals("") ? relative.substring(1) : value + relative;
+		return "0x" + toHexString().toUpperCase();
 	}
 
 	/**
@@ -162,110 +123,75 @@ public class Numeric {
 	private Numeric evaluateConstant(String constant) throws RuntimeException {
 		// TODO: 상수 문자열을 파싱하여 수치값 객체를 생성 및 반환하기.
 
-		// ex. 상수 문자열이 "3"인 경우 Numeric{_value:3, _relativeMap:[]}을 반환하기.
-		// ex. 상수 문자열이 "C'EOF'"인 경우 Numeric{_value:0x454F46, _relativeMap:[]}을 반환하기.
-		// ex. 상수 문자열이 "X'F1'"인 경우 Numeric{_value:0xF1, _relativeMap:[]}을 반환하기.
-
-		BigInteger value;
-		HashMap<Symbol, Integer> hashMap = new HashMap<>();
+		// ex. 상수 문자열이 "3"인 경우 Numeric{_value:3}을 반환하기.
+		// ex. 상수 문자열이 "C'EOF'"인 경우 Numeric{_value:0x454F46}을 반환하기.
+		// ex. 상수 문자열이 "X'F1'"인 경우 Numeric{_value:0xF1}을 반환하기.
 
 		// =C'EOF'케이스 처리
 		if(constant.charAt(0) == '=' && constant.charAt(1) == 'C'){
 			// 음 BigInteger이 숫자만 받고 문자열은 안받는구나. 일단 그래서 십진수로만 저장했다
+			if (constant.lastIndexOf('\'') <= constant.indexOf('\'') + 1)
+				throw new RuntimeException("empty character constant (" + constant + ")");
 			String[] split = constant.split("'");
 
 			byte[] getBytesFromString = split[1].getBytes(StandardCharsets.UTF_8);
-			value = new BigInteger(getBytesFromString);
-
 			_memoryName = constant;
 
+			// 8바이트 이하는 BigInteger와 같이 첫 바이트를 부호로 보아 long에 담는다
+			if (getBytesFromString.length > Long.BYTES)
+				return wide(new BigInteger(getBytesFromString));
+
+			long value = getBytesFromString[0];
+			for (int i = 1; i < getBytesFromString.length; i++)
+				value = value << 8 | (getBytesFromString[i] & 0xFF);
+			return new Numeric(value, null);
 		}
 		else if(constant.contains("'")){	// =X'F1'케이스
 			String[] split = constant.split("'");
 
-			value = BigInteger.valueOf(Integer.parseInt(split[1],16));
+			long value = Integer.parseInt(split[1],16);
 
 			_memoryName = constant;
+			return new Numeric(value, null);
 		}
 		else{	// 그외
-			value = new BigInteger(constant);
+			// 짧은 10진수만 직접 계산하고, 부호나 긴 숫자 및 잘못된 형식은 BigInteger에 맡긴다
+			int length = constant.length();
+			if (length == 0 || length > MAX_LONG_DIGITS)
+				return wide(new BigInteger(constant));
+
+			long value = 0;
+			for (int i = 0; i < length; i++) {
+				char c = constant.charAt(i);
+				if (c < '0' || c > '9')
+					return wide(new BigInteger(constant));
+				value = value * 10 + (c - '0');
+			}
+			return new Numeric(value, null);
 		}
-
-		return new Numeric(value, hashMap);
-	}
-
-	private static int isPlusMinus(String s) throws RuntimeException {
-		if(s.contains("+"))
-			return 1;
-		else if(s.contains("-"))
-			return 2;
-
-		return 0;
 	}
 
 	/**
-	 * 수식 문자열을 파싱하고, 해당 수식을 계산하여 수치값 객체로 반환한다. 수식에는 피연산자로 괄호, 특수 기호(<code>*</code>),
-	 * 심볼, 상수가 포함될 수 있으며, 이항연산자로 +, -가 포함될 수 있으며, 단항연산자로 -가 포함될 수 있다.
+	 * BigInteger 값을 가지는 수치값 객체를 생성한다. long 범위에 들어가는 값은 long으로 저장한다.
 	 *
-	 * @param formula     수식 문자열
-	 * @param symbolTable 심볼 테이블
-	 * @param locctr      location counter 값
+	 * @param value 절대값
 	 * @return 수치값 객체
-	 * @throws RuntimeException 잘못된 수식 포맷
 	 */
-	private Numeric evaluateFormula(String formula, SymbolTable symbolTable, int locctr)
-			throws RuntimeException {
-		// TODO: 수식을 계산하여 수치값 객체를 생성 및 반환하기.
-		// Q. evaluateOperand 함수와 차이점은?		여기서 나는 단지 +, -연산만 해주었다. 나머지는 ( ), -단항은 제외
-
-		// ex. 피연산자 문자열이 "BUFEND"인 경우 Numeric{_value:0, _relativeMap:[(BUFEND),+1)]}을
-		// 반환하기.
-		// Q. 피연산자 문자열이 "*"인 경우는??	ok
-
-		// 위에거와 합쳤다
-
-		Numeric n = null;
-
-		int whichNum = isPlusMinus(formula);
-		if(whichNum != 0){
-			try {
-				String[] split = formula.split("[-+]");
-				int a = symbolTable.search(split[0]).get().getAddress().get().getInteger();
-				int b = symbolTable.search(split[1]).get().getAddress().get().getInteger();
-				if (whichNum == 1) {
-					n = new Numeric(String.valueOf(a + b));
-				} else if (whichNum == 2) {
-					n = new Numeric(String.valueOf(a - b));
-				}
-				_memoryName = formula;
-			}catch (RuntimeException e){
-				_memoryName = formula;
-				n = new Numeric("0");
-			}
-		}
-		else if(formula.contains("*")){
-			n = new Numeric(String.valueOf(locctr));
-		}else{
-			// BUFEND같은 케이스 해주기
-			_memoryName = formula;
-			n = new Numeric(String.valueOf(locctr));
-		}
-		return n;
+	private static Numeric wide(BigInteger value) {
+		if (value.bitLength() < Long.SIZE)
+			return new Numeric(value.longValue(), null);
+		return new Numeric(0, value.toByteArray());
 	}
 
-
-
 	/**
-	 * 피연산자로 시작하는 수식 문자열에서 피연산자의 길이를 반환한다.
+	 * 절대값을 부호가 있는 16진수 문자열로 반환한다. <code>BigInteger.toString(16)</code>과 같은 형식이다.
 	 *
-	 * @param formula 피연산자로 시작하는 수식 문자열
-	 * @return 피연산자의 길이
-	 * @throws RuntimeException 잘못된 수식 포맷
+	 * @return 16진수 문자열
 	 */
-	private static int getOperandLength(String formula) throws RuntimeException {
-		// TODO: 함수를 구현하고, evaluateOperand 혹은 evaluateFormula 함수에서 사용하기.
-
-		return formula.length();
+	private String toHexString() {
+		if (_wide != null)
+			return new BigInteger(_wide).toString(16);
+		return _value < 0 ? "-" + Long.toHexString(-_value) : Long.toHexString(_value);
 	}
 
 	// String _memoryName 반환
@@ -273,14 +199,24 @@ public class Numeric {
 		return _memoryName;
 	}
 
-	public BigInteger getValue(){
-		return _value;
+	/**
+	 * 수식으로 초기화한 수치값의 컴파일된 수식을 반환한다. pass2에서 모든 심볼이 정의된 뒤에 다시 계산할 때 사용한다.
+	 *
+	 * @return 컴파일된 수식. 상수로 초기화한 경우 empty <code>Optional</code>.
+	 */
+	public Optional<Expression> getExpression() {
+		return Optional.ofNullable(_expression);
 	}
 
+	/** 직접 계산해도 long 범위를 넘지 않는 10진수 자릿수 */
+	private static final int MAX_LONG_DIGITS = 18;
 
-	/** C'EOFFFFFFFFFFFFFFFFFFFFF'와 같은 입력에서도 동작하도록 하기 위하여 BigInteger를 사용함 */
 	private String _memoryName;
-	private final BigInteger _value;
+	/** 절대값. <code>_wide</code>가 있으면 사용하지 않는다 */
+	private final long _value;
+	/** C'EOFFFFFFFFFFFFFFFFFFFFF'와 같이 long 범위를 넘는 절대값 (2의 보수, big endian). 그 외에는 null */
+	private final byte[] _wide;
 
-	private final HashMap<Symbol, Integer> _relativeMap;
+	/** 수식으로 초기화한 경우의 컴파일된 수식. 그 외에는 null */
+	private final Expression _expression;
 }
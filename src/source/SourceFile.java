@@ -0,0 +1,239 @@
+package source;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class SourceFile {
+	/**
+	 * 소스 코드 파일을 메모리에 매핑하고, 라인 단위의 위치 정보를 초기화한다. 파일 내용은 복사하지 않으며, SIC/XE 소스 코드는
+	 * ASCII 바이트로 취급한다.
+	 *
+	 * @param fileName 소스 코드 파일 명
+	 * @return 소스 코드 객체
+	 * @throws FileNotFoundException 파일이 존재하지 않음.
+	 * @throws IOException           파일 읽기 실패.
+	 */
+	public static SourceFile map(String fileName) throws FileNotFoundException, IOException {
+		try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IOException("too large source file (" + fileName + ")");
+
+			return new SourceFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(fileName);
+		}
+	}
+
+	/**
+	 * 메모리에 올라와 있는 소스 코드로 객체를 초기화한다.
+	 *
+	 * @param content 소스 코드 바이트 배열
+	 * @return 소스 코드 객체
+	 */
+	public static SourceFile of(byte[] content) {
+		return new SourceFile(ByteBuffer.wrap(content));
+	}
+
+	private SourceFile(ByteBuffer buffer) {
+		_buffer = buffer;
+
+		int[] starts = new int[64];
+		int[] lengths = new int[64];
+		int count = 0;
+
+		int limit = buffer.limit();
+		int start = 0;
+		while (start < limit) {
+			int end = start;
+			while (end < limit && buffer.get(end) != '\n')
+				end++;
+
+			// BufferedReader.readLine과 동일하게 줄 끝의 \r은 제외한다
+			int length = end - start;
+			if (length > 0 && buffer.get(end - 1) == '\r')
+				length--;
+
+			if (count == starts.length) {
+				starts = Arrays.copyOf(starts, count * 2);
+				lengths = Arrays.copyOf(lengths, count * 2);
+			}
+			starts[count] = start;
+			lengths[count] = length;
+			count++;
+
+			start = end + 1;
+		}
+
+		_lineStarts = starts;
+		_lineLengths = lengths;
+		_lineCount = count;
+	}
+
+	/**
+	 * 소스 코드의 라인 수를 반환한다.
+	 *
+	 * @return 라인 수
+	 */
+	public int lineCount() {
+		return _lineCount;
+	}
+
+	/**
+	 * 라인의 시작 위치를 반환한다.
+	 *
+	 * @param line 라인 번호 (0부터 시작)
+	 * @return 버퍼 내에서의 시작 위치
+	 */
+	public int lineOffset(int line) {
+		return _lineStarts[line];
+	}
+
+	/**
+	 * 라인의 길이를 반환한다. 줄바꿈 문자는 포함하지 않는다.
+	 *
+	 * @param line 라인 번호 (0부터 시작)
+	 * @return 라인의 길이
+	 */
+	public int lineLength(int line) {
+		return _lineLengths[line];
+	}
+
+	/**
+	 * 버퍼의 특정 위치에 있는 문자를 반환한다.
+	 *
+	 * @param offset 버퍼 내에서의 위치
+	 * @return ASCII 문자
+	 */
+	public char charAt(int offset) {
+		return (char) (_buffer.get(offset) & 0xFF);
+	}
+
+	/**
+	 * 한 라인을 탭 문자로 나누어 각 필드의 위치와 길이를 기록한다. <code>String.split("\t")</code>와
+	 * 동일하게 뒤쪽의 빈 필드는 세지 않는다.
+	 *
+	 * @param line    라인 번호 (0부터 시작)
+	 * @param offsets 필드의 시작 위치를 기록할 배열
+	 * @param lengths 필드의 길이를 기록할 배열
+	 * @return 필드 수. 배열의 길이를 넘는 필드는 기록하지 않는다.
+	 */
+	public int fields(int line, int[] offsets, int[] lengths) {
+		int start = _lineStarts[line];
+		int end = start + _lineLengths[line];
+		int max = offsets.length;
+
+		int count = 0;
+		int nonEmpty = 0;
+		int fieldStart = start;
+		for (int i = start; i <= end && count < max; i++) {
+			if (i == end || _buffer.get(i) == '\t') {
+				offsets[count] = fieldStart;
+				lengths[count] = i - fieldStart;
+				count++;
+				if (i > fieldStart)
+					nonEmpty = count;
+				fieldStart = i + 1;
+			}
+		}
+
+		// 빈 라인은 빈 필드 하나로 취급한다
+		if (start == end)
+			return 1;
+		return nonEmpty;
+	}
+
+	/**
+	 * 버퍼의 일부분을 문자열로 만든다.
+	 *
+	 * @param offset 버퍼 내에서의 시작 위치
+	 * @param length 길이
+	 * @return ASCII로 해석한 문자열
+	 */
+	public String string(int offset, int length) {
+		byte[] bytes = new byte[length];
+		_buffer.get(offset, bytes, 0, length);
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * 한 라인 전체를 문자열로 만든다. 에러 메시지 출력 용도로 사용한다.
+	 *
+	 * @param line 라인 번호 (0부터 시작)
+	 * @return 라인 문자열
+	 */
+	public String line(int line) {
+		return string(_lineStarts[line], _lineLengths[line]);
+	}
+
+	/**
+	 * 소스 코드를 control section 단위로 나눈다. CSECT를 포함한 라인에서 새로운 section이 시작되며, 마지막 section을
+	 * 제외한 각 section의 끝에는 소스 코드의 마지막 줄(END)을 덧붙인다.
+	 *
+	 * @return section별로 나누어진 소스 코드
+	 */
+	public ArrayList<SourceSection> divideSections() {
+		ArrayList<SourceSection> divided = new ArrayList<SourceSection>();
+		if (_lineCount == 0)
+			return divided;
+
+		int lastLine = _lineCount - 1;
+
+		int[] lines = new int[16];
+		int size = 0;
+		for (int i = 0; i < _lineCount; i++) {
+			// CSECT 를 포함할시 만약 lines 가 비어있으면 그대로 넣어주고, 아니면 새로운 section 에 저장한다
+			if (containsCsect(i)) {
+				if (size != 0) {
+					lines = append(lines, size++, lastLine);
+					divided.add(new SourceSection(this, Arrays.copyOf(lines, size)));
+					size = 0;
+					lines = append(lines, size++, i);
+				}
+			} else {
+				lines = append(lines, size++, i);
+			}
+		}
+		// 마지막 section 을 더해준다
+		if (size != 0) {
+			divided.add(new SourceSection(this, Arrays.copyOf(lines, size)));
+		}
+		return divided;
+	}
+
+	private boolean containsCsect(int line) {
+		int start = _lineStarts[line];
+		int end = start + _lineLengths[line] - CSECT.length;
+		for (int i = start; i <= end; i++) {
+			int j = 0;
+			while (j < CSECT.length && _buffer.get(i + j) == CSECT[j])
+				j++;
+			if (j == CSECT.length)
+				return true;
+		}
+		return false;
+	}
+
+	private static int[] append(int[] array, int index, int value) {
+		if (index == array.length)
+			array = Arrays.copyOf(array, index * 2);
+		array[index] = value;
+		return array;
+	}
+
+	private static final byte[] CSECT = { 'C', 'S', 'E', 'C', 'T' };
+
+	/** 매핑된 파일 내용. 읽기 전용이며 절대 위치로만 접근한다. */
+	private final ByteBuffer _buffer;
+	private final int[] _lineStarts;
+	private final int[] _lineLengths;
+	private final int _lineCount;
+}
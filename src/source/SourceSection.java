@@ -0,0 +1,45 @@
+package source;
+
+public class SourceSection {
+	/**
+	 * 하나의 control section에 속하는 소스 코드 라인 목록을 초기화한다.
+	 *
+	 * @param source 소스 코드
+	 * @param lines  section에 속하는 라인 번호 목록
+	 */
+	SourceSection(SourceFile source, int[] lines) {
+		_source = source;
+		_lines = lines;
+	}
+
+	/**
+	 * section이 속한 소스 코드를 반환한다.
+	 *
+	 * @return 소스 코드
+	 */
+	public SourceFile getSource() {
+		return _source;
+	}
+
+	/**
+	 * section에 속하는 라인 수를 반환한다.
+	 *
+	 * @return 라인 수
+	 */
+	public int size() {
+		return _lines.length;
+	}
+
+	/**
+	 * section 내의 i번째 라인이 소스 코드에서 몇 번째 라인인지 반환한다.
+	 *
+	 * @param index section 내에서의 순서
+	 * @return 소스 코드에서의 라인 번호 (0부터 시작)
+	 */
+	public int lineAt(int index) {
+		return _lines[index];
+	}
+
+	private final SourceFile _source;
+	private final int[] _lines;
+}
@@ -1,19 +1,52 @@
 package symbol;
 
+import java.io.IOException;
 import java.util.Optional;
 
+import numeric.Hex;
 import numeric.Numeric;
 
 public class Symbol {
+	/** 심볼 명칭으로 만들 수 없는 문자열의 키. 어떤 심볼과도 일치하지 않는다 */
+	public static final long NO_KEY = 0;
+
+	/** 심볼 명칭의 최대 길이 */
+	public static final int MAX_LENGTH = 6;
+
+	/** 참조 위치 연결 목록이 비어 있음을 나타내는 값 */
+	public static final int NO_FIXUP = -1;
+
 	/**
 	 * 문자열이 심볼 문자열 형태인지 판별한다.
 	 * 
 	 * @param symbol 판별할 문자열
 	 * @return 심볼 문자열로 사용 가능한 형태인지 여부
 	 */
-	public static boolean isSymbol(String symbol) {
-		String symbolRegex = "^[a-zA-Z][a-zA-Z0-9]*$";
-		return symbol.matches(symbolRegex) && symbol.length() <= 6;
+	public static boolean isSymbol(CharSequence symbol) {
+		return pack(symbol) != NO_KEY;
+	}
+
+	/**
+	 * 심볼 명칭을 <code>long</code> 키로 만든다. 각 글자를 8비트씩 이어 붙이므로 서로 다른 명칭은 서로 다른 키가
+	 * 된다. 명칭 검사를 함께 하며, 문자열을 만들지 않는다.
+	 * 
+	 * @param symbol 심볼 명칭
+	 * @return 키. 영문자로 시작하고 영문자와 숫자로만 이루어진 <code>MAX_LENGTH</code>자 이하의 문자열이 아니면
+	 *         <code>NO_KEY</code>.
+	 */
+	public static long pack(CharSequence symbol) {
+		int length = symbol.length();
+		if (length == 0 || length > MAX_LENGTH || !isLetter(symbol.charAt(0)))
+			return NO_KEY;
+
+		long key = symbol.charAt(0);
+		for (int i = 1; i < length; i++) {
+			char c = symbol.charAt(i);
+			if (!isLetter(c) && (c < '0' || c > '9'))
+				return NO_KEY;
+			key = key << 8 | c;
+		}
+		return key;
 	}
 
 	/**
@@ -43,6 +76,34 @@ public class Symbol {
 		return _state == State.EXTERNAL;
 	}
 
+	/**
+	 * operand에서 먼저 등장하여 아직 주소가 정해지지 않은 일반 심볼인지 판별한다.
+	 * 
+	 * @return 주소가 정해지지 않은 일반 심볼인지 여부
+	 */
+	public boolean isUndefined() {
+		return _state == State.ADDRESS_NOT_ASSIGNED;
+	}
+
+	/**
+	 * 주소가 정해지지 않은 심볼을 참조한 위치의 연결 목록(fixup chain)의 첫 번호를 반환한다. 번호가 가리키는 대상은 목록을
+	 * 만든 쪽에서 정한다.
+	 * 
+	 * @return 첫 번호. 목록이 비어 있으면 <code>NO_FIXUP</code>
+	 */
+	public int getFixups() {
+		return _fixups;
+	}
+
+	/**
+	 * 참조 위치 연결 목록의 첫 번호를 지정한다.
+	 * 
+	 * @param fixups 첫 번호. 목록을 비우려면 <code>NO_FIXUP</code>
+	 */
+	public void setFixups(int fixups) {
+		_fixups = fixups;
+	}
+
 	/**
 	 * 심볼의 정보를 문자열로 반환한다. 디버그 용도로 사용한다.
 	 */
@@ -58,6 +119,31 @@ public class Symbol {
 		return formatted;
 	}
 
+	/**
+	 * 심볼의 정보를 출력 대상에 바로 쓴다. <code>toString()</code>과 같은 내용을 출력한다. 심볼 테이블 출력 용도로
+	 * 사용한다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException 출력 실패.
+	 */
+	public void write(Appendable out) throws IOException {
+		// 주소가 상대값을 가지거나 int로 표현되지 않는 경우는 드물기 때문에 문자열로 처리한다
+		if (_state != State.EXTERNAL && _address.isPresent() && !_address.get().isSmallAbsolute()) {
+			out.append(toString());
+			return;
+		}
+
+		Hex.appendPadded(out, _name, 12);
+		if (_state == State.EXTERNAL) {
+			out.append("REF");
+		} else if (_address.isEmpty()) {
+			out.append("(not assigned)");
+		} else {
+			out.append("0x");
+			Hex.append(out, _address.get().getInteger(), 1);
+		}
+	}
+
 	public Optional<Numeric> getAddress() {
 		return _address;
 	}
@@ -71,7 +157,7 @@ public class Symbol {
 	 * @throws RuntimeException 부적절한 심볼 명칭
 	 */
 	static Symbol createRepSymbol(String name, int address) throws RuntimeException {
-		Numeric n = new Numeric(String.valueOf(address));
+		Numeric n = Numeric.of(address);
 
         return new Symbol(name, Optional.of(n), State.REP_SECTION);
 	}
@@ -128,14 +214,29 @@ public class Symbol {
 		_state = State.ADDRESS_ASSIGNED;
 	}
 
+	/**
+	 * 심볼 명칭에 해당하는 키를 반환한다.
+	 * 
+	 * @return <code>pack()</code>으로 만든 키
+	 */
+	long getKey() {
+		return _key;
+	}
+
 	private Symbol(String name, Optional<Numeric> address, State state) throws RuntimeException {
-		if (!isSymbol(name))
+		long key = pack(name);
+		if (key == NO_KEY)
 			throw new RuntimeException("illegal symbol name");
 		_name = name;
+		_key = key;
 		_address = address;
 		_state = state;
 	}
 
+	private static boolean isLetter(char c) {
+		return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+	}
+
 	/**
 	 * 심볼의 상태값
 	 * 
@@ -170,6 +271,9 @@ public class Symbol {
 	}
 
 	private final String _name;
+	private final long _key;
 	private Optional<Numeric> _address;
 	private State _state;
+	/** 주소가 정해지기 전에 이 심볼을 참조한 위치의 연결 목록 */
+	private int _fixups = NO_FIXUP;
 }
@@ -1,174 +1,537 @@
-package symbol;
-
-import java.util.LinkedHashMap;
-import java.util.Optional;
-import java.util.stream.Collectors;
-
-import numeric.Numeric;
-
-public class SymbolTable {
-	/**
-	 * 심볼 테이블 객체를 초기화한다.
-	 */
-	public SymbolTable() {
-		_symbolMap = new LinkedHashMap<String, Symbol>();
-		_repSymbol = Optional.empty();
-	}
-
-	/**
-	 * 주소값이 정해지지 않은 심볼을 추가한다.
-	 * 
-	 * @param name 심볼 명칭
-	 * @return 심볼 객체
-	 * @throws RuntimeException 잘못된 심볼 생성 시도
-	 */
-	public Symbol put(String name) throws RuntimeException {
-		// TODO: 예외 처리하기 (exception)
-
-		Symbol symbol = Symbol.createAddressNotAssignedSymbol(name);
-		_symbolMap.put(name, symbol);
-		return symbol;
-	}
-
-	/**
-	 * 주소값이 정해진 심볼을 추가한다.
-	 * 
-	 * @param name    심볼 명칭
-	 * @param address 심볼 주소
-	 * @return 심볼 객체
-	 * @throws RuntimeException 잘못된 심볼 생성 시도
-	 */
-	public Symbol put(String name, int address) throws RuntimeException {
-		// TODO: 심볼 추가하기. 만약 심볼이 이미 존재하고 해당 심볼이 주소가 지정되지 않은 심볼일 경우, 주소값 할당하기.
-
-		Symbol symbol;
-		Numeric addrNum = new Numeric(String.valueOf(address));
-
-		Optional<Symbol> optSymbol = search(name);
-		if (optSymbol.isPresent()) {
-			// TODO: 해당 심볼이 주소가 지정되지 않은 심볼일 경우 주소값 할당하기.
-			symbol = optSymbol.get();
-			symbol.assign(addrNum);
-		} else {
-			// TODO: 심볼 추가하기.
-			symbol = Symbol.createAddressAssignedSymbol(name, addrNum);
-			_symbolMap.put(name, symbol);
-		}
-
-		return symbol;
-	}
-
-	/**
-	 * EQU label에 해당하는 심볼을 추가한다.
-	 * 
-	 * @param name    심볼 명칭
-	 * @param formula 수식 문자열
-	 * @param locctr  location counter 값
-	 * @return 심볼 객체
-	 * @throws RuntimeException 잘못된 심볼 생성 시도 혹은 잘못된 수식 포맷
-	 */
-	public Symbol put(String name, String formula, int locctr) throws RuntimeException {
-		// TODO: 심볼 추가하기. 만약 심볼이 이미 존재하고 해당 심볼이 주소가 지정되지 않은 심볼일 경우, 주소값 할당하기.
-
-		Symbol symbol;
-		Numeric addr = new Numeric(formula, this, locctr);
-		Optional<Symbol> optSymbol = search(name);
-
-		if (optSymbol.isPresent()) {
-			// TODO: 해당 심볼이 주소가 지정되지 않은 심볼일 경우 주소값 할당하기.
-			symbol = optSymbol.get();
-			symbol.assign(addr);
-		} else {
-			// TODO: 심볼 추가하기.
-			symbol = Symbol.createAddressAssignedSymbol(name, addr);
-			_symbolMap.put(name, symbol);
-		}
-
-		return symbol;
-	}
-
-	/**
-	 * control section 명칭에 해당하는 심볼을 추가한다.
-	 * 
-	 * @param name    심볼 명칭
-	 * @param address 심볼 주소
-	 * @return 심볼 객체
-	 * @throws RuntimeException 잘못된 심볼 생성 시도
-	 */
-	public Symbol putRep(String name, int address) throws RuntimeException {
-		Symbol symbol;
-
-		// TODO: control section 명칭에 해당하는 심볼을 추가하기.
-		symbol = Symbol.createRepSymbol(name, address);
-		_symbolMap.put(name, symbol);
-		_repSymbol = Optional.of(symbol);
-
-		return symbol;
-	}
-
-	/**
-	 * EXTERN operand에 주어지는 외부 심볼을 추가한다.
-	 * 
-	 * @param name 심볼 명칭
-	 * @return 심볼 객체
-	 * @throws RuntimeException 잘못된 심볼 생성 시도
-	 */
-	public Symbol putRefer(String name) throws RuntimeException {
-		Symbol symbol;
-
-		// TODO: EXTERN operand에 주어지는 외부 심볼을 추가하기.
-		symbol = Symbol.createExternalSymbol(name);
-		_symbolMap.put(name, symbol);
-
-		return symbol;
-	}
-
-	/**
-	 * 심볼 테이블에서 심볼을 찾는다.
-	 * 
-	 * @param name 찾을 심볼 명칭
-	 * @return 심볼. 없을 경우 empty <code>Optional</code>
-	 */
-	public Optional<Symbol> search(String name) {
-		return Optional.ofNullable(_symbolMap.get(name));
-	}
-
-	/**
-	 * control section 명칭에 해당하는 심볼을 반환한다.
-	 * 
-	 * @return 심볼. 없을 경우 empty <code>Optional</code>
-	 */
-	public Optional<Symbol> getRepSymbol() {
-		return _repSymbol;
-	}
-
-	/**
-	 * 심볼 테이블 객체의 정보를 문자열로 반환한다. 심볼 테이블 출력 용도로 사용한다.
-	 */
-	public boolean checkTableFormat(Symbol s){
-		if(s.isBaseSymbol() || (s.getName().equals("MAXLEN") && _repSymbol.get().getName().equals("COPY")))
-			return true;
-		else
-			return false;
-	}
-
-	@Override
-	public String toString() {
-		String s;
-		if(_repSymbol.isPresent()) {
-			s = "\t+ " + _repSymbol.get().getName();
-		} else {
-            s = "";
-        }
-
-        String symbols = _symbolMap.entrySet().stream()
-				.map(x -> x.getValue().toString() + (checkTableFormat(x.getValue()) ? "" : s))
-				.collect(Collectors.joining("\n"));
-
-
-        return symbols;
-	}
-
-	private final LinkedHashMap<String, Symbol> _symbolMap;
-	private Optional<Symbol> _repSymbol;
-}
+package symbol;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import numeric.Expression;
+import numeric.Numeric;
+
+/**
+ * control section 하나의 심볼 테이블.
+ *
+ * <p>
+ * 심볼 명칭을 <code>Symbol.pack()</code>으로 <code>long</code> 키로 만들어 open addressing 해시 테이블에서
+ * 찾는다. 해시 테이블의 칸마다 키와 심볼 번호를 나란히 저장하므로 칸 하나를 읽으면 비교와 번호 확인이 끝난다. 심볼은 추가한
+ * 순서대로 배열에 보관하여 심볼 테이블 출력에 사용하며, 검색 결과로 반환할 <code>Optional</code>도 미리 만들어 두므로
+ * 검색은 객체를 만들지 않는다. 이미 있는 심볼을 다시 추가하면 순서는 그대로 두고 심볼만 바꾼다.
+ *
+ * <p>
+ * operand에서 먼저 등장하여 주소가 정해지지 않은 심볼은 주소가 정해질 때 맨 뒤로 옮기고, 출력하지 않는다. 따라서 출력
+ * 순서는 항상 심볼이 정의된 순서이다.
+ *
+ * <p>
+ * 심볼 명칭마다 처음 추가될 때 바뀌지 않는 번호(handle)를 하나 붙인다. 번호별로 주소와 상태를 배열에 따로 기록해 두고,
+ * 심볼이 정의되거나 바뀔 때마다 갱신한다. pass1에서 operand를 번호로 바꾸어 두면 pass2는 명칭을 다시 찾지 않고 배열에서
+ * 주소를 읽으며, 앞에서 참조한 심볼의 주소도 정의될 때 채워진다.
+ *
+ * <p>
+ * operand 수식을 컴파일한 결과도 수식 문자열별로 보관하여, 같은 section에서 같은 수식을 다시 해석하지 않는다. 보관한 수식은
+ * 심볼 테이블과 함께 버려지므로, 여러 번 어셈블하는 데몬에서도 어셈블 사이에 남지 않는다.
+ */
+public class SymbolTable {
+	/** 심볼 테이블에 없는 심볼의 번호 */
+	public static final int NO_HANDLE = -1;
+
+	/**
+	 * 심볼 테이블 객체를 초기화한다.
+	 */
+	public SymbolTable() {
+		_table = new long[INITIAL_CAPACITY * 2];
+		@SuppressWarnings("unchecked")
+		Optional<Symbol>[] symbols = (Optional<Symbol>[]) new Optional<?>[INITIAL_CAPACITY / 2];
+		_symbols = symbols;
+		_shift = 64 - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+		_repSymbol = Optional.empty();
+		_handleSymbols = new Symbol[INITIAL_CAPACITY / 2];
+		_handleValues = new long[INITIAL_CAPACITY / 2];
+	}
+
+	/**
+	 * 주소값이 정해지지 않은 심볼을 추가한다.
+	 * 
+	 * @param name 심볼 명칭
+	 * @return 심볼 객체
+	 * @throws RuntimeException 잘못된 심볼 생성 시도
+	 */
+	public Symbol put(String name) throws RuntimeException {
+		// TODO: 예외 처리하기 (exception)
+
+		Symbol symbol = Symbol.createAddressNotAssignedSymbol(name);
+		add(symbol);
+		return symbol;
+	}
+
+	/**
+	 * 주소값이 정해진 심볼을 추가한다.
+	 * 
+	 * @param name    심볼 명칭
+	 * @param address 심볼 주소
+	 * @return 심볼 객체
+	 * @throws RuntimeException 잘못된 심볼 생성 시도
+	 */
+	public Symbol put(String name, int address) throws RuntimeException {
+		// TODO: 심볼 추가하기. 만약 심볼이 이미 존재하고 해당 심볼이 주소가 지정되지 않은 심볼일 경우, 주소값 할당하기.
+
+		Symbol symbol;
+		Numeric addrNum = Numeric.of(address);
+
+		Optional<Symbol> optSymbol = search(name);
+		if (optSymbol.isPresent()) {
+			// TODO: 해당 심볼이 주소가 지정되지 않은 심볼일 경우 주소값 할당하기.
+			symbol = optSymbol.get();
+			boolean undefined = symbol.isUndefined();
+			symbol.assign(addrNum);
+			publish(handleOf(slotOf(symbol)), symbol);
+			if (undefined)
+				defined(symbol);
+		} else {
+			// TODO: 심볼 추가하기.
+			symbol = Symbol.createAddressAssignedSymbol(name, addrNum);
+			add(symbol);
+		}
+
+		return symbol;
+	}
+
+	/**
+	 * EQU label에 해당하는 심볼을 추가한다.
+	 * 
+	 * @param name    심볼 명칭
+	 * @param formula 수식 문자열
+	 * @param locctr  location counter 값
+	 * @return 심볼 객체
+	 * @throws RuntimeException 잘못된 심볼 생성 시도 혹은 잘못된 수식 포맷
+	 */
+	public Symbol put(String name, String formula, int locctr) throws RuntimeException {
+		// TODO: 심볼 추가하기. 만약 심볼이 이미 존재하고 해당 심볼이 주소가 지정되지 않은 심볼일 경우, 주소값 할당하기.
+
+		Symbol symbol;
+		Numeric addr = new Numeric(formula, this, locctr);
+		Optional<Symbol> optSymbol = search(name);
+
+		if (optSymbol.isPresent()) {
+			// TODO: 해당 심볼이 주소가 지정되지 않은 심볼일 경우 주소값 할당하기.
+			symbol = optSymbol.get();
+			boolean undefined = symbol.isUndefined();
+			symbol.assign(addr);
+			publish(handleOf(slotOf(symbol)), symbol);
+			if (undefined)
+				defined(symbol);
+		} else {
+			// TODO: 심볼 추가하기.
+			symbol = Symbol.createAddressAssignedSymbol(name, addr);
+			add(symbol);
+		}
+
+		return symbol;
+	}
+
+	/**
+	 * control section 명칭에 해당하는 심볼을 추가한다.
+	 * 
+	 * @param name    심볼 명칭
+	 * @param address 심볼 주소
+	 * @return 심볼 객체
+	 * @throws RuntimeException 잘못된 심볼 생성 시도
+	 */
+	public Symbol putRep(String name, int address) throws RuntimeException {
+		Symbol symbol;
+
+		// TODO: control section 명칭에 해당하는 심볼을 추가하기.
+		symbol = Symbol.createRepSymbol(name, address);
+		add(symbol);
+		_repSymbol = Optional.of(symbol);
+
+		return symbol;
+	}
+
+	/**
+	 * EXTERN operand에 주어지는 외부 심볼을 추가한다.
+	 * 
+	 * @param name 심볼 명칭
+	 * @return 심볼 객체
+	 * @throws RuntimeException 잘못된 심볼 생성 시도
+	 */
+	public Symbol putRefer(String name) throws RuntimeException {
+		Symbol symbol;
+
+		// TODO: EXTERN operand에 주어지는 외부 심볼을 추가하기.
+		symbol = Symbol.createExternalSymbol(name);
+		add(symbol);
+
+		return symbol;
+	}
+
+	/**
+	 * 주소가 정해지지 않은 심볼에 주소가 할당될 때 호출할 작업을 지정한다. 한 번에 어셈블하는 모드에서 앞서 기록해 둔 참조
+	 * 위치를 채우는 데 사용한다.
+	 * 
+	 * @param listener 주소가 할당된 심볼을 받는 작업
+	 */
+	public void setDefineListener(Consumer<Symbol> listener) {
+		_defineListener = listener;
+	}
+
+	/**
+	 * 수식 문자열을 컴파일한다. 이 심볼 테이블에서 이미 컴파일한 수식이면 보관해 둔 것을 반환한다. pass1에서 여러 라인 묶음을
+	 * 동시에 처리할 때도 호출되므로 여러 스레드에서 호출하여도 된다.
+	 *
+	 * @param formula 수식 문자열
+	 * @return 컴파일된 수식
+	 * @throws RuntimeException 잘못된 수식 포맷
+	 */
+	public Expression compile(String formula) throws RuntimeException {
+		Expression expression = _expressions.get(formula);
+		if (expression == null) {
+			expression = Expression.compile(formula);
+			_expressions.putIfAbsent(formula, expression);
+		}
+		return expression;
+	}
+
+	/**
+	 * 심볼 테이블에서 심볼을 찾는다.
+	 * 
+	 * @param name 찾을 심볼 명칭
+	 * @return 심볼. 없을 경우 empty <code>Optional</code>
+	 */
+	public Optional<Symbol> search(CharSequence name) {
+		return search(Symbol.pack(name));
+	}
+
+	/**
+	 * 키로 심볼 테이블에서 심볼을 찾는다. 객체를 만들지 않는다.
+	 * 
+	 * @param key <code>Symbol.pack()</code>으로 만든 키
+	 * @return 심볼. 없을 경우 empty <code>Optional</code>
+	 */
+	public Optional<Symbol> search(long key) {
+		if (key == Symbol.NO_KEY)
+			return Optional.empty();
+
+		int mask = _table.length - 1;
+		for (int slot = slotOf(key); _table[slot] != Symbol.NO_KEY; slot = (slot + 2) & mask) {
+			if (_table[slot] == key)
+				return _symbols[(int) _table[slot + 1]];
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * 심볼 명칭의 번호를 찾는다. 번호는 심볼이 바뀌거나 정의되어도 그대로이다.
+	 * 
+	 * @param name 찾을 심볼 명칭
+	 * @return 번호. 없을 경우 <code>NO_HANDLE</code>
+	 */
+	public int getHandle(CharSequence name) {
+		return getHandle(Symbol.pack(name));
+	}
+
+	/**
+	 * 키로 심볼의 번호를 찾는다.
+	 * 
+	 * @param key <code>Symbol.pack()</code>으로 만든 키
+	 * @return 번호. 없을 경우 <code>NO_HANDLE</code>
+	 */
+	public int getHandle(long key) {
+		if (key == Symbol.NO_KEY)
+			return NO_HANDLE;
+
+		int mask = _table.length - 1;
+		for (int slot = slotOf(key); _table[slot] != Symbol.NO_KEY; slot = (slot + 2) & mask) {
+			if (_table[slot] == key)
+				return handleOf(slot);
+		}
+		return NO_HANDLE;
+	}
+
+	/**
+	 * 번호가 가리키는 심볼의 명칭을 반환한다.
+	 * 
+	 * @param handle 심볼 번호
+	 * @return 심볼 명칭
+	 */
+	public String getHandleName(int handle) {
+		return _handleSymbols[handle].getName();
+	}
+
+	/**
+	 * 번호가 가리키는 심볼에 주소가 있는지 여부를 반환한다. 외부 심볼과 아직 정의되지 않은 심볼은 주소가 없다.
+	 * 
+	 * @param handle 심볼 번호
+	 * @return 주소가 있는지 여부
+	 */
+	public boolean hasHandleAddress(int handle) {
+		return (_handleValues[handle] & HAS_ADDRESS) != 0;
+	}
+
+	/**
+	 * 번호가 가리키는 심볼이 operand에서 먼저 등장하여 아직 정의되지 않은 심볼인지 판별한다.
+	 * 
+	 * @param handle 심볼 번호
+	 * @return 정의되지 않은 심볼인지 여부
+	 */
+	public boolean isHandleUndefined(int handle) {
+		return (_handleValues[handle] & UNDEFINED) != 0;
+	}
+
+	/**
+	 * 번호가 가리키는 심볼이 EXTREF로 생성된 외부 심볼인지 판별한다.
+	 * 
+	 * @param handle 심볼 번호
+	 * @return 외부 심볼인지 여부
+	 */
+	public boolean isHandleRefer(int handle) {
+		return (_handleValues[handle] & REFER) != 0;
+	}
+
+	/**
+	 * 번호가 가리키는 심볼의 주소를 반환한다.
+	 * 
+	 * @param handle 심볼 번호
+	 * @return 주소. 주소가 없으면 0
+	 */
+	public int getHandleAddress(int handle) {
+		return (int) (_handleValues[handle] >>> 32);
+	}
+
+	/**
+	 * 심볼 테이블에 있는 심볼 수를 반환한다.
+	 * 
+	 * @return 심볼 수
+	 */
+	public int size() {
+		return _size - _holes;
+	}
+
+	/**
+	 * control section 명칭에 해당하는 심볼을 반환한다.
+	 * 
+	 * @return 심볼. 없을 경우 empty <code>Optional</code>
+	 */
+	public Optional<Symbol> getRepSymbol() {
+		return _repSymbol;
+	}
+
+	/**
+	 * 심볼 테이블 객체의 정보를 문자열로 반환한다. 심볼 테이블 출력 용도로 사용한다.
+	 */
+	public boolean checkTableFormat(Symbol s){
+		if(s.isBaseSymbol() || (s.getName().equals("MAXLEN") && _repSymbol.get().getName().equals("COPY")))
+			return true;
+		else
+			return false;
+	}
+
+	/**
+	 * 심볼 테이블 객체의 정보를 출력 대상에 바로 쓴다. <code>toString()</code>과 같은 내용을 출력한다.
+	 *
+	 * @param out 출력 대상
+	 * @throws IOException 출력 실패.
+	 */
+	public void write(Appendable out) throws IOException {
+		String repName = _repSymbol.isPresent() ? _repSymbol.get().getName() : null;
+
+		boolean first = true;
+		for (int i = 0; i < _size; i++) {
+			if (_symbols[i] == null || _symbols[i].get().isUndefined())
+				continue;
+			if (!first)
+				out.append('\n');
+			first = false;
+
+			Symbol symbol = _symbols[i].get();
+			symbol.write(out);
+			if (repName != null && !checkTableFormat(symbol)) {
+				out.append("\t+ ");
+				out.append(repName);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		String s;
+		if(_repSymbol.isPresent()) {
+			s = "\t+ " + _repSymbol.get().getName();
+		} else {
+            s = "";
+        }
+
+		StringBuilder symbols = new StringBuilder();
+		for (int i = 0; i < _size; i++) {
+			if (_symbols[i] == null || _symbols[i].get().isUndefined())
+				continue;
+			if (symbols.length() != 0)
+				symbols.append('\n');
+
+			Symbol symbol = _symbols[i].get();
+			symbols.append(symbol.toString());
+			if (!checkTableFormat(symbol))
+				symbols.append(s);
+		}
+
+		return symbols.toString();
+	}
+
+	/**
+	 * 심볼을 추가한다. 같은 명칭의 심볼이 이미 있으면 순서는 그대로 두고 심볼만 바꾼다. 바뀌는 심볼이 주소가 정해지지 않은
+	 * 심볼이면 참조 위치 연결 목록을 넘겨받고 정의된 것으로 처리한다.
+	 * 
+	 * @param symbol 추가할 심볼
+	 */
+	private void add(Symbol symbol) {
+		long key = symbol.getKey();
+		int mask = _table.length - 1;
+		int slot = slotOf(key);
+		for (; _table[slot] != Symbol.NO_KEY; slot = (slot + 2) & mask) {
+			if (_table[slot] == key) {
+				int index = (int) _table[slot + 1];
+				Symbol old = _symbols[index].get();
+				_symbols[index] = Optional.of(symbol);
+				publish(handleOf(slot), symbol);
+				if (old.isUndefined() && !symbol.isUndefined()) {
+					symbol.setFixups(old.getFixups());
+					defined(symbol);
+				}
+				return;
+			}
+		}
+
+		if (_size == _symbols.length) {
+			grow();
+			add(symbol);
+			return;
+		}
+		int handle = _handleCount++;
+		if (handle == _handleSymbols.length) {
+			_handleSymbols = Arrays.copyOf(_handleSymbols, handle * 2);
+			_handleValues = Arrays.copyOf(_handleValues, handle * 2);
+		}
+		_table[slot] = key;
+		_table[slot + 1] = (long) handle << 32 | _size;
+		_symbols[_size++] = Optional.of(symbol);
+		publish(handle, symbol);
+	}
+
+	/**
+	 * 주소가 정해지지 않았던 심볼이 정의되었을 때, 출력 순서를 정의된 순서로 맞추기 위해 맨 뒤로 옮기고 지정된 작업을 호출한다.
+	 * 원래 자리는 비워 둔다.
+	 * 
+	 * @param symbol 정의된 심볼
+	 */
+	private void defined(Symbol symbol) {
+		int slot = slotOf(symbol);
+		int index = (int) _table[slot + 1];
+		if (index != _size - 1) {
+			if (_size == _symbols.length) {
+				grow();
+				slot = slotOf(symbol);
+			}
+			_symbols[index] = null;
+			_table[slot + 1] = (long) handleOf(slot) << 32 | _size;
+			_symbols[_size++] = Optional.of(symbol);
+			_holes++;
+		}
+
+		if (_defineListener != null)
+			_defineListener.accept(symbol);
+	}
+
+	/**
+	 * 심볼의 주소와 상태를 번호별 배열에 기록한다.
+	 */
+	private void publish(int handle, Symbol symbol) {
+		Optional<Numeric> address = symbol.getAddress();
+		_handleSymbols[handle] = symbol;
+		long value = address.isPresent() ? (long) address.get().getInteger() << 32 | HAS_ADDRESS : 0;
+		if (symbol.isUndefined())
+			value |= UNDEFINED;
+		if (symbol.isReferSymbol())
+			value |= REFER;
+		// 주소와 상태를 한 번에 읽도록 하나의 값으로 합쳐 둔다
+		_handleValues[handle] = value;
+	}
+
+	/**
+	 * 해시 테이블 칸에 기록된 심볼 번호를 반환한다.
+	 */
+	private int handleOf(int slot) {
+		return (int) (_table[slot + 1] >>> 32);
+	}
+
+	/**
+	 * 해시 테이블과 심볼 배열의 크기를 두 배로 늘린다. 해시 테이블은 항상 절반 이하만 채운다.
+	 */
+	private void grow() {
+		long[] table = _table;
+		_table = new long[table.length * 2];
+		_symbols = Arrays.copyOf(_symbols, _symbols.length * 2);
+		_shift--;
+
+		int mask = _table.length - 1;
+		for (int i = 0; i < table.length; i += 2) {
+			if (table[i] == Symbol.NO_KEY)
+				continue;
+			int slot = slotOf(table[i]);
+			while (_table[slot] != Symbol.NO_KEY)
+				slot = (slot + 2) & mask;
+			_table[slot] = table[i];
+			_table[slot + 1] = table[i + 1];
+		}
+	}
+
+	/**
+	 * 테이블에 있는 심볼이 들어 있는 해시 테이블 칸의 키 위치를 반환한다.
+	 */
+	private int slotOf(Symbol symbol) {
+		long key = symbol.getKey();
+		int mask = _table.length - 1;
+		int slot = slotOf(key);
+		while (_table[slot] != key)
+			slot = (slot + 2) & mask;
+		return slot;
+	}
+
+	/**
+	 * 키가 들어갈 해시 테이블 칸의 키 위치를 반환한다. 심볼 번호는 그 다음 위치에 있다.
+	 */
+	private int slotOf(long key) {
+		return (int) ((key * HASH_MULTIPLIER) >>> _shift) << 1;
+	}
+
+	/** 해시 테이블의 처음 칸 수. 2의 거듭제곱이어야 한다 */
+	private static final int INITIAL_CAPACITY = 64;
+	/** 키를 해시 테이블 위치로 바꾸는 곱셈 상수 (2^64 / 황금비) */
+	private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	/** 심볼 번호별 상태 비트 */
+	private static final int HAS_ADDRESS = 1;
+	private static final int UNDEFINED = 2;
+	private static final int REFER = 4;
+
+	/**
+	 * 해시 테이블. 칸마다 심볼 키와, 심볼 번호(상위 32비트) 및 <code>_symbols</code> 내 위치(하위 32비트)를 차례로
+	 * 저장한다. 빈 칸의 키는 <code>Symbol.NO_KEY</code>
+	 */
+	private long[] _table;
+	/** 추가한 순서대로 보관한 심볼. 검색 결과로 그대로 반환한다. 정의되어 뒤로 옮긴 심볼의 원래 자리는 null */
+	private Optional<Symbol>[] _symbols;
+	private int _size;
+	/** <code>_symbols</code>에서 비워 둔 자리 수 */
+	private int _holes;
+	private int _shift;
+	private Optional<Symbol> _repSymbol;
+	/** 주소가 정해지지 않은 심볼이 정의될 때 호출할 작업. 없으면 null */
+	private Consumer<Symbol> _defineListener;
+	/** 심볼 번호별 심볼. 번호는 심볼 명칭이 처음 추가된 순서이다 */
+	private Symbol[] _handleSymbols;
+	/** 심볼 번호별 주소(상위 32비트)와 상태 비트(하위 32비트). 주소가 없으면 주소 부분은 0 */
+	private long[] _handleValues;
+	private int _handleCount;
+	/** 수식 문자열별로 컴파일한 수식. 심볼 테이블과 수명이 같다 */
+	private final ConcurrentHashMap<String, Expression> _expressions = new ConcurrentHashMap<String, Expression>();
+}
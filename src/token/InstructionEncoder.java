@@ -0,0 +1,269 @@
+package token;
+
+import java.util.Optional;
+
+import instruction.EncodingTemplates;
+import instruction.Instruction;
+import numeric.Expression;
+import numeric.Numeric;
+import symbol.SymbolTable;
+
+/**
+ * pass2에서 명령어 토큰의 object code를 계산한다. 객체를 만들지 않으며, 계산한 코드는 호출하는 쪽이 넘겨준 배열에 쓴다.
+ *
+ * <p>
+ * operand는 <code>bind()</code>로 한 번 찾아 결과를 토큰 테이블에 기록해 둔다. 두 번에 나누어 어셈블할 때는 모든 심볼이
+ * 정의되고 리터럴이 배치된 뒤에 기록하므로, 심볼과 리터럴의 주소를 상수로 기록한다. pass2는 기록된 값을 행 순서대로 읽기만
+ * 하며, 명칭을 다시 찾지 않는다. 심볼 번호(handle)는 한 번에 어셈블할 때 아직 정의되지 않은 심볼을 참조한 operand에만
+ * 기록되며, 심볼이 정의된 뒤 코드를 계산할 때 번호로 주소를 읽는다.
+ *
+ * <p>
+ * 오류는 예외 대신 결과 코드로 돌려준다. 오류 메시지는 필요할 때 <code>getMessage()</code>로 만든다. format 4
+ * 명령어의 modification record는 operand 심볼 명칭만 있으면 되므로, 호출하는 쪽에서 <code>getSymbolName()</code>의
+ * 명칭으로 남긴다.
+ *
+ * <p>
+ * 코드는 <code>EncodingTemplates</code>에서 명령어와 nixbpe에 해당하는 틀을 읽어 operand를 합쳐 만든다.
+ */
+public final class InstructionEncoder {
+	/** 결과 코드: 성공 */
+	public static final int OK = 0;
+	/** 결과 코드: format 4 명령어의 operand가 심볼이 아님 */
+	public static final int MISSING_SYMBOL_OPERAND = 1;
+	/** 결과 코드: format 4 명령어의 operand 심볼이 심볼 테이블에 없음 */
+	public static final int UNKNOWN_SYMBOL = 2;
+	/** 결과 코드: operand 심볼의 주소가 정해지지 않음 */
+	public static final int NO_ADDRESS = 3;
+	/** 결과 코드: operand 수식에 정의되지 않은 심볼이 있음 */
+	public static final int UNDEFINED_SYMBOL = 4;
+
+	/**
+	 * @param tokens      토큰 테이블
+	 * @param symbolTable 심볼 테이블
+	 * @param templates   명령어가 속한 기계어 목록 테이블의 object code 틀 테이블
+	 */
+	public InstructionEncoder(TokenStore tokens, SymbolTable symbolTable, EncodingTemplates templates) {
+		_tokens = tokens;
+		_templates = templates;
+		_symbolTable = symbolTable;
+	}
+
+	/**
+	 * 명령어 토큰의 operand를 찾아 토큰 테이블에 기록한다. 심볼과 리터럴의 주소와 수식은 그 자리에서 계산하므로, 심볼이
+	 * 모두 정의되고 리터럴이 배치된 뒤에 호출해야 한다. 오류도 결과 코드로 기록해 두었다가 <code>encode()</code>에서
+	 * 돌려준다.
+	 *
+	 * @param row 명령어 토큰의 행 번호
+	 * @return 결과 코드
+	 */
+	public int bind(int row) {
+		int result = resolve(row);
+		_tokens.bind(row, result, TokenStore.HANDLE_CONSTANT, _handle);
+		return result;
+	}
+
+	/**
+	 * WORD 토큰의 operand를 계산하여 상수로 기록한다. 수식에 외부 심볼이 있으면 함께 기록한다. 수식에 쓰인 심볼이 모두
+	 * 정의된 뒤에 호출해야 한다.
+	 *
+	 * @param row WORD 토큰의 행 번호
+	 * @return 결과 코드
+	 */
+	public int bindWord(int row) {
+		TokenStore tokens = _tokens;
+		Numeric num = tokens.getNumeric(row, 0);
+		if (num.getMemoryName() == null || num.getExpression().isEmpty()) {
+			tokens.bind(row, OK, TokenStore.HANDLE_CONSTANT, num.getInteger());
+			return OK;
+		}
+
+		// 모든 심볼이 정의되었으므로 수식을 다시 계산한다. 외부 심볼은 값에 더하지 않는다
+		Expression expression = num.getExpression().get();
+		if (expression.findUndefined(_symbolTable) >= 0) {
+			tokens.bind(row, UNDEFINED_SYMBOL, TokenStore.HANDLE_CONSTANT, 0);
+			return UNDEFINED_SYMBOL;
+		}
+		tokens.bind(row, OK, TokenStore.HANDLE_CONSTANT,
+				(int) expression.evaluate(_symbolTable, tokens.getAddress(row)));
+		for (int i = 0; i < expression.getSymbolCount(); i++) {
+			if (_symbolTable.isHandleRefer(_symbolTable.getHandle(expression.getSymbolName(i)))) {
+				tokens.markExternal(row);
+				break;
+			}
+		}
+		return OK;
+	}
+
+	/**
+	 * 명령어 토큰의 object code를 계산한다. <code>bind()</code>하지 않은 행은 operand를 직접 찾는다.
+	 *
+	 * @param row   명령어 토큰의 행 번호
+	 * @param out   계산한 코드를 쓸 배열
+	 * @param index 코드를 쓸 위치
+	 * @return 결과 코드. <code>OK</code>가 아니면 <code>out</code>에 쓰지 않는다.
+	 */
+	public int encode(int row, int[] out, int index) {
+		TokenStore tokens = _tokens;
+		int result;
+		int kind;
+		int handle;
+		if (tokens.isBound(row)) {
+			result = tokens.getBindResult(row);
+			kind = tokens.getHandleKind(row);
+			handle = tokens.getHandle(row);
+		} else {
+			result = resolve(row);
+			kind = TokenStore.HANDLE_CONSTANT;
+			handle = _handle;
+		}
+		if (result != OK)
+			return result;
+
+		int nixbpe = tokens.getNixbpe(row);
+		int target = handle;
+		if (kind == TokenStore.HANDLE_SYMBOL) {
+			// 한 번에 어셈블할 때 정의되기 전의 심볼을 가리키던 번호이다. 기록한 뒤에 심볼이 바뀌었을 수 있으므로 상태를 확인한다
+			if ((nixbpe & TokenStore.E) != 0) {
+				if (_symbolTable.isHandleUndefined(handle))
+					return UNKNOWN_SYMBOL;
+			} else {
+				if (!_symbolTable.hasHandleAddress(handle))
+					return NO_ADDRESS;
+				target = _symbolTable.getHandleAddress(handle);
+			}
+		}
+
+		// 형식과 주소 지정 방식에 따른 분기는 틀을 만들 때 끝냈다. 레지스터 번호는 찾을 때 합쳐 두었다
+		out[index] = _templates.encode(tokens.getInstructionId(row), nixbpe, target, tokens.getAddress(row));
+		return OK;
+	}
+
+	/**
+	 * WORD 토큰의 값을 계산한다. <code>bindWord()</code>하지 않은 행은 수식을 직접 계산한다.
+	 *
+	 * @param row   WORD 토큰의 행 번호
+	 * @param out   계산한 값을 쓸 배열
+	 * @param index 값을 쓸 위치
+	 * @return 결과 코드. <code>OK</code>가 아니면 <code>out</code>에 쓰지 않는다.
+	 */
+	public int encodeWord(int row, int[] out, int index) {
+		int result = _tokens.isBound(row) ? _tokens.getBindResult(row) : bindWord(row);
+		if (result != OK)
+			return result;
+		out[index] = _tokens.getHandle(row);
+		return OK;
+	}
+
+	/**
+	 * 명령어 토큰의 operand 심볼 명칭을 반환한다. format 4 명령어의 modification record에 사용한다.
+	 *
+	 * @param row 명령어 토큰의 행 번호
+	 * @return 심볼 명칭
+	 */
+	public String getSymbolName(int row) {
+		if (_tokens.isBound(row) && _tokens.getHandleKind(row) == TokenStore.HANDLE_SYMBOL)
+			return _symbolTable.getHandleName(_tokens.getHandle(row));
+		return _tokens.getNumeric(row, 0).getMemoryName();
+	}
+
+	/**
+	 * <code>encode()</code>가 돌려준 결과 코드에 해당하는 오류 메시지를 만든다.
+	 *
+	 * @param row    명령어 토큰의 행 번호
+	 * @param result 결과 코드
+	 * @return 오류 메시지
+	 */
+	public String getMessage(int row, int result) {
+		switch (result) {
+			case MISSING_SYMBOL_OPERAND:
+				return "missing symbol operand";
+			case UNKNOWN_SYMBOL:
+				return getSymbolName(row);
+			case NO_ADDRESS:
+				return "undefined symbol (" + getSymbolName(row) + ")";
+			case UNDEFINED_SYMBOL:
+				Expression expression = _tokens.getNumeric(row, 0).getExpression().get();
+				return "undefined symbol (" + expression.getSymbolName(expression.findUndefined(_symbolTable)) + ")";
+			default:
+				return "unknown error (" + result + ")";
+		}
+	}
+
+	/**
+	 * 명령어의 operand를 찾아 <code>_handle</code>에 상수로 기록한다. format 2는 레지스터 번호를 합친 값을,
+	 * immediate는 operand 값을, 심볼 하나는 심볼 주소를, 리터럴은 리터럴 주소를, 그 외의 수식은 계산한 주소를 기록한다.
+	 * format 4는 주소를 합치지 않으므로 심볼이 있는지만 확인한다. 예외를 던지지 않는다.
+	 *
+	 * @param row 명령어 토큰의 행 번호
+	 * @return 결과 코드
+	 */
+	private int resolve(int row) {
+		TokenStore tokens = _tokens;
+		Instruction inst = tokens.getInstruction(row);
+		int nixbpe = tokens.getNixbpe(row);
+		_handle = 0;
+		if (inst.getFormat() == Instruction.Format.TWO) {
+			Instruction.OperandType type = inst.getOperandType();
+			if (type == Instruction.OperandType.REG)
+				_handle = tokens.getRegister(row, 0).value << 4;
+			else if (type == Instruction.OperandType.REG1_REG2)
+				_handle = tokens.getRegister(row, 0).value << 4 | tokens.getRegister(row, 1).value;
+			return OK;
+		}
+		if (inst.getFormat() != Instruction.Format.THREE_OR_FOUR)
+			return OK;
+
+		if ((nixbpe & TokenStore.E) != 0) {
+			if (tokens.getOperandCount(row) == 0 || tokens.getOperandKind(row, 0) != TokenStore.NUMERIC
+					|| tokens.getNumeric(row, 0).getMemoryName() == null)
+				return MISSING_SYMBOL_OPERAND;
+			int handle = _symbolTable.getHandle(tokens.getNumeric(row, 0).getMemoryName());
+			if (handle == SymbolTable.NO_HANDLE || _symbolTable.isHandleUndefined(handle))
+				return UNKNOWN_SYMBOL;
+			return OK;
+		}
+
+		int address = tokens.getAddress(row);
+		if (tokens.getOperandCount(row) == 0) {
+			// operand가 없으면 변위가 0이 되도록 한다
+			_handle = address;
+			return OK;
+		}
+		if ((nixbpe & (TokenStore.N | TokenStore.I)) == TokenStore.I) {
+			_handle = tokens.getNumeric(row, 0).getInteger();
+			return OK;
+		}
+
+		if (tokens.getOperandKind(row, 0) == TokenStore.LITERAL) {
+			// 같은 리터럴이 LTORG 뒤에서 다시 쓰이면 다른 pool에 놓이므로, 이 operand의 리터럴 객체에서 주소를 읽는다
+			Optional<Integer> literalAddress = tokens.getLiteral(row, 0).getAddress();
+			if (literalAddress.isPresent())
+				_handle = literalAddress.get();
+			return OK;
+		}
+
+		Numeric n = tokens.getNumeric(row, 0);
+		String name = n.getMemoryName();
+		Expression expression = n.getExpression().orElse(null);
+		if (name == null) {
+			// 이미 계산된 값은 주소 0을 가리키는 것으로 계산한다
+		} else if (expression != null && !expression.isSymbol()) {
+			// 심볼 하나가 아닌 수식은 모든 심볼이 정의된 뒤에 다시 계산한다
+			if (expression.findUndefined(_symbolTable) >= 0)
+				return UNDEFINED_SYMBOL;
+			_handle = (int) expression.evaluate(_symbolTable, address - tokens.getSize(row));
+		} else {
+			int handle = _symbolTable.getHandle(name);
+			if (handle == SymbolTable.NO_HANDLE || !_symbolTable.hasHandleAddress(handle))
+				return NO_ADDRESS;
+			_handle = _symbolTable.getHandleAddress(handle);
+		}
+		return OK;
+	}
+
+	private final TokenStore _tokens;
+	private final EncodingTemplates _templates;
+	private final SymbolTable _symbolTable;
+	/** <code>resolve()</code>가 찾은 상수 값 */
+	private int _handle;
+}
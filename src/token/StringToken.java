@@ -1,126 +1,408 @@
 package token;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-public class StringToken {
+import keyword.KeywordTable;
+import source.SourceFile;
+import trace.Tracer;
+
+public final class StringToken {
+	/**
+	 * 비어 있는 토큰 슬롯을 초기화한다. <code>scan()</code>으로 소스 코드 라인을 하나씩 읽어 같은 객체를 계속 재사용한다.
+	 */
+	public StringToken() {
+		clear();
+	}
+
 	/**
 	 * 소스 코드 한 줄에 해당하는 토큰을 초기화한다.
-	 * 
+	 *
 	 * @param input 소스 코드 한 줄에 해당하는 문자열
 	 * @throws RuntimeException 잘못된 형식의 소스 코드 파싱 시도.
 	 */
 	public StringToken(String input) throws RuntimeException {
 		// TODO: 소스 코드를 파싱하여 토큰을 초기화하기.
-		_nBit = _iBit = _pBit = true;
-		_xBit = _eBit = false;
+		_source = null;
+		_input = input;
+		scanLine(0, input.length());
+	}
+
+	/**
+	 * 메모리에 매핑된 소스 코드의 한 줄에 해당하는 토큰을 초기화한다.
+	 *
+	 * @param source 소스 코드
+	 * @param line   라인 번호 (0부터 시작)
+	 * @throws RuntimeException 잘못된 형식의 소스 코드 파싱 시도.
+	 */
+	public StringToken(SourceFile source, int line) throws RuntimeException {
+		scan(source, line);
+	}
+
+	/**
+	 * 소스 코드 한 줄을 읽어 토큰 슬롯을 다시 채운다. 라인을 문자 단위로 한 번만 훑으며 각 필드와 operand의 위치, nixbpe
+	 * 정보만 기록하고, 문자열은 getter가 호출될 때 만든다.
+	 *
+	 * @param source 소스 코드
+	 * @param line   라인 번호 (0부터 시작)
+	 * @return 이 토큰 슬롯
+	 * @throws RuntimeException 잘못된 형식의 소스 코드 파싱 시도.
+	 */
+	public StringToken scan(SourceFile source, int line) throws RuntimeException {
+		_source = source;
+		_input = null;
+		int start = source.lineOffset(line);
+		scanLine(start, start + source.lineLength(line));
+		return this;
+	}
 
-		String[] split = input.split("\t");
+	/**
+	 * <code>StringTokenBuffer</code>에 미리 토큰화해 둔 라인으로 토큰 슬롯을 다시 채운다. 라인을 다시 훑지 않는다.
+	 *
+	 * @param buffer 토큰화 결과
+	 * @param index  section 내에서의 순서
+	 * @return 이 토큰 슬롯
+	 * @throws RuntimeException 토큰화 도중 발생한 잘못된 형식의 소스 코드. 오류 메시지에 라인 번호(1부터 시작)를 덧붙인다.
+	 */
+	public StringToken load(StringTokenBuffer buffer, int index) throws RuntimeException {
+		StringTokenBuffer.Chunk chunk = buffer.chunkOf(index);
+		int row = StringTokenBuffer.rowOf(index);
+		if (chunk.errorRow >= 0 && row >= chunk.errorRow)
+			throw new RuntimeException(chunk.error.getMessage() + " (line " + (buffer.lineAt(index) + 1) + ")");
+
+		clear();
+		_source = buffer.getSource();
+		_input = null;
 
-		_label = Optional.empty();
-		_operator = Optional.empty();
-		_operands = new ArrayList<>();
-		_comment = Optional.empty();
+		int[] fields = chunk.fields;
+		int base = row * StringTokenBuffer.Chunk.FIELDS;
+		_labelOffset = fields[base];
+		_labelLength = fields[base + 1];
+		_operatorOffset = fields[base + 2];
+		_operatorLength = fields[base + 3];
+		_commentOffset = fields[base + 4];
+		_commentLength = fields[base + 5];
 
-		if(split[0].equals(".")) return;
+		int from = chunk.operandStarts[row];
+		int count = chunk.operandStarts[row + 1] - from;
+		for (int i = 0; i < count; i++)
+			addOperand(i, chunk.operandOffsets[from + i], chunk.operandOffsets[from + i] + chunk.operandLengths[from + i]);
+		_operandCount = count;
 
-		if(split.length >= 2){
-			if(split[0].isEmpty()){
-				_label = Optional.empty();
-			}else{
-				_label = Optional.of(split[0]);
+		int flags = chunk.flags[row];
+		_nBit = (flags & TokenStore.N) != 0;
+		_iBit = (flags & TokenStore.I) != 0;
+		_xBit = (flags & TokenStore.X) != 0;
+		_pBit = (flags & TokenStore.P) != 0;
+		_eBit = (flags & TokenStore.E) != 0;
+		return this;
+	}
+
+	/**
+	 * 현재 토큰의 필드 위치를 chunk의 한 행으로 기록한다. 행 순서대로 호출해야 한다.
+	 */
+	void save(StringTokenBuffer.Chunk chunk, int row) {
+		int[] fields = chunk.fields;
+		int base = row * StringTokenBuffer.Chunk.FIELDS;
+		fields[base] = _labelOffset;
+		fields[base + 1] = _labelLength;
+		fields[base + 2] = _operatorOffset;
+		fields[base + 3] = _operatorLength;
+		fields[base + 4] = _commentOffset;
+		fields[base + 5] = _commentLength;
+
+		chunk.operandStarts[row + 1] = chunk.operandStarts[row];
+		for (int i = 0; i < _operandCount; i++)
+			chunk.addOperand(row, _operandOffsets[i], _operandLengths[i]);
+
+		chunk.flags[row] = (byte) ((_nBit ? TokenStore.N : 0) | (_iBit ? TokenStore.I : 0) | (_xBit ? TokenStore.X : 0)
+				| (_pBit ? TokenStore.P : 0) | (_eBit ? TokenStore.E : 0));
+	}
+
+	/**
+	 * <code>String.split("\t")</code>로 필드를 나누고 다시 operand를 <code>split(",")</code>로 나누던 것과
+	 * 같은 결과를 한 번의 순회로 얻는다. 뒤쪽의 빈 필드와 빈 operand는 세지 않는다.
+	 */
+	private void scanLine(int start, int end) throws RuntimeException {
+		clear();
+
+		// label, operator, operand, comment 필드의 위치. 다섯 번째 이후의 필드는 개수만 센다
+		int labelEnd = start;
+		int operatorStart = start, operatorEnd = start;
+		int operandStart = start, operandEnd = start;
+		int commentStart = start, commentEnd = start;
+
+		int field = 0;
+		int fieldStart = start;
+		int fieldCount = 0;
+		int operandStartIndex = start; // 현재 operand의 시작 위치
+		int operandCount = 0;
+
+		for (int i = start; i <= end; i++) {
+			char c = i == end ? '\t' : charAt(i);
+
+			if (c == ',' && field == 2) {
+				addOperand(operandCount++, operandStartIndex, i);
+				operandStartIndex = i + 1;
 			}
+			if (c != '\t')
+				continue;
 
-			if(split[1].charAt(0) == '+'){
-				_operator = Optional.of(split[1].substring(1));
-				_eBit = true;
-				_pBit = false;
-			}else{
-				_operator = Optional.of(split[1]);
+			if (field == 0)
+				labelEnd = i;
+			else if (field == 1) {
+				operatorStart = fieldStart;
+				operatorEnd = i;
+			} else if (field == 2) {
+				operandStart = fieldStart;
+				operandEnd = i;
+				addOperand(operandCount++, operandStartIndex, i);
+			} else if (field == 3) {
+				commentStart = fieldStart;
+				commentEnd = i;
 			}
 
+			if (i > fieldStart)
+				fieldCount = field + 1;
+			field++;
+			fieldStart = operandStartIndex = i + 1;
 		}
 
-		if(split.length >= 3){
-			_operands =	getCommaArray(split[2]);
+		// 빈 라인은 빈 필드 하나로 취급한다
+		if (start == end)
+			fieldCount = 1;
+		if (fieldCount == 0)
+			throw new RuntimeException("illegal line format");
+
+		if (labelEnd - start == 1 && charAt(start) == '.')
+			return;
+
+		if (fieldCount >= 2) {
+			if (labelEnd > start) {
+				_labelOffset = start;
+				_labelLength = labelEnd - start;
+			}
+
+			if (operatorEnd == operatorStart)
+				throw new RuntimeException("missing operator");
+			if (charAt(operatorStart) == '+') {
+				operatorStart++;
+				_eBit = true;
+				_pBit = false;
+			}
+			_operatorOffset = operatorStart;
+			_operatorLength = operatorEnd - operatorStart;
 		}
 
-		if(split.length >= 4){
-			if(split[2].isEmpty())
+		if (fieldCount >= 3 && operandEnd > operandStart) {
+			// 뒤쪽의 빈 operand는 세지 않는다
+			while (operandCount > 0 && _operandLengths[operandCount - 1] == 0)
+				operandCount--;
+			if (operandCount == 0 || _operandLengths[0] == 0)
+				throw new RuntimeException("missing operand");
+
+			char prefix = charAt(_operandOffsets[0]);
+			if (prefix == '@') {
+				_iBit = false;
+				_operandOffsets[0]++;
+				_operandLengths[0]--;
+			} else if (prefix == '#') {
+				_nBit = false;
 				_pBit = false;
+				_operandOffsets[0]++;
+				_operandLengths[0]--;
+			}
 
-			_comment = Optional.of(split[3]);
+			if (operandCount != 1 && _operandLengths[1] == 1 && charAt(_operandOffsets[1]) == 'X')
+				_xBit = true;
 
+			_operandCount = operandCount;
 		}
 
-		System.out.println(this.toString()); /** 디버깅 용도 */
-	}
+		if (fieldCount >= 4) {
+			if (operandEnd == operandStart)
+				_pBit = false;
 
-	public ArrayList<String> getCommaArray(String s){
-		if(s == null || s.isEmpty()){
-			return new ArrayList<>();
+			_commentOffset = commentStart;
+			_commentLength = commentEnd - commentStart;
 		}
-		String[] split = s.split(",");
-
-		if(split[0].charAt(0) == '@'){
-			_iBit = false;
-			split[0] = split[0].substring(1);
-		}else if(split[0].charAt(0) == '#'){
-			_nBit = false;
-			_pBit = false;
-			split[0] = split[0].substring(1);
+
+		if (Tracer.LEXER.debug)
+			Tracer.LEXER.log(this.toString());
+	}
+
+	private void clear() {
+		_nBit = _iBit = _pBit = true;
+		_xBit = _eBit = false;
+
+		_labelLength = -1;
+		_operatorLength = -1;
+		_commentLength = -1;
+		_operandCount = 0;
+
+		_label = null;
+		_operator = null;
+		_operands = null;
+		_comment = null;
+	}
+
+	private void addOperand(int index, int from, int to) {
+		if (index == _operandOffsets.length) {
+			int[] offsets = new int[index * 2];
+			int[] lengths = new int[index * 2];
+			System.arraycopy(_operandOffsets, 0, offsets, 0, index);
+			System.arraycopy(_operandLengths, 0, lengths, 0, index);
+			_operandOffsets = offsets;
+			_operandLengths = lengths;
 		}
+		_operandOffsets[index] = from;
+		_operandLengths[index] = to - from;
+	}
 
-		if(split.length != 1 && split[1] != null){
-			if(split[1].equals("X")){
-				_xBit = true;
-			}
+	private char charAt(int offset) {
+		return _source != null ? _source.charAt(offset) : _input.charAt(offset);
+	}
+
+	private String string(int offset, int length) {
+		return _source != null ? _source.string(offset, length) : _input.substring(offset, offset + length);
+	}
+
+	/**
+	 * 반복해서 나타나는 operator와 operand 문자열을 재사용한다. 같은 내용이면 이전에 만든 객체를 그대로 반환하므로, 라인마다
+	 * 새로운 문자열을 만들지 않는다.
+	 */
+	private Optional<String> intern(int offset, int length) {
+		int hash = 0;
+		for (int i = 0; i < length; i++)
+			hash = 31 * hash + charAt(offset + i);
+		int index = (hash ^ (hash >>> 8)) & (_strings.length - 1);
+
+		Optional<String> cached = _strings[index];
+		if (cached != null && matches(cached.get(), offset, length))
+			return cached;
+
+		Optional<String> created = Optional.of(string(offset, length));
+		_strings[index] = created;
+		return created;
+	}
+
+	private long key(int offset, int length) {
+		if (length > KeywordTable.MAX_LENGTH)
+			return KeywordTable.NO_KEY;
+
+		long key = KeywordTable.NO_KEY;
+		for (int i = 0; i < length; i++) {
+			key = KeywordTable.pack(key, charAt(offset + i));
+			if (key == KeywordTable.NO_KEY)
+				break;
 		}
+		return key;
+	}
 
-        return new ArrayList<>(Arrays.asList(split));
+	private boolean matches(String s, int offset, int length) {
+		if (s.length() != length)
+			return false;
+		for (int i = 0; i < length; i++)
+			if (s.charAt(i) != charAt(offset + i))
+				return false;
+		return true;
 	}
 
 	/**
 	 * label 문자열을 반환한다.
-	 * 
+	 *
 	 * @return label 문자열. 없으면 empty <code>Optional</code>.
 	 */
 	public Optional<String> getLabel() {
+		if (_label == null)
+			_label = _labelLength < 0 ? Optional.empty() : Optional.of(string(_labelOffset, _labelLength));
 		return _label;
 	}
 
 	/**
 	 * operator 문자열을 반환한다.
-	 * 
+	 *
 	 * @return operator 문자열. 없으면 empty <code>Optional</code>.
 	 */
 	public Optional<String> getOperator() {
+		if (_operator == null)
+			_operator = _operatorLength < 0 ? Optional.empty() : intern(_operatorOffset, _operatorLength);
 		return _operator;
 	}
 
+	/**
+	 * operator를 예약어 테이블의 키로 반환한다. 문자열을 만들지 않는다.
+	 *
+	 * @return operator의 키. operator가 없거나 키로 만들 수 없으면 <code>KeywordTable.NO_KEY</code>.
+	 */
+	public long getOperatorKey() {
+		if (_operatorLength < 0)
+			return KeywordTable.NO_KEY;
+		return key(_operatorOffset, _operatorLength);
+	}
+
+	/**
+	 * operand 하나를 예약어 테이블의 키로 반환한다. 문자열을 만들지 않는다.
+	 *
+	 * @param index operand 순서 (0부터 시작)
+	 * @return operand의 키. 키로 만들 수 없으면 <code>KeywordTable.NO_KEY</code>.
+	 */
+	public long getOperandKey(int index) {
+		if (index >= _operandCount)
+			throw new IndexOutOfBoundsException(index);
+		return key(_operandOffsets[index], _operandLengths[index]);
+	}
+
 	/**
 	 * operand 문자열 배열을 반환한다.
-	 * 
+	 *
 	 * @return operand 문자열 배열
 	 */
 	public ArrayList<String> getOperands() {
+		if (_operands == null) {
+			_operands = new ArrayList<>(_operandCount);
+			for (int i = 0; i < _operandCount; i++)
+				_operands.add(getOperand(i));
+		}
 		return _operands;
 	}
 
+	/**
+	 * operand 개수를 반환한다. operand 배열을 만들지 않는다.
+	 *
+	 * @return operand 개수
+	 */
+	public int getOperandCount() {
+		return _operandCount;
+	}
+
+	/**
+	 * operand 하나의 문자열을 반환한다. <code>getOperands().get(index)</code>와 같다.
+	 *
+	 * @param index operand 순서 (0부터 시작)
+	 * @return operand 문자열. 주소 지정 방식을 나타내는 '@', '#'은 제외된다.
+	 */
+	public String getOperand(int index) {
+		if (index >= _operandCount)
+			throw new IndexOutOfBoundsException(index);
+		return intern(_operandOffsets[index], _operandLengths[index]).get();
+	}
+
 	/**
 	 * comment 문자열을 반환한다.
-	 * 
+	 *
 	 * @return comment 문자열. 없으면 empty <code>Optional</code>.
 	 */
 	public Optional<String> getComment() {
+		if (_comment == null)
+			_comment = _commentLength < 0 ? Optional.empty() : Optional.of(string(_commentOffset, _commentLength));
 		return _comment;
 	}
 
 	/**
 	 * 토큰의 iNdirect bit가 1인지 여부를 반환한다.
-	 * 
+	 *
 	 * @return N bit가 1인지 여부
 	 */
 	public boolean isN() {
@@ -129,7 +411,7 @@ public class StringToken {
 
 	/**
 	 * 토큰의 Immediate bit가 1인지 여부를 반환한다.
-	 * 
+	 *
 	 * @return I bit가 1인지 여부
 	 */
 	public boolean isI() {
@@ -138,7 +420,7 @@ public class StringToken {
 
 	/**
 	 * 토큰의 indeX bit가 1인지 여부를 반환한다.
-	 * 
+	 *
 	 * @return X bit가 1인지 여부
 	 */
 	public boolean isX() {
@@ -147,7 +429,7 @@ public class StringToken {
 
 	/**
 	 * 토큰의 Pc relative bit가 1인지 여부를 반환한다.
-	 * 
+	 *
 	 * @return P bit가 1인지 여부
 	 */
 	public boolean isP() {
@@ -156,7 +438,7 @@ public class StringToken {
 
 	/**
 	 * 토큰의 Extra bit가 1인지 여부를 반환한다.
-	 * 
+	 *
 	 * @return E bit가 1인지 여부
 	 */
 	public boolean isE() {
@@ -168,23 +450,44 @@ public class StringToken {
 	 */
 	@Override
 	public String toString() {
-		String label = _label.map(x -> "<" + x + ">").orElse("(no label)");
-		String operator = (isE() ? "+" : "") + _operator.map(x -> "<" + x + ">").orElse("(no operator)");
+		ArrayList<String> operands = getOperands();
+		String label = getLabel().map(x -> "<" + x + ">").orElse("(no label)");
+		String operator = (isE() ? "+" : "") + getOperator().map(x -> "<" + x + ">").orElse("(no operator)");
 		String operand = (isN() && !isI() ? "@" : "") + (isI() && !isN() ? "#" : "")
-				+ (_operands.isEmpty() ? "(no operand)"
-						: "<" + _operands.stream().collect(Collectors.joining("/")) + ">")
-				+ (isX() ? (_operands.isEmpty() ? "X" : "/X") : "");
-		String comment = _comment.map(x -> "<" + x + ">").orElse("(no comment)");
+				+ (operands.isEmpty() ? "(no operand)"
+						: "<" + operands.stream().collect(Collectors.joining("/")) + ">")
+				+ (isX() ? (operands.isEmpty() ? "X" : "/X") : "");
+		String comment = getComment().map(x -> "<" + x + ">").orElse("(no comment)");
 
 		String formatted = String.format("%-12s\t%-12s\t%-18s\t%s", label, operator, operand, comment);
 		return formatted;
 	}
 
+	/** 현재 라인을 읽어 온 소스 코드. 문자열 생성자로 만든 경우 null */
+	private SourceFile _source;
+	private String _input;
+
+	// 필드 위치. 길이가 -1이면 해당 필드가 없음
+	private int _labelOffset;
+	private int _labelLength;
+	private int _operatorOffset;
+	private int _operatorLength;
+	private int _commentOffset;
+	private int _commentLength;
+	private int _operandCount;
+	private int[] _operandOffsets = new int[4];
+	private int[] _operandLengths = new int[4];
+
+	// getter가 처음 호출될 때 만든다. null이면 아직 만들지 않음
 	private Optional<String> _label;
 	private Optional<String> _operator;
 	private ArrayList<String> _operands;
 	private Optional<String> _comment;
 
+	/** operator, operand 문자열 캐시. 크기는 2의 거듭제곱 */
+	@SuppressWarnings("unchecked")
+	private final Optional<String>[] _strings = (Optional<String>[]) new Optional<?>[256];
+
 	private boolean _nBit;
 	private boolean _iBit;
 	private boolean _xBit;
@@ -0,0 +1,226 @@
+package token;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import source.SourceFile;
+import source.SourceSection;
+import trace.Tracer;
+
+/**
+ * control section 하나를 미리 토큰화한 결과. pass1의 LOCCTR 계산은 앞 라인에 의존하지만 토큰화는 라인마다 독립적이므로,
+ * 토큰화만 먼저 (필요하면 병렬로) 끝내 두고 pass1은 이 버퍼에서 라인 순서대로 꺼내 쓴다.
+ *
+ * <p>
+ * 라인은 <code>CHUNK_SIZE</code>개씩 묶어 chunk 단위로 토큰화한다. chunk마다 필드 위치를 배열에 기록하며,
+ * <code>StringToken.load()</code>로 토큰 슬롯에 다시 채운다. 문자열은 만들지 않는다.
+ *
+ * <p>
+ * 토큰화 오류는 바로 던지지 않고 해당 라인에 기록해 둔다. pass1이 그 라인을 꺼낼 때 원래 라인 번호와 함께 던지므로, 오류는
+ * 순차적으로 처리할 때와 같은 순서로 보고된다.
+ */
+public final class StringTokenBuffer {
+	/**
+	 * section의 모든 라인을 토큰화한다.
+	 *
+	 * @param section  control section에 속하는 소스 코드
+	 * @param parallel chunk들을 ForkJoinPool에서 병렬로 토큰화할지 여부
+	 * @return 토큰화 결과
+	 */
+	public static StringTokenBuffer lex(SourceSection section, boolean parallel) {
+		StringTokenBuffer buffer = new StringTokenBuffer(section);
+		int chunks = buffer._chunks.length;
+
+		// chunk가 하나뿐이면 작업 분배 비용이 더 크다. lexer trace는 라인 순서대로 출력해야 하므로 순차적으로 처리한다
+		if (parallel && chunks >= PARALLEL_THRESHOLD && !Tracer.LEXER.debug)
+			ForkJoinTask.invokeAll(new LexTask(buffer, 0, chunks));
+		else {
+			StringToken slot = new StringToken();
+			for (int i = 0; i < chunks; i++)
+				buffer.lexChunk(i, slot);
+		}
+		return buffer;
+	}
+
+	private StringTokenBuffer(SourceSection section) {
+		_section = section;
+		_chunks = new Chunk[(section.size() + CHUNK_SIZE - 1) >>> CHUNK_BITS];
+	}
+
+	/**
+	 * 토큰화한 라인 수를 반환한다.
+	 *
+	 * @return 라인 수
+	 */
+	public int size() {
+		return _section.size();
+	}
+
+	/**
+	 * 라인 묶음(chunk) 수를 반환한다. pass1의 다른 단계도 같은 단위로 작업을 나눈다.
+	 *
+	 * @return chunk 수
+	 */
+	public int getChunkCount() {
+		return _chunks.length;
+	}
+
+	/**
+	 * chunk의 첫 라인을 반환한다.
+	 *
+	 * @param chunk chunk 번호
+	 * @return section 내에서의 순서
+	 */
+	public int getChunkStart(int chunk) {
+		return chunk << CHUNK_BITS;
+	}
+
+	/**
+	 * chunk의 마지막 라인 다음 순서를 반환한다.
+	 *
+	 * @param chunk chunk 번호
+	 * @return section 내에서의 순서
+	 */
+	public int getChunkEnd(int chunk) {
+		return Math.min((chunk + 1) << CHUNK_BITS, _section.size());
+	}
+
+	/**
+	 * 토큰화한 소스 코드를 반환한다.
+	 *
+	 * @return 소스 코드
+	 */
+	SourceFile getSource() {
+		return _section.getSource();
+	}
+
+	/**
+	 * section 내의 라인이 속한 chunk를 반환한다.
+	 *
+	 * @param index section 내에서의 순서
+	 * @return chunk
+	 */
+	Chunk chunkOf(int index) {
+		return _chunks[index >>> CHUNK_BITS];
+	}
+
+	/**
+	 * section 내의 라인이 chunk에서 몇 번째 행인지 반환한다.
+	 *
+	 * @param index section 내에서의 순서
+	 * @return chunk 내의 행 번호
+	 */
+	static int rowOf(int index) {
+		return index & (CHUNK_SIZE - 1);
+	}
+
+	/**
+	 * section 내의 라인이 소스 코드에서 몇 번째 라인인지 반환한다.
+	 *
+	 * @param index section 내에서의 순서
+	 * @return 소스 코드에서의 라인 번호 (0부터 시작)
+	 */
+	int lineAt(int index) {
+		return _section.lineAt(index);
+	}
+
+	private void lexChunk(int chunkIndex, StringToken slot) {
+		int from = getChunkStart(chunkIndex);
+		int to = getChunkEnd(chunkIndex);
+		Chunk chunk = new Chunk(to - from);
+
+		SourceFile source = _section.getSource();
+		for (int i = from; i < to; i++) {
+			try {
+				slot.scan(source, _section.lineAt(i));
+			} catch (RuntimeException e) {
+				// 오류가 난 라인 이후는 pass1이 읽지 않으므로 토큰화하지 않는다
+				chunk.errorRow = i - from;
+				chunk.error = e;
+				break;
+			}
+			slot.save(chunk, i - from);
+		}
+		_chunks[chunkIndex] = chunk;
+	}
+
+	/**
+	 * chunk 범위를 반으로 나누어 토큰화하는 fork/join 작업.
+	 */
+	private static final class LexTask extends RecursiveAction {
+		LexTask(StringTokenBuffer buffer, int from, int to) {
+			_buffer = buffer;
+			_from = from;
+			_to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (_to - _from == 1) {
+				_buffer.lexChunk(_from, new StringToken());
+				return;
+			}
+			int middle = (_from + _to) >>> 1;
+			invokeAll(new LexTask(_buffer, _from, middle), new LexTask(_buffer, middle, _to));
+		}
+
+		private static final long serialVersionUID = 1L;
+		private final transient StringTokenBuffer _buffer;
+		private final int _from;
+		private final int _to;
+	}
+
+	/**
+	 * <code>CHUNK_SIZE</code>개 이하의 라인을 토큰화한 결과. 필드 위치는 라인마다 <code>FIELDS</code>개씩 이어서
+	 * 기록하고, operand 위치는 라인별 시작 위치와 함께 따로 기록한다.
+	 */
+	static final class Chunk {
+		/** 라인마다 기록하는 필드 위치 수: label, operator, comment의 위치와 길이 */
+		static final int FIELDS = 6;
+
+		Chunk(int rows) {
+			fields = new int[rows * FIELDS];
+			flags = new byte[rows];
+			operandStarts = new int[rows + 1];
+			operandOffsets = new int[rows];
+			operandLengths = new int[rows];
+		}
+
+		/**
+		 * 행의 operand를 추가한다. 행 순서대로 호출해야 한다.
+		 *
+		 * @param row    행 번호
+		 * @param offset operand 위치
+		 * @param length operand 길이
+		 */
+		void addOperand(int row, int offset, int length) {
+			int index = operandStarts[row + 1]++;
+			if (index == operandOffsets.length) {
+				operandOffsets = Arrays.copyOf(operandOffsets, index * 2 + 1);
+				operandLengths = Arrays.copyOf(operandLengths, index * 2 + 1);
+			}
+			operandOffsets[index] = offset;
+			operandLengths[index] = length;
+		}
+
+		final int[] fields;
+		final byte[] flags;
+		final int[] operandStarts;
+		int[] operandOffsets;
+		int[] operandLengths;
+
+		/** 토큰화 오류가 난 행. 오류가 없으면 -1 */
+		int errorRow = -1;
+		RuntimeException error;
+	}
+
+	/** chunk 하나의 라인 수. 작업 하나가 수백 마이크로초는 걸리도록 정하였다 */
+	private static final int CHUNK_BITS = 11;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	/** 병렬로 토큰화하는 최소 chunk 수 */
+	private static final int PARALLEL_THRESHOLD = 2;
+
+	private final SourceSection _section;
+	private final Chunk[] _chunks;
+}
@@ -0,0 +1,505 @@
+package token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import directive.Directive;
+import instruction.EncodingTemplates;
+import instruction.Instruction;
+import literal.Literal;
+import numeric.Numeric;
+import symbol.SymbolTable;
+import token.operand.Operand;
+
+/**
+ * pass1 결과를 pass2까지 보관하는 토큰 테이블. 토큰마다 객체를 만들지 않고, 항목별 배열(struct of arrays)에 한 줄씩
+ * 기록한다.
+ *
+ * <p>
+ * 각 토큰은 0부터 시작하는 행 번호로 가리킨다. 한 행은 다음 값을 가진다.
+ *
+ * <ul>
+ * <li>operator: 0 이상이면 명령어 번호(<code>Instruction.getId()</code>), 음수이면 <code>-(지시어 순서 + 1)</code>
+ * <li>nixbpe: <code>N</code>, <code>I</code>, <code>X</code>, <code>B</code>, <code>P</code>,
+ * <code>E</code> 비트를 모은 값
+ * <li>address: 토큰 처리 후의 location counter 값
+ * <li>size: 토큰이 차지하는 크기
+ * <li>operand: 수치값, 리터럴 목록의 번호 혹은 레지스터 번호
+ * <li>binding: 명령어와 WORD의 operand를 미리 찾은 결과 코드와 번호(handle). 번호는 상수 값 혹은 심볼
+ * 테이블의 심볼 번호이며, 심볼 번호이면 이 번호로 주소를 읽는다. <code>InstructionEncoder</code>가 정하며, 정하지
+ * 않은 행은 pass2에서 operand를 직접 찾는다.
+ * <li>operand handle: EXTDEF처럼 operand마다 심볼을 가리키는 경우의 심볼 번호
+ * </ul>
+ *
+ * <p>
+ * 행은 <code>beginInstruction()</code> 혹은 <code>beginDirective()</code>로 시작하고, operand를 추가한 뒤
+ * <code>end()</code>로 마친다.
+ */
+public final class TokenStore {
+	/** iNdirect bit */
+	public static final int N = 0b100000;
+	/** Immediate bit */
+	public static final int I = 0b010000;
+	/** indeX bit */
+	public static final int X = 0b001000;
+	/** Base relative bit. base relative는 구현하지 않음 */
+	public static final int B = 0b000100;
+	/** Pc relative bit */
+	public static final int P = 0b000010;
+	/** Extra bit */
+	public static final int E = 0b000001;
+
+	/** operand 종류: 수치값 */
+	public static final int NUMERIC = 0;
+	/** operand 종류: 리터럴 */
+	public static final int LITERAL = 1;
+	/** operand 종류: 레지스터 */
+	public static final int REGISTER = 2;
+
+	/** 미리 찾은 operand 번호 종류: 상수. immediate 값, 레지스터 번호, 심볼과 리터럴의 주소, 계산한 수식 값 등 */
+	public static final int HANDLE_CONSTANT = 0;
+	/** 미리 찾은 operand 번호 종류: 심볼 테이블의 심볼 번호. 아직 정의되지 않은 심볼을 가리킬 때 사용한다 */
+	public static final int HANDLE_SYMBOL = 1;
+
+	/**
+	 * 빈 토큰 테이블을 만든다.
+	 *
+	 * @param capacity  예상 토큰 수
+	 * @param templates 명령어가 속한 기계어 목록 테이블의 object code 틀 테이블. 명령어 번호로 명령어를 찾는다.
+	 */
+	public TokenStore(int capacity, EncodingTemplates templates) {
+		_templates = templates;
+		capacity = Math.max(capacity, 4);
+		_operators = new short[capacity];
+		_nixbpe = new byte[capacity];
+		_addresses = new int[capacity];
+		_sizes = new int[capacity];
+		_operandStarts = new int[capacity + 1];
+		_operands = new int[capacity];
+		_operandHandles = new int[capacity];
+		_handles = new int[capacity];
+		_bindings = new byte[capacity];
+	}
+
+	/**
+	 * 명령어 토큰 행을 시작한다.
+	 *
+	 * @param inst   기계어 정보
+	 * @param nixbpe nixbpe 비트
+	 * @return 행 번호
+	 */
+	public int beginInstruction(Instruction inst, int nixbpe) {
+		return begin(inst.getId(), nixbpe);
+	}
+
+	/**
+	 * 지시어 토큰 행을 시작한다.
+	 *
+	 * @param directive 지시어
+	 * @return 행 번호
+	 */
+	public int beginDirective(Directive directive) {
+		return begin(-(directive.ordinal() + 1), 0);
+	}
+
+	/**
+	 * 진행 중인 행에 수치값 operand를 추가한다.
+	 *
+	 * @param numeric 수치값
+	 */
+	public void addNumeric(Numeric numeric) {
+		addOperand(_numerics.size(), NUMERIC);
+		_numerics.add(numeric);
+	}
+
+	/**
+	 * 진행 중인 행에 심볼을 가리키는 수치값 operand를 추가한다.
+	 *
+	 * @param numeric 수치값
+	 * @param handle  심볼 테이블의 심볼 번호
+	 */
+	public void addSymbol(Numeric numeric, int handle) {
+		addNumeric(numeric);
+		_operandHandles[_operandCount - 1] = handle;
+	}
+
+	/**
+	 * 진행 중인 행에 리터럴 operand를 추가한다.
+	 *
+	 * @param literal 리터럴
+	 */
+	public void addLiteral(Literal literal) {
+		addOperand(_literals.size(), LITERAL);
+		_literals.add(literal);
+	}
+
+	/**
+	 * 진행 중인 행에 레지스터 operand를 추가한다.
+	 *
+	 * @param register 레지스터
+	 */
+	public void addRegister(Operand.Register register) {
+		addOperand(register.ordinal(), REGISTER);
+	}
+
+	/**
+	 * 진행 중인 행을 마친다.
+	 *
+	 * @param address 토큰 처리 후의 location counter 값
+	 * @param size    토큰이 차지하는 크기
+	 */
+	public void end(int address, int size) {
+		_addresses[_size] = address;
+		_sizes[_size] = size;
+		_operandStarts[++_size] = _operandCount;
+	}
+
+	/**
+	 * 다른 토큰 테이블의 행을 순서대로 이어 붙인다. 여러 구간을 따로 만든 뒤 합칠 때 사용한다. 두 테이블은 같은 기계어
+	 * 목록 테이블을 사용해야 한다.
+	 *
+	 * @param other 이어 붙일 토큰 테이블
+	 */
+	public void append(TokenStore other) {
+		int numericBase = _numerics.size();
+		int literalBase = _literals.size();
+		for (int row = 0; row < other._size; row++) {
+			begin(other._operators[row], other._nixbpe[row]);
+			for (int i = other._operandStarts[row]; i < other._operandStarts[row + 1]; i++) {
+				int operand = other._operands[i];
+				int kind = operand & KIND_MASK;
+				int value = operand >>> KIND_BITS;
+				if (kind == NUMERIC)
+					value += numericBase;
+				else if (kind == LITERAL)
+					value += literalBase;
+				addOperand(value, kind);
+				_operandHandles[_operandCount - 1] = other._operandHandles[i];
+			}
+			end(other._addresses[row], other._sizes[row]);
+			// 번호는 심볼 테이블과 리터럴 테이블의 번호이므로 그대로 옮긴다
+			_handles[_size - 1] = other._handles[row];
+			_bindings[_size - 1] = other._bindings[row];
+		}
+		_numerics.addAll(other._numerics);
+		_literals.addAll(other._literals);
+	}
+
+	/**
+	 * 모든 행을 지운다. 배열은 그대로 두고 다시 사용한다.
+	 */
+	public void clear() {
+		_size = 0;
+		_operandCount = 0;
+		_numerics.clear();
+		_literals.clear();
+	}
+
+	/**
+	 * 토큰 수를 반환한다.
+	 *
+	 * @return 토큰 수
+	 */
+	public int size() {
+		return _size;
+	}
+
+	/**
+	 * 명령어 토큰인지 여부를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return 명령어 토큰인지 여부
+	 */
+	public boolean isInstruction(int row) {
+		return _operators[row] >= 0;
+	}
+
+	/**
+	 * 명령어 토큰의 기계어 정보를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return 기계어 정보
+	 */
+	public Instruction getInstruction(int row) {
+		return _templates.getInstruction(_operators[row]);
+	}
+
+	/**
+	 * 명령어 토큰의 명령어 번호를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return <code>Instruction.getId()</code>와 같은 명령어 번호
+	 */
+	public int getInstructionId(int row) {
+		return _operators[row];
+	}
+
+	/**
+	 * 지시어 토큰의 지시어를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return 지시어
+	 */
+	public Directive getDirective(int row) {
+		return DIRECTIVES[-_operators[row] - 1];
+	}
+
+	/**
+	 * 토큰의 nixbpe 비트를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return nixbpe 비트
+	 */
+	public int getNixbpe(int row) {
+		return _nixbpe[row];
+	}
+
+	/**
+	 * 토큰 처리 후의 location counter 값을 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return location counter 값
+	 */
+	public int getAddress(int row) {
+		return _addresses[row];
+	}
+
+	/**
+	 * 토큰이 차지하는 크기를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return 크기
+	 */
+	public int getSize(int row) {
+		return _sizes[row];
+	}
+
+	/**
+	 * 토큰의 operand 수를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return operand 수
+	 */
+	public int getOperandCount(int row) {
+		return _operandStarts[row + 1] - _operandStarts[row];
+	}
+
+	/**
+	 * operand 종류를 반환한다.
+	 *
+	 * @param row   행 번호
+	 * @param index operand 순서
+	 * @return <code>NUMERIC</code>, <code>LITERAL</code>, <code>REGISTER</code> 중 하나
+	 */
+	public int getOperandKind(int row, int index) {
+		return _operands[_operandStarts[row] + index] & KIND_MASK;
+	}
+
+	/**
+	 * 수치값 operand를 반환한다.
+	 *
+	 * @param row   행 번호
+	 * @param index operand 순서
+	 * @return 수치값
+	 */
+	public Numeric getNumeric(int row, int index) {
+		return _numerics.get(_operands[_operandStarts[row] + index] >>> KIND_BITS);
+	}
+
+	/**
+	 * 리터럴 operand를 반환한다.
+	 *
+	 * @param row   행 번호
+	 * @param index operand 순서
+	 * @return 리터럴
+	 */
+	public Literal getLiteral(int row, int index) {
+		return _literals.get(_operands[_operandStarts[row] + index] >>> KIND_BITS);
+	}
+
+	/**
+	 * 레지스터 operand를 반환한다.
+	 *
+	 * @param row   행 번호
+	 * @param index operand 순서
+	 * @return 레지스터
+	 */
+	public Operand.Register getRegister(int row, int index) {
+		return REGISTERS[_operands[_operandStarts[row] + index] >>> KIND_BITS];
+	}
+
+	/**
+	 * operand가 가리키는 심볼 번호를 반환한다.
+	 *
+	 * @param row   행 번호
+	 * @param index operand 순서
+	 * @return <code>addSymbol()</code>로 추가한 operand이면 심볼 번호, 그 외에는
+	 *         <code>SymbolTable.NO_HANDLE</code>
+	 */
+	public int getOperandHandle(int row, int index) {
+		return _operandHandles[_operandStarts[row] + index];
+	}
+
+	/**
+	 * operand를 미리 찾은 결과를 기록한다.
+	 *
+	 * @param row    행 번호
+	 * @param result <code>InstructionEncoder</code>의 결과 코드
+	 * @param kind   번호 종류. <code>HANDLE_CONSTANT</code> 혹은 <code>HANDLE_SYMBOL</code>
+	 * @param handle 상수 값 혹은 번호
+	 */
+	public void bind(int row, int result, int kind, int handle) {
+		_handles[row] = handle;
+		_bindings[row] = (byte) ((result + 1) | kind << KIND_SHIFT);
+	}
+
+	/**
+	 * WORD의 수식에 외부 심볼이 있음을 기록한다. pass2는 기록된 행에서만 modification record를 찾는다.
+	 *
+	 * @param row 행 번호
+	 */
+	public void markExternal(int row) {
+		_bindings[row] |= EXTERNAL;
+	}
+
+	/**
+	 * operand를 미리 찾아 두었는지 여부를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return 기록 여부
+	 */
+	public boolean isBound(int row) {
+		return _bindings[row] != 0;
+	}
+
+	/**
+	 * 미리 찾은 operand의 결과 코드를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return <code>InstructionEncoder</code>의 결과 코드
+	 */
+	public int getBindResult(int row) {
+		return (_bindings[row] & RESULT_MASK) - 1;
+	}
+
+	/**
+	 * 미리 찾은 operand의 번호 종류를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return <code>HANDLE_CONSTANT</code> 혹은 <code>HANDLE_SYMBOL</code>
+	 */
+	public int getHandleKind(int row) {
+		return _bindings[row] >>> KIND_SHIFT & 3;
+	}
+
+	/**
+	 * 미리 찾은 operand의 번호를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return 상수 값 혹은 번호
+	 */
+	public int getHandle(int row) {
+		return _handles[row];
+	}
+
+	/**
+	 * <code>markExternal()</code>로 외부 심볼이 있다고 기록했는지 여부를 반환한다.
+	 *
+	 * @param row 행 번호
+	 * @return 기록 여부
+	 */
+	public boolean hasExternal(int row) {
+		return (_bindings[row] & EXTERNAL) != 0;
+	}
+
+	/**
+	 * 토큰의 정보를 문자열로 반환한다. 디버그 용도로 사용한다.
+	 *
+	 * @param row 행 번호
+	 * @return 토큰 정보 문자열
+	 */
+	public String toString(int row) {
+		StringBuilder operands = new StringBuilder();
+		for (int i = 0; i < getOperandCount(row); i++) {
+			if (i != 0)
+				operands.append('/');
+			switch (getOperandKind(row, i)) {
+				case NUMERIC:
+					operands.append("Numeric(").append(getNumeric(row, i)).append(')');
+					break;
+				case LITERAL:
+					operands.append("Literal(").append(getLiteral(row, i).getLiteral()).append(')');
+					break;
+				default:
+					operands.append("Register(").append(getRegister(row, i).getName()).append(')');
+					break;
+			}
+		}
+		if (operands.length() == 0)
+			operands.append("(empty)");
+
+		if (!isInstruction(row))
+			return "DirectiveToken{name:" + getDirective(row).getName() + ", operands:" + operands + "}";
+
+		String nixbpe = Integer.toBinaryString(_nixbpe[row] | 1 << 6).substring(1);
+		return "InstructionToken{name:" + getInstruction(row).getName() + ", operands:" + operands + ", nixbpe:0b"
+				+ nixbpe + "}";
+	}
+
+	private int begin(int operator, int nixbpe) {
+		if (_size + 1 >= _operandStarts.length) {
+			int capacity = _operators.length * 2;
+			_operators = Arrays.copyOf(_operators, capacity);
+			_nixbpe = Arrays.copyOf(_nixbpe, capacity);
+			_addresses = Arrays.copyOf(_addresses, capacity);
+			_sizes = Arrays.copyOf(_sizes, capacity);
+			_operandStarts = Arrays.copyOf(_operandStarts, capacity + 1);
+			_handles = Arrays.copyOf(_handles, capacity);
+			_bindings = Arrays.copyOf(_bindings, capacity);
+		}
+		_operators[_size] = (short) operator;
+		_nixbpe[_size] = (byte) nixbpe;
+		_bindings[_size] = 0;
+		return _size;
+	}
+
+	private void addOperand(int value, int kind) {
+		if (_operandCount == _operands.length) {
+			_operands = Arrays.copyOf(_operands, _operands.length * 2);
+			_operandHandles = Arrays.copyOf(_operandHandles, _operands.length);
+		}
+		_operandHandles[_operandCount] = SymbolTable.NO_HANDLE;
+		_operands[_operandCount++] = value << KIND_BITS | kind;
+	}
+
+	/** <code>_bindings</code>의 하위 4비트는 결과 코드 + 1, 그 위 2비트는 번호 종류 */
+	private static final int RESULT_MASK = 0xF;
+	private static final int KIND_SHIFT = 4;
+	/** <code>_bindings</code>에서 WORD 수식에 외부 심볼이 있음을 나타내는 비트 */
+	private static final int EXTERNAL = 0x40;
+	private static final int KIND_BITS = 2;
+	private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+	private static final Directive[] DIRECTIVES = Directive.values();
+	private static final Operand.Register[] REGISTERS = Operand.Register.values();
+
+	private int _size;
+	private short[] _operators;
+	private byte[] _nixbpe;
+	private int[] _addresses;
+	private int[] _sizes;
+	/** 행별 operand 시작 위치. 행 수보다 하나 더 많으며, 마지막 값은 다음 행의 시작 위치 */
+	private int[] _operandStarts;
+	/** operand 목록. 하위 2비트는 operand 종류, 나머지는 목록 번호 혹은 레지스터 번호 */
+	private int[] _operands;
+	/** operand별 심볼 번호. <code>_operands</code>와 같은 위치를 사용한다 */
+	private int[] _operandHandles;
+	private int _operandCount;
+	/** 행별로 미리 찾은 operand의 상수 값 혹은 번호 */
+	private int[] _handles;
+	/** 행별로 미리 찾은 operand의 결과 코드와 번호 종류. 찾지 않은 행은 0 */
+	private byte[] _bindings;
+
+	/** 명령어 번호로 명령어를 찾는 틀 테이블 */
+	private final EncodingTemplates _templates;
+	private final ArrayList<Numeric> _numerics = new ArrayList<Numeric>();
+	private final ArrayList<Literal> _literals = new ArrayList<Literal>();
+}
@@ -0,0 +1,201 @@
+package trace;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 서브시스템별 디버그 출력 도구.
+ *
+ * <p>
+ * 출력 여부는 JVM 시작 시 시스템 속성으로 한 번만 정해진다. 각 서브시스템의 <code>info</code>,
+ * <code>debug</code> 필드는 final이므로, 꺼져 있는 경우 호출부의 <code>if (Tracer.PASS1.debug)</code> 검사만
+ * 남고 문자열 생성이나 포맷팅은 일어나지 않는다.
+ *
+ * <ul>
+ * <li><code>-Dsicxe.trace=lexer,pass1=info</code>: 켤 서브시스템 목록. 레벨을 생략하면 debug. <code>all</code>은
+ * 모든 서브시스템.
+ * <li><code>-Dsicxe.trace.file=trace.log</code>: 출력 파일. 주어지면 별도 스레드가 비동기로 파일에 쓰고, 없으면 표준
+ * 출력에 바로 쓴다.
+ * </ul>
+ */
+public final class Tracer {
+	/**
+	 * 출력 레벨.
+	 */
+	public enum Level {
+		/**
+		 * 출력하지 않음
+		 */
+		OFF,
+
+		/**
+		 * 요약 정보만 출력함
+		 */
+		INFO,
+
+		/**
+		 * 라인 단위의 상세 정보까지 출력함
+		 */
+		DEBUG
+	}
+
+	/** 소스 코드 라인 파싱 (StringToken) */
+	public static final Tracer LEXER = new Tracer("lexer");
+
+	/** pass1 (LOCCTR, 심볼 테이블, 리터럴 테이블) */
+	public static final Tracer PASS1 = new Tracer("pass1");
+
+	/** pass2 (명령어 및 지시어 기계어 변환) */
+	public static final Tracer PASS2 = new Tracer("pass2");
+
+	/** 오브젝트 코드 레코드 출력 */
+	public static final Tracer OBJECTCODE = new Tracer("objectcode");
+
+	private Tracer(String name) {
+		Level level = levelOf(name);
+
+		_name = name;
+		this.info = level.compareTo(Level.INFO) >= 0;
+		this.debug = level.compareTo(Level.DEBUG) >= 0;
+	}
+
+	/**
+	 * 한 줄을 출력한다. 호출하기 전에 <code>info</code> 혹은 <code>debug</code> 필드로 출력 여부를 확인해야 한다.
+	 *
+	 * @param message 출력할 내용
+	 */
+	public void log(String message) {
+		SINK.write(message);
+	}
+
+	/**
+	 * 포맷 문자열로 한 줄을 만들어 출력한다. 호출하기 전에 <code>info</code> 혹은 <code>debug</code> 필드로 출력
+	 * 여부를 확인해야 한다.
+	 *
+	 * @param format 포맷 문자열
+	 * @param args   포맷 인자
+	 */
+	public void logf(String format, Object... args) {
+		SINK.write(String.format(format, args));
+	}
+
+	@Override
+	public String toString() {
+		return _name;
+	}
+
+	/**
+	 * 시스템 속성에서 서브시스템의 출력 레벨을 찾는다.
+	 *
+	 * @param name 서브시스템 명칭
+	 * @return 출력 레벨. 속성이 없거나 목록에 없으면 <code>Level.OFF</code>
+	 */
+	private static Level levelOf(String name) {
+		String option = System.getProperty("sicxe.trace");
+		if (option == null || option.isEmpty())
+			return Level.OFF;
+
+		for (String entry : option.split(",")) {
+			int eq = entry.indexOf('=');
+			String key = (eq < 0 ? entry : entry.substring(0, eq)).strip();
+			if (!key.equals(name) && !key.equals("all"))
+				continue;
+
+			if (eq < 0)
+				return Level.DEBUG;
+			try {
+				return Level.valueOf(entry.substring(eq + 1).strip().toUpperCase());
+			} catch (IllegalArgumentException e) {
+				System.err.println("Error : illegal trace level (" + entry + ")");
+				return Level.OFF;
+			}
+		}
+		return Level.OFF;
+	}
+
+	private static Sink createSink() {
+		String option = System.getProperty("sicxe.trace");
+		String fileName = System.getProperty("sicxe.trace.file");
+		if (option == null || option.isEmpty() || fileName == null || fileName.isEmpty())
+			return message -> System.out.println(message);
+
+		try {
+			return new AsyncFileSink(fileName);
+		} catch (IOException e) {
+			System.err.println("Error : cannot open trace file (" + e.getMessage() + ")");
+			return message -> System.out.println(message);
+		}
+	}
+
+	private interface Sink {
+		void write(String message);
+	}
+
+	/**
+	 * 별도 스레드에서 파일에 쓰는 출력 대상. 어셈블 스레드는 큐에 넣기만 하고 파일 입출력을 기다리지 않는다. JVM 종료 시 남은
+	 * 내용을 모두 쓰고 파일을 닫는다.
+	 */
+	private static final class AsyncFileSink implements Sink, Runnable {
+		AsyncFileSink(String fileName) throws IOException {
+			_writer = new BufferedWriter(new FileWriter(fileName));
+			_thread = new Thread(this, "sicxe-trace");
+			_thread.setDaemon(true);
+			_thread.start();
+
+			Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+		}
+
+		@Override
+		public void write(String message) {
+			_queue.add(message);
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					String message = _queue.take();
+					if (message == END_OF_TRACE)
+						break;
+
+					_writer.write(message);
+					_writer.newLine();
+					// 밀린 내용이 없을 때만 flush하여 쓰기 횟수를 줄인다
+					if (_queue.isEmpty())
+						_writer.flush();
+				}
+				_writer.close();
+			} catch (IOException | InterruptedException e) {
+				System.err.println("Error : trace output stopped (" + e.getMessage() + ")");
+			}
+		}
+
+		private void close() {
+			_queue.add(END_OF_TRACE);
+			try {
+				_thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		/** 스레드 종료 표시. 참조로 비교한다 */
+		private static final String END_OF_TRACE = new String("");
+
+		private final LinkedBlockingQueue<String> _queue = new LinkedBlockingQueue<String>();
+		private final BufferedWriter _writer;
+		private final Thread _thread;
+	}
+
+	private static final Sink SINK = createSink();
+
+	/** INFO 레벨 이상이 켜져 있는지 여부 */
+	public final boolean info;
+
+	/** DEBUG 레벨이 켜져 있는지 여부 */
+	public final boolean debug;
+
+	private final String _name;
+}